@@ -15,6 +15,7 @@ import amidst.gui.profileselect.ProfileSelectWindow;
 import amidst.mojangapi.LauncherProfileRunner;
 import amidst.mojangapi.RunningLauncherProfile;
 import amidst.mojangapi.file.*;
+import amidst.mojangapi.minecraftinterface.BiomeTileStore;
 import amidst.mojangapi.minecraftinterface.MinecraftInterfaceCreationException;
 import amidst.mojangapi.world.SeedHistoryLogger;
 import amidst.mojangapi.world.WorldBuilder;
@@ -73,13 +74,17 @@ public class Application {
 
 		selectedLauncherProfile = parameters.getInitialLauncherProfile(minecraftInstallation);
 
-		WorldBuilder worldBuilder = new WorldBuilder(new PlayerInformationCache(), SeedHistoryLogger.from(parameters.seedHistoryFile));
+		WorldBuilder worldBuilder = new WorldBuilder(
+				new PlayerInformationCache(),
+				SeedHistoryLogger.from(parameters.seedHistoryFile),
+				BiomeTileStore.create(parameters.biomeCacheDirectory),
+				settings.threads::get);
 		launcherProfileRunner = new LauncherProfileRunner(worldBuilder, parameters.getInitialWorldOptions());
 		biomeProfileDirectory = BiomeProfileDirectory.create(parameters.biomeProfilesDirectory);
 		versionListProvider = new VersionListProvider(threadMaster.getWorkerExecutor());
 		versions = Version.newLocalVersionList();
 		zoom = new Zoom(settings.maxZoom);
-		fragmentManager = new FragmentManager(layerBuilder.getConstructors(), layerBuilder.getNumberOfLayers(), settings.threads);
+		fragmentManager = new FragmentManager(layerBuilder.getConstructors(), layerBuilder.getNumberOfLayers(), settings.threads, settings.fragmentCacheMegabytes);
 	}
 
 	/**
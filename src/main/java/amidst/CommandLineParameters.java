@@ -72,6 +72,13 @@ public class CommandLineParameters {
 	)
 	public volatile Path seedHistoryFile;
 
+	@Option(
+	    name = "-biome-cache",
+	    usage = "location of the biome data cache directory",
+	    metaVar = "<directory>"
+	)
+	public volatile Path biomeCacheDirectory;
+
 	@Option(
 	    name = "-log",
 	    usage = "location of the log file",
@@ -15,8 +15,8 @@ public enum AmidstThread {
 	STARTUP,
 
 	/**
-	 * This thread constantly causes the EDT to repaint the map, however it does
-	 * not execute any other code by itself.
+	 * This thread causes the EDT to repaint the map whenever a repaint is
+	 * requested, however it does not execute any other code by itself.
 	 */
 	REPAINTER,
 
@@ -29,10 +29,11 @@ public enum AmidstThread {
 	EDT,
 
 	/**
-	 * This thread constantly loads, reloads and recycles fragments, because it
-	 * takes to long to do this in the EDT. Since this thread and the EDT
-	 * constantly read from and write to the fragments and fragment graph, extra
-	 * care must be used in this part of the application.
+	 * These are the fragment workers. They load, reload and recycle fragments,
+	 * because it takes to long to do this in the EDT. They only run when there
+	 * is something to do, see FragmentQueueProcessor. Since these threads and
+	 * the EDT constantly read from and write to the fragments and fragment
+	 * graph, extra care must be used in this part of the application.
 	 */
 	FRAGMENT_LOADER,
 
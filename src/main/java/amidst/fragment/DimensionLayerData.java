@@ -0,0 +1,107 @@
+package amidst.fragment;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import amidst.documentation.ThreadSafe;
+import amidst.mojangapi.world.Dimension;
+
+/**
+ * The images of a fragment and the generations of its layers for a single
+ * dimension. A fragment keeps one of these per dimension it was loaded in, so
+ * switching back to a dimension at the same coordinates can show the images
+ * which were already drawn. The biome data, the end islands and the world
+ * icons are not part of this, because each of those layers is only shown in
+ * a single dimension anyway.
+ */
+@ThreadSafe
+public class DimensionLayerData {
+	private volatile Dimension dimension;
+	private final AtomicReferenceArray<ImageBuffer> frontBuffers;
+	private final AtomicReferenceArray<ImageBuffer> backBuffers;
+	private final AtomicIntegerArray layerGenerations;
+
+	DimensionLayerData(int numberOfLayers) {
+		this.frontBuffers = new AtomicReferenceArray<>(numberOfLayers);
+		this.backBuffers = new AtomicReferenceArray<>(numberOfLayers);
+		this.layerGenerations = new AtomicIntegerArray(numberOfLayers);
+		clearLayerGenerations();
+	}
+
+	/**
+	 * Creates empty images of the same sizes as the images of the given data.
+	 */
+	static DimensionLayerData createLike(DimensionLayerData other, Dimension dimension) {
+		DimensionLayerData result = new DimensionLayerData(other.frontBuffers.length());
+		result.dimension = dimension;
+		for (int i = 0; i < other.frontBuffers.length(); i++) {
+			ImageBuffer buffer = other.frontBuffers.get(i);
+			if (buffer != null) {
+				result.putImageBuffers(i, buffer.createEmptyCopy(), buffer.createEmptyCopy());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns null if this data was not used for any dimension since the
+	 * fragment was created or recycled.
+	 */
+	public Dimension getDimension() {
+		return dimension;
+	}
+
+	void setDimension(Dimension dimension) {
+		this.dimension = dimension;
+	}
+
+	void putImageBuffers(int layerId, ImageBuffer frontBuffer, ImageBuffer backBuffer) {
+		frontBuffers.set(layerId, frontBuffer);
+		backBuffers.set(layerId, backBuffer);
+	}
+
+	public ImageBuffer getFrontBuffer(int layerId) {
+		return frontBuffers.get(layerId);
+	}
+
+	public ImageBuffer getBackBuffer(int layerId) {
+		return backBuffers.get(layerId);
+	}
+
+	/**
+	 * Makes the back buffer the front buffer and vice versa. Only one thread
+	 * may write to the back buffer and publish it at a time, which is ensured
+	 * by {@link Fragment#tryLockLayers()}. Use
+	 * {@link Fragment#publishBackBuffer(DimensionLayerData, int)}, so the
+	 * snapshot version of the fragment is updated.
+	 */
+	void publishBackBuffer(int layerId) {
+		backBuffers.set(layerId, frontBuffers.getAndSet(layerId, backBuffers.get(layerId)));
+	}
+
+	public int getLayerGeneration(int layerId) {
+		return layerGenerations.get(layerId);
+	}
+
+	public void setLayerGeneration(int layerId, int layerGeneration) {
+		layerGenerations.set(layerId, layerGeneration);
+	}
+
+	void clearLayerGenerations() {
+		for (int i = 0; i < layerGenerations.length(); i++) {
+			layerGenerations.set(i, Fragment.NOT_LOADED);
+		}
+	}
+
+	public int getSizeInBytes() {
+		int result = 0;
+		for (int i = 0; i < frontBuffers.length(); i++) {
+			result += getSizeInBytes(frontBuffers.get(i)) + getSizeInBytes(backBuffers.get(i));
+		}
+		return result;
+	}
+
+	private int getSizeInBytes(ImageBuffer buffer) {
+		return buffer == null ? 0 : buffer.getSizeInBytes();
+	}
+}
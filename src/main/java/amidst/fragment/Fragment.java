@@ -2,20 +2,27 @@ package amidst.fragment;
 
 import java.awt.image.BufferedImage;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.UnaryOperator;
 
 import amidst.documentation.AmidstThread;
 import amidst.documentation.CalledOnlyBy;
 import amidst.documentation.ThreadSafe;
 import amidst.gui.main.viewer.Drawer;
+import amidst.mojangapi.world.Dimension;
 import amidst.mojangapi.world.coordinates.CoordinatesInWorld;
 import amidst.mojangapi.world.coordinates.Resolution;
 import amidst.mojangapi.world.icon.WorldIcon;
 import amidst.mojangapi.world.oracle.BiomeDataOracle;
 import amidst.mojangapi.world.oracle.EndIsland;
+import amidst.util.ArrayCache;
 
 /**
  * This class contains nearly no logic but only simple and atomic getters and
@@ -27,7 +34,7 @@ import amidst.mojangapi.world.oracle.EndIsland;
  * life-cycle consists of the three flags: isInitialized, isLoading, and
  * isLoaded. isInitialized can be set to true from any thread, however setting
  * isInitialized to false as well as any modification to isLoading and isLoaded
- * will always be called from the fragment loading thread, to ensure a
+ * will always be called from the fragment workers, to ensure a
  * consistent state. Also, isInitialized will only be set to true again after it
  * was set to false. It is not possible that isLoading or isLoaded is true while
  * isInitialized is false. It is also not possible for isLoaded to be true while
@@ -35,8 +42,8 @@ import amidst.mojangapi.world.oracle.EndIsland;
  * </br>
  * It is possible that a thread that uses the data in the fragment continues to
  * use them after isLoaded is set to false. However, all write operations are
- * called from either the fragment loading thread, the threads from
- * {@link FragmentManager#fragWorkers}, or the EDT during theconstruction of
+ * called from either the fragment workers in
+ * {@link FragmentManager#fragWorkers} or the EDT during the construction of
  * the fragment. While the fragment is constructed it will only be accessible
  * by one thread. An exception to that rule is the instance variable alpha.
  * It is altered from the drawing thread, however this should not cause any
@@ -53,13 +60,13 @@ import amidst.mojangapi.world.oracle.EndIsland;
  * will go through the loading process, because it was enqueued to the loading
  * queue. </br>
  * </br>
- * During the loading process, the fragment loader thread will first check to
- * make sure that there are threads open in the fragment worker thread pool. If
- * it finds any threads that aren't executing anything, it will be passed to a
- * fragment worker to be loaded. When the fragment worker starts, it checks to
- * see if the fragment is already loading. If it is not, the isLoading variable
- * is set to true. This is to make sure that only one thread is loading the
- * fragment at a time. </br>
+ * Enqueuing the fragment signals the {@link FragmentQueueProcessor}, which
+ * starts another fragment worker in the {@link FragmentManager#fragWorkers}
+ * pool, unless all of them are busy already. The workers take the fragments
+ * from the loading queue until it is empty. When a fragment worker takes the
+ * fragment, it checks to see if the fragment is already loading. If it is not,
+ * the isLoading variable is set to true. This is to make sure that only one
+ * thread is loading the fragment at a time. </br>
  * </br>
  * When this is done, the isLoaded variable will be set to true. This allows the
  * drawer to actually draw the fragment. The complete drawing process is
@@ -67,20 +74,20 @@ import amidst.mojangapi.world.oracle.EndIsland;
  * on the screen it will be removed from the fragment graph. However, since it
  * holds a data-structure that is quite heavy to allocate and garbage-collect,
  * the fragment will be recycled so it can be reused later. This recycling is
- * done by enqueuing the fragment to the recycle queue. The recycle queue is
- * processed by the fragment loading thread with a very high priority. Even
- * though the fragment loading thread only calls the method
- * {@link Fragment#recycle()} and enqueues the fragment to the available queue,
- * it is important that this is done by the fragment loading queue. This is,
- * because if any other thread sets the isLoaded variable to false, it might be
- * set to true by the fragment loading thread afterwards, because the fragment
+ * done by enqueuing the fragment to the recycle queue, which also signals the
+ * fragment workers. Each fragment worker processes the recycle queue before it
+ * takes the next fragment from the loading queue. Even though this only calls
+ * the method {@link Fragment#tryRecycle()} and enqueues the fragment to the
+ * available queue, it is important that this is done by a fragment worker.
+ * This is, because if any other thread sets the isLoaded variable to false, it
+ * might be set to true by a fragment worker afterwards, because the fragment
  * was not yet loaded. This problem is solved by modifying the isLoaded variable
- * only in the fragment loading thread. This issue only arises, since the
+ * only in the fragment workers. This issue only arises, since the
  * fragment is already used in the fragment graph, before it is loaded. As soon
  * as it is used in the fragment graph it, can be recycled. This often leads to
  * a situation where a not yet loaded fragment gets recycled. The isInitialized
  * variable is altered by the thread that requests the new fragment, which is
- * different from the fragment loading thread. This is not an issue, since all
+ * different from the fragment workers. This is not an issue, since all
  * fragments in the available queue have both variables isInitialized and
  * isLoaded set to false. They are also not used in the fragment graph or
  * enqueued in the recycle queue. Therefore, there cannot be a race condition
@@ -90,20 +97,30 @@ import amidst.mojangapi.world.oracle.EndIsland;
 @ThreadSafe
 public class Fragment {
 	public static final int SIZE = Resolution.FRAGMENT.getStep();
+	public static final int NOT_LOADED = -1;
+
+	private static final ArrayCache<short[]> BIOME_DATA_ARRAYS = ArrayCache.makeShortArrayCache(
+			Resolution.QUARTER.getStepsPerFragment() * Resolution.QUARTER.getStepsPerFragment());
 
 	private final AtomicReference<State> state;
+	private final AtomicInteger generation = new AtomicInteger();
+	private final AtomicInteger snapshotVersion = new AtomicInteger();
+	private final ReentrantLock layerLock = new ReentrantLock();
+	private AtomicLong sizeCounter;
+	private int countedSizeInBytes;
 	private volatile CoordinatesInWorld corner;
 
 	private volatile float alpha;
-	private volatile short[][] biomeData;
+	private volatile PalettedBiomeData biomeData;
 	private volatile List<EndIsland> endIslands;
-	private final AtomicReferenceArray<BufferedImage> images;
 	private final AtomicReferenceArray<List<WorldIcon>> worldIcons;
+	private final Map<Dimension, DimensionLayerData> layerDataByDimension = new EnumMap<>(Dimension.class);
+	private volatile DimensionLayerData layerData;
 
 	public Fragment(int numberOfLayers) {
 		this.state = new AtomicReference<State>(State.UNINITIALIZED);
-		this.images = new AtomicReferenceArray<>(numberOfLayers);
 		this.worldIcons = new AtomicReferenceArray<>(numberOfLayers);
+		this.layerData = new DimensionLayerData(numberOfLayers);
 	}
 
 	public void setAlpha(float alpha) {
@@ -115,24 +132,34 @@ public class Fragment {
 	}
 
 	public void initBiomeData(int width, int height) {
-		biomeData = new short[width][height];
+		biomeData = PalettedBiomeData.empty(width, height);
+		updateSizeCounter();
 	}
 
+	/**
+	 * The world accessor writes the biome data into a pooled array, which is
+	 * then compressed. The compressed data is replaced as a whole, so threads
+	 * reading the previous data are not affected.
+	 */
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	public void populateBiomeData(BiomeDataOracle biomeDataOracle) {
-		int width = biomeData.length;
-		int height = width == 0 ? 0 : biomeData[0].length;
-		biomeDataOracle.getBiomeData(corner, width, height, true, data -> {
-			for (int i = 0; i < width; i++) {
-				for (int j = 0; j < height; j++) {
-					biomeData[i][j] = (short) data[j * width + i];
-				}
+		int width = biomeData.getWidth();
+		int height = biomeData.getHeight();
+		BIOME_DATA_ARRAYS.withArray(width * height, data -> {
+			if (biomeDataOracle.getBiomeData(corner, width, height, true, data)) {
+				biomeData = PalettedBiomeData.from(data, width, height);
 			}
+			return null;
 		});
+		updateSizeCounter();
 	}
 
 	public short getBiomeDataAt(int x, int y) {
-		return biomeData[x][y];
+		return biomeData.get(x, y);
+	}
+
+	public PalettedBiomeData getBiomeData() {
+		return biomeData;
 	}
 
 	public void setEndIslands(List<EndIsland> endIslands) {
@@ -143,20 +170,93 @@ public class Fragment {
 		return endIslands;
 	}
 
-	public BufferedImage getAndSetImage(int layerId, BufferedImage image) {
-		return images.getAndSet(layerId, image);
+	/**
+	 * Makes the images and layer generations of the given dimension the
+	 * current ones. The images of the previous dimension are kept, so they can
+	 * be shown again without reloading them when switching back. They are
+	 * dropped when the fragment is recycled, so only the fragments in the
+	 * fragment graph hold the images of more than one dimension. The returned
+	 * data is the one of the given dimension, even if another dimension is
+	 * selected later on.
+	 */
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	public synchronized DimensionLayerData selectDimension(Dimension dimension) {
+		DimensionLayerData current = layerData;
+		if (dimension.equals(current.getDimension())) {
+			return current;
+		}
+		DimensionLayerData selected = layerDataByDimension.get(dimension);
+		if (selected == null) {
+			if (current.getDimension() != null) {
+				selected = DimensionLayerData.createLike(current, dimension);
+			} else {
+				// the fragment was recycled, so the current images can be reused
+				current.setDimension(dimension);
+				selected = current;
+			}
+			layerDataByDimension.put(dimension, selected);
+		}
+		layerData = selected;
+		snapshotVersion.incrementAndGet();
+		updateSizeCounter();
+		return selected;
+	}
+
+	/**
+	 * Only one fragment worker may load or reload the layers of this fragment
+	 * at a time, because the back buffers are swapped when they are published.
+	 * A loaded fragment might be enqueued to be reloaded while it is still
+	 * being reloaded, so a reload only tries to take the lock.
+	 */
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	public boolean tryLockLayers() {
+		return layerLock.tryLock();
 	}
 
-	public void putImage(int layerId, BufferedImage image) {
-		images.set(layerId, image);
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	public void lockLayers() {
+		layerLock.lock();
 	}
 
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	public void unlockLayers() {
+		layerLock.unlock();
+	}
+
+	public void putImageBuffers(int layerId, ImageBuffer frontBuffer, ImageBuffer backBuffer) {
+		layerData.putImageBuffers(layerId, frontBuffer, backBuffer);
+		updateSizeCounter();
+	}
+
+	/**
+	 * Returns the image which is currently shown. It is never written to.
+	 */
 	public BufferedImage getImage(int layerId) {
-		return images.get(layerId);
+		ImageBuffer frontBuffer = layerData.getFrontBuffer(layerId);
+		return frontBuffer == null ? null : frontBuffer.getImage();
+	}
+
+	/**
+	 * Returns null if the layer has no downscaled images.
+	 */
+	public ImagePyramid getImagePyramid(int layerId) {
+		ImageBuffer frontBuffer = layerData.getFrontBuffer(layerId);
+		return frontBuffer == null ? null : frontBuffer.getImagePyramid();
+	}
+
+	/**
+	 * Makes the back buffer of the given layer data, which the fragment loader
+	 * drew the next image into, visible.
+	 */
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	public void publishBackBuffer(DimensionLayerData layerData, int layerId) {
+		layerData.publishBackBuffer(layerId);
+		snapshotVersion.incrementAndGet();
 	}
 
 	public void putWorldIcons(int layerId, List<WorldIcon> icons) {
 		worldIcons.set(layerId, icons);
+		snapshotVersion.incrementAndGet();
 	}
 
 	public List<WorldIcon> getWorldIcons(int layerId) {
@@ -169,8 +269,53 @@ public class Fragment {
 		return Collections.emptyList();
 	}
 
+	/**
+	 * An estimate of the heap memory used by the biome data and the images of
+	 * this fragment, including the images kept for other dimensions. The world
+	 * icons and end islands are ignored, since they are small in comparison.
+	 */
+	public synchronized int getSizeInBytes() {
+		int result = biomeData == null ? 0 : biomeData.getSizeInBytes();
+		if (!layerDataByDimension.containsValue(layerData)) {
+			result += layerData.getSizeInBytes();
+		}
+		for (DimensionLayerData data : layerDataByDimension.values()) {
+			result += data.getSizeInBytes();
+		}
+		return result;
+	}
+
+	/**
+	 * The fragment cache keeps the total size of its fragments in the given
+	 * counter, so it does not need to ask every fragment. The fragment adds
+	 * its size to the counter and keeps it up to date until it is detached.
+	 */
+	public synchronized void attachSizeCounter(AtomicLong sizeCounter) {
+		detachSizeCounter();
+		this.sizeCounter = sizeCounter;
+		this.countedSizeInBytes = getSizeInBytes();
+		sizeCounter.addAndGet(countedSizeInBytes);
+	}
+
+	public synchronized void detachSizeCounter() {
+		if (sizeCounter != null) {
+			sizeCounter.addAndGet(-countedSizeInBytes);
+			sizeCounter = null;
+			countedSizeInBytes = 0;
+		}
+	}
+
+	private synchronized void updateSizeCounter() {
+		if (sizeCounter != null) {
+			int sizeInBytes = getSizeInBytes();
+			sizeCounter.addAndGet(sizeInBytes - countedSizeInBytes);
+			countedSizeInBytes = sizeInBytes;
+		}
+	}
+
 	public void setState(State state) {
 		this.state.set(state);
+		snapshotVersion.incrementAndGet();
 	}
 
 	public State getState() {
@@ -178,23 +323,76 @@ public class Fragment {
 	}
 
 	public State getAndSetState(State state) {
-		return this.state.getAndSet(state);
+		State result = this.state.getAndSet(state);
+		snapshotVersion.incrementAndGet();
+		return result;
 	}
 
 	public State updateAndGetState(UnaryOperator<State> updateFunction) {
-		return this.state.updateAndGet(updateFunction);
+		State result = this.state.updateAndGet(updateFunction);
+		snapshotVersion.incrementAndGet();
+		return result;
 	}
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	// can only be recycled if it's not loading
 	public boolean tryRecycle() {
-		return this.state.updateAndGet(s -> s.equals(State.LOADING) ? State.LOADING : State.UNINITIALIZED).equals(State.UNINITIALIZED);
+		return onRecycle(this.state.updateAndGet(s -> s.equals(State.LOADING) ? State.LOADING : State.UNINITIALIZED).equals(State.UNINITIALIZED));
 	}
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	// can only be recycled if it's not loading
 	public boolean tryRecycleNotLoaded() {
-		return this.state.updateAndGet(s -> s.equals(State.LOADING) || s.equals(State.LOADED) ? s : State.UNINITIALIZED).equals(State.UNINITIALIZED);
+		return onRecycle(this.state.updateAndGet(s -> s.equals(State.LOADING) || s.equals(State.LOADED) ? s : State.UNINITIALIZED).equals(State.UNINITIALIZED));
+	}
+
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	private boolean onRecycle(boolean isRecycled) {
+		if (isRecycled) {
+			generation.incrementAndGet();
+			clearLayerData();
+		}
+		return isRecycled;
+	}
+
+	/**
+	 * The current images are kept without a dimension, so they are reused by
+	 * the next dimension that is selected.
+	 */
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	private synchronized void clearLayerData() {
+		layerData.clearLayerGenerations();
+		layerData.setDimension(null);
+		layerDataByDimension.clear();
+		updateSizeCounter();
+	}
+
+	/**
+	 * The generation is incremented every time the fragment is recycled. This
+	 * allows the loading queue to recognize entries which were enqueued before
+	 * the fragment was recycled, without searching the queue for them.
+	 */
+	public int getGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * The generation of the layer in the layer loader at the time the layer
+	 * was loaded for this fragment in the current dimension, or
+	 * {@link #NOT_LOADED}.
+	 */
+	public int getLayerGeneration(int layerId) {
+		return layerData.getLayerGeneration(layerId);
+	}
+
+	/**
+	 * The snapshot version is incremented whenever something that is drawn
+	 * for this fragment changes, e.g. when an image is published. A drawer
+	 * that caches the drawn fragments can skip the fragments whose snapshot
+	 * version is unchanged.
+	 */
+	public int getSnapshotVersion() {
+		return snapshotVersion.get();
 	}
 
 	public void setCorner(CoordinatesInWorld corner) {
@@ -1,52 +1,88 @@
 package amidst.fragment;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import amidst.documentation.AmidstThread;
+import amidst.documentation.CalledByAny;
 import amidst.documentation.CalledOnlyBy;
 import amidst.documentation.ThreadSafe;
 import amidst.fragment.constructor.FragmentConstructor;
 import amidst.logging.AmidstLogger;
+import amidst.settings.Setting;
 
+/**
+ * Holds all fragments, whether they are used by the fragment graph or
+ * available to be requested. The cache only grows when there is no available
+ * fragment. It grows in batches, which are smaller when the cache approaches
+ * its memory budget. The fragments which are needed by the fragment graph are
+ * always created, even if that exceeds the budget. When the cache exceeds the
+ * budget, e.g. because the map was zoomed out, the surplus available fragments
+ * are released again, keeping a small reserve for the next requests. The
+ * total size of the fragments is counted as their sizes change, so checking
+ * the budget is cheap.
+ */
 @ThreadSafe
 public class FragmentCache {
 	private static final int NEW_FRAGMENTS_PER_REQUEST = 1024;
+	private static final int MIN_NEW_FRAGMENTS_PER_REQUEST = 64;
+	private static final int RESERVED_AVAILABLE_FRAGMENTS = 256;
+	private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
 
-	private final List<Fragment> cache = new LinkedList<>();
+	private final Set<Fragment> cache = new LinkedHashSet<>();
+	private final AtomicLong sizeInBytes = new AtomicLong();
 
-	private final ConcurrentLinkedQueue<Fragment> availableQueue;
-	private final ConcurrentLinkedQueue<Fragment> loadingQueue;
+	private final LinkedBlockingQueue<Fragment> availableQueue;
+	private final FragmentLoadingQueue loadingQueue;
 	private final Iterable<FragmentConstructor> constructors;
 	private final int numberOfLayers;
+	private final Setting<Integer> memoryBudgetSetting;
 
 	@CalledOnlyBy(AmidstThread.EDT)
 	public FragmentCache(
-			ConcurrentLinkedQueue<Fragment> availableQueue,
-			ConcurrentLinkedQueue<Fragment> loadingQueue,
+			LinkedBlockingQueue<Fragment> availableQueue,
+			FragmentLoadingQueue loadingQueue,
 			Iterable<FragmentConstructor> constructors,
-			int numberOfLayers) {
+			int numberOfLayers,
+			Setting<Integer> memoryBudgetSetting) {
 		this.availableQueue = availableQueue;
 		this.loadingQueue = loadingQueue;
 		this.constructors = constructors;
 		this.numberOfLayers = numberOfLayers;
+		this.memoryBudgetSetting = memoryBudgetSetting;
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
 	public synchronized void increaseSize() {
+		int newFragments = getNumberOfNewFragments();
 		AmidstLogger.info(
 				"increasing fragment cache size from " + cache.size() + " to "
-						+ (cache.size() + NEW_FRAGMENTS_PER_REQUEST));
-		requestNewFragments();
+						+ (cache.size() + newFragments));
+		requestNewFragments(newFragments);
 		AmidstLogger.info("fragment cache size increased to " + cache.size());
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
-	private void requestNewFragments() {
-		for (int i = 0; i < NEW_FRAGMENTS_PER_REQUEST; i++) {
+	private int getNumberOfNewFragments() {
+		if (cache.isEmpty()) {
+			return NEW_FRAGMENTS_PER_REQUEST;
+		}
+		long sizeInBytes = getSizeInBytes();
+		long bytesPerFragment = Math.max(1, sizeInBytes / cache.size());
+		long fragmentsWithinBudget = (getMemoryBudget() - sizeInBytes) / bytesPerFragment;
+		return (int) Math.max(
+				MIN_NEW_FRAGMENTS_PER_REQUEST,
+				Math.min(NEW_FRAGMENTS_PER_REQUEST, fragmentsWithinBudget));
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void requestNewFragments(int newFragments) {
+		for (int i = 0; i < newFragments; i++) {
 			Fragment fragment = new Fragment(numberOfLayers);
 			construct(fragment);
+			fragment.attachSizeCounter(sizeInBytes);
 			cache.add(fragment);
 			availableQueue.offer(fragment);
 		}
@@ -59,17 +95,55 @@ public class FragmentCache {
 		}
 	}
 
+	/**
+	 * Releases available fragments while the cache exceeds its memory budget.
+	 * This is called after fragments were recycled, so the cache shrinks again
+	 * when fewer fragments are needed. The available queue counts its
+	 * elements, so its size is cheap as well.
+	 */
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	public void trimToBudget() {
+		long budget = getMemoryBudget();
+		if (sizeInBytes.get() <= budget) {
+			return;
+		}
+		synchronized (this) {
+			int releasable = availableQueue.size() - RESERVED_AVAILABLE_FRAGMENTS;
+			int released = 0;
+			Fragment fragment;
+			while (sizeInBytes.get() > budget && released < releasable && (fragment = availableQueue.poll()) != null) {
+				if (cache.remove(fragment)) {
+					fragment.detachSizeCounter();
+					released++;
+				}
+			}
+			if (released > 0) {
+				AmidstLogger.info("released " + released + " fragments, fragment cache size is now " + cache.size());
+			}
+		}
+	}
+
+	/**
+	 * Enqueues the loaded fragments, so their invalidated layers are reloaded.
+	 * These are the fragments in the fragment graph. Fragments which are not
+	 * loaded yet are either in the loading queue already or available, so
+	 * they are loaded completely when they are requested.
+	 */
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	public synchronized void reloadAll() {
-		loadingQueue.clear();
+	public synchronized void reloadLoadedFragments() {
 		for (Fragment fragment : cache) {
-			loadingQueue.offer(fragment);
+			if (fragment.getState().equals(Fragment.State.LOADED)) {
+				loadingQueue.offer(fragment);
+			}
 		}
 	}
-	
+
 	@CalledOnlyBy(AmidstThread.EDT)
 	public synchronized void clear() {
 		AmidstLogger.info("fragment cache cleared");
+		for (Fragment fragment : cache) {
+			fragment.detachSizeCounter();
+		}
 		cache.clear();
 	}
 
@@ -77,4 +151,14 @@ public class FragmentCache {
 	public int size() {
 		return cache.size();
 	}
+
+	@CalledByAny
+	public long getSizeInBytes() {
+		return sizeInBytes.get();
+	}
+
+	@CalledByAny
+	public long getMemoryBudget() {
+		return memoryBudgetSetting.get() * BYTES_PER_MEGABYTE;
+	}
 }
@@ -51,6 +51,23 @@ public class FragmentGraph implements Iterable<FragmentGraphItem> {
 				.replaceWithValue(f -> f.adjustRowsAndColumns(newAbove, newBelow, newLeft, newRight, fragmentManager));
 	}
 
+	/**
+	 * Fragments closer to the given center are loaded first.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	public void setLoadingFocus(CoordinatesInWorld center, double halfWidthInWorld, double halfHeightInWorld) {
+		fragmentManager.setLoadingFocus(center, halfWidthInWorld, halfHeightInWorld);
+	}
+
+	/**
+	 * The number of fragments which can be requested without growing the
+	 * cache.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	public int getAvailableFragments() {
+		return fragmentManager.getAvailableQueueSize();
+	}
+
 	@CalledOnlyBy(AmidstThread.EDT)
 	public void dispose() {
 		recycleAll();
@@ -0,0 +1,143 @@
+package amidst.fragment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import amidst.documentation.ThreadSafe;
+import amidst.mojangapi.world.coordinates.CoordinatesInWorld;
+
+/**
+ * Holds the fragments which are waiting to be loaded. Instead of loading them
+ * in the order they were requested, the fragments closest to the focus are
+ * loaded first. The focus is the area currently visible on the screen. The
+ * distance of a fragment is measured relative to the size of that area, so the
+ * fragments on the screen are always loaded before the ones outside of it,
+ * regardless of the zoom level. Fragments with the same distance are loaded in
+ * the order they were requested.
+ *
+ * When the focus moves, the pending fragments are reordered the next time a
+ * fragment is taken from the queue.
+ *
+ * Recycled fragments are not removed from the queue, because that would
+ * require searching the whole queue. Instead, each entry remembers the
+ * generation of the fragment when it was enqueued. Entries whose fragment was
+ * recycled since then are stale and are dropped when they reach the head of
+ * the queue or when the queue is reordered. Therefore, size and isEmpty might
+ * count some stale entries.
+ */
+@ThreadSafe
+public class FragmentLoadingQueue {
+	private static class Entry implements Comparable<Entry> {
+		private final Fragment fragment;
+		private final int generation;
+		private final long sequenceNumber;
+		private double priority;
+
+		private Entry(Fragment fragment, long sequenceNumber) {
+			this.fragment = fragment;
+			this.generation = fragment.getGeneration();
+			this.sequenceNumber = sequenceNumber;
+		}
+
+		private boolean isStale() {
+			return fragment.getGeneration() != generation;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			int result = Double.compare(priority, other.priority);
+			return result != 0 ? result : Long.compare(sequenceNumber, other.sequenceNumber);
+		}
+	}
+
+	private static class Focus {
+		private final double centerX;
+		private final double centerY;
+		private final double halfWidth;
+		private final double halfHeight;
+
+		private Focus(double centerX, double centerY, double halfWidth, double halfHeight) {
+			this.centerX = centerX;
+			this.centerY = centerY;
+			this.halfWidth = Math.max(1, halfWidth);
+			this.halfHeight = Math.max(1, halfHeight);
+		}
+
+		private double getPriority(Fragment fragment) {
+			CoordinatesInWorld corner = fragment.getCorner();
+			double dx = Math.abs(corner.getX() + Fragment.SIZE / 2 - centerX) / halfWidth;
+			double dy = Math.abs(corner.getY() + Fragment.SIZE / 2 - centerY) / halfHeight;
+			return Math.max(dx, dy);
+		}
+
+		private boolean isSameAs(Focus other) {
+			return other != null && centerX == other.centerX && centerY == other.centerY
+					&& halfWidth == other.halfWidth && halfHeight == other.halfHeight;
+		}
+	}
+
+	private PriorityQueue<Entry> entries = new PriorityQueue<>();
+	private long nextSequenceNumber;
+	private Focus focus;
+	private boolean isReorderNeeded;
+
+	/**
+	 * Sets the area of the world which is currently visible, given as its
+	 * center and its half width and height in world coordinates.
+	 */
+	public synchronized void setFocus(CoordinatesInWorld center, double halfWidthInWorld, double halfHeightInWorld) {
+		Focus newFocus = new Focus(center.getX(), center.getY(), halfWidthInWorld, halfHeightInWorld);
+		if (!newFocus.isSameAs(focus)) {
+			focus = newFocus;
+			isReorderNeeded = true;
+		}
+	}
+
+	public synchronized void offer(Fragment fragment) {
+		Entry entry = new Entry(fragment, nextSequenceNumber++);
+		entry.priority = getPriority(fragment);
+		entries.offer(entry);
+	}
+
+	public synchronized Fragment poll() {
+		if (isReorderNeeded) {
+			reorder();
+		}
+		Entry entry;
+		while ((entry = entries.poll()) != null) {
+			if (!entry.isStale()) {
+				return entry.fragment;
+			}
+		}
+		return null;
+	}
+
+	private void reorder() {
+		isReorderNeeded = false;
+		List<Entry> pending = new ArrayList<>(entries.size());
+		for (Entry entry : entries) {
+			if (!entry.isStale()) {
+				entry.priority = getPriority(entry.fragment);
+				pending.add(entry);
+			}
+		}
+		entries = new PriorityQueue<>(pending);
+	}
+
+	private double getPriority(Fragment fragment) {
+		return focus == null ? 0 : focus.getPriority(fragment);
+	}
+
+	public synchronized boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+}
@@ -1,9 +1,9 @@
 package amidst.fragment;
 
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import amidst.documentation.AmidstThread;
 import amidst.documentation.CalledOnlyBy;
@@ -16,30 +16,42 @@ import amidst.settings.Setting;
 
 @NotThreadSafe
 public class FragmentManager {
-	private final ConcurrentLinkedQueue<Fragment> availableQueue = new ConcurrentLinkedQueue<>();
-	private final ConcurrentLinkedQueue<Fragment> loadingQueue = new ConcurrentLinkedQueue<>();
+	private final LinkedBlockingQueue<Fragment> availableQueue = new LinkedBlockingQueue<>();
+	private final FragmentLoadingQueue loadingQueue = new FragmentLoadingQueue();
 	private final ConcurrentLinkedQueue<Fragment> recycleQueue = new ConcurrentLinkedQueue<>();
 	private final FragmentCache cache;
 	
 	private final Setting<Integer> threadsSetting;
-	private ThreadPoolExecutor fragWorkers;
+	private ForkJoinPool fragWorkers;
+	private FragmentQueueProcessor queueProcessor;
 
 	@CalledOnlyBy(AmidstThread.EDT)
-	public FragmentManager(Iterable<FragmentConstructor> constructors, int numberOfLayers, Setting<Integer> threadsSetting) {
-		this.cache = new FragmentCache(availableQueue, loadingQueue, constructors, numberOfLayers);
+	public FragmentManager(
+			Iterable<FragmentConstructor> constructors,
+			int numberOfLayers,
+			Setting<Integer> threadsSetting,
+			Setting<Integer> cacheMegabytesSetting) {
+		this.cache = new FragmentCache(availableQueue, loadingQueue, constructors, numberOfLayers, cacheMegabytesSetting);
 		this.threadsSetting = threadsSetting;
 		this.fragWorkers = createThreadPool();
 	}
 	
-	public ThreadPoolExecutor createThreadPool() {
-		return (ThreadPoolExecutor) Executors.newFixedThreadPool(threadsSetting.get(), new ThreadFactory() {
-			private int num;
-			
-			@Override
-			public Thread newThread(Runnable r) {
-				return new Thread(r, "Fragment-Worker-" + num++);
-			}
-		});
+	/**
+	 * The workers are started on demand by the {@link FragmentQueueProcessor}
+	 * and terminate after they have been idle for a while. The pool is in
+	 * async mode, because the fragments are never joined. The workers run with
+	 * the minimum priority, so generating the biomes does not slow down the
+	 * EDT.
+	 */
+	public ForkJoinPool createThreadPool() {
+		return new ForkJoinPool(threadsSetting.get(), FragmentManager::createWorkerThread, null, true);
+	}
+
+	private static ForkJoinWorkerThread createWorkerThread(ForkJoinPool pool) {
+		ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName("Fragment-Worker-" + thread.getPoolIndex());
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
@@ -51,24 +63,44 @@ public class FragmentManager {
 		fragment.setCorner(coordinates);
 		fragment.setState(Fragment.State.INITIALIZED);
 		loadingQueue.offer(fragment);
+		signalQueueProcessor();
 		return fragment;
 	}
 
+	@CalledOnlyBy(AmidstThread.EDT)
+	public void setLoadingFocus(CoordinatesInWorld center, double halfWidthInWorld, double halfHeightInWorld) {
+		loadingQueue.setFocus(center, halfWidthInWorld, halfHeightInWorld);
+	}
+
 	@CalledOnlyBy(AmidstThread.EDT)
 	public void recycleFragment(Fragment fragment) {
 		recycleQueue.offer(fragment);
+		signalQueueProcessor();
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
-	public FragmentQueueProcessor createQueueProcessor(LayerManager layerManager, Setting<Dimension> dimensionSetting) {
-		return new FragmentQueueProcessor(
+	private void signalQueueProcessor() {
+		if (queueProcessor != null) {
+			queueProcessor.signal();
+		}
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	public FragmentQueueProcessor createQueueProcessor(
+			LayerManager layerManager,
+			Setting<Dimension> dimensionSetting,
+			Runnable requestRepaint) {
+		this.queueProcessor = new FragmentQueueProcessor(
 				availableQueue,
 				loadingQueue,
 				recycleQueue,
 				cache,
 				layerManager,
 				fragWorkers,
-				dimensionSetting);
+				dimensionSetting,
+				requestRepaint);
+		layerManager.setOnInvalidation(queueProcessor::signal);
+		return queueProcessor;
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
@@ -96,6 +128,7 @@ public class FragmentManager {
 	
 	@CalledOnlyBy(AmidstThread.EDT)
 	public void restartThreadPool() {
+		this.queueProcessor = null;
 		fragWorkers.shutdownNow();
 		this.fragWorkers = createThreadPool();
 	}
@@ -104,4 +137,14 @@ public class FragmentManager {
 	public int getCacheSize() {
 		return cache.size();
 	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	public long getCacheSizeInBytes() {
+		return cache.getSizeInBytes();
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	public long getCacheMemoryBudget() {
+		return cache.getMemoryBudget();
+	}
 }
@@ -1,37 +1,58 @@
 package amidst.fragment;
 
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import amidst.documentation.AmidstThread;
 import amidst.documentation.CalledByAny;
 import amidst.documentation.CalledOnlyBy;
-import amidst.documentation.NotThreadSafe;
+import amidst.documentation.ThreadSafe;
 import amidst.fragment.Fragment.State;
 import amidst.fragment.layer.LayerManager;
+import amidst.fragment.layer.LayerManager.UpdateResult;
 import amidst.mojangapi.world.Dimension;
 import amidst.settings.Setting;
 
-@NotThreadSafe
+/**
+ * Loads, reloads and recycles the fragments using the fragment workers. There
+ * is no thread polling the queues. Instead, everything that adds work, like
+ * requesting or recycling a fragment, a changed layer setting or an
+ * invalidated layer, calls {@link #signal()}. This starts another worker,
+ * unless all of them are busy already. A worker keeps taking fragments from
+ * the loading queue until there is nothing left to do. When a layer is
+ * invalidated, only the loaded fragments, which are the ones in the fragment
+ * graph, are enqueued to reload the layer. All other fragments are loaded
+ * completely when they are requested again anyway. Whenever a fragment was
+ * loaded or reloaded, or a layer was hidden, the viewer is told, so it can
+ * repaint the map.
+ */
+@ThreadSafe
 public class FragmentQueueProcessor {
-	private final ConcurrentLinkedQueue<Fragment> availableQueue;
-	private final ConcurrentLinkedQueue<Fragment> loadingQueue;
+	private final LinkedBlockingQueue<Fragment> availableQueue;
+	private final FragmentLoadingQueue loadingQueue;
 	private final ConcurrentLinkedQueue<Fragment> recycleQueue;
 	private final FragmentCache cache;
 	private final LayerManager layerManager;
-	private final ThreadPoolExecutor fragWorkers;
+	private final ForkJoinPool fragWorkers;
 	private final Setting<Dimension> dimensionSetting;
+	private final Runnable requestRepaint;
+	private final AtomicInteger activeWorkers = new AtomicInteger();
+	private final AtomicBoolean isUpdateRequested = new AtomicBoolean(true);
 
 	@CalledByAny
 	public FragmentQueueProcessor(
-			ConcurrentLinkedQueue<Fragment> availableQueue,
-			ConcurrentLinkedQueue<Fragment> loadingQueue,
+			LinkedBlockingQueue<Fragment> availableQueue,
+			FragmentLoadingQueue loadingQueue,
 			ConcurrentLinkedQueue<Fragment> recycleQueue,
 			FragmentCache cache,
 			LayerManager layerManager,
-			ThreadPoolExecutor fragWorkers,
-			Setting<Dimension> dimensionSetting) {
+			ForkJoinPool fragWorkers,
+			Setting<Dimension> dimensionSetting,
+			Runnable requestRepaint) {
 		this.availableQueue = availableQueue;
 		this.loadingQueue = loadingQueue;
 		this.recycleQueue = recycleQueue;
@@ -39,90 +60,152 @@ public class FragmentQueueProcessor {
 		this.layerManager = layerManager;
 		this.dimensionSetting = dimensionSetting;
 		this.fragWorkers = fragWorkers;
+		this.requestRepaint = requestRepaint;
 	}
-	
-	private static final int PARK_MILLIS = 1000;
-	
+
+	/**
+	 * Tells the fragment workers that there might be something to do. This is
+	 * cheap if all workers are busy already, so it can be called as often as
+	 * needed.
+	 */
+	@CalledByAny
+	public void signal() {
+		isUpdateRequested.set(true);
+		tryStartWorker();
+	}
+
+	@CalledByAny
+	private void tryStartWorker() {
+		int active;
+		while ((active = activeWorkers.get()) < fragWorkers.getParallelism()) {
+			if (activeWorkers.compareAndSet(active, active + 1)) {
+				try {
+					fragWorkers.execute(this::processQueues);
+				} catch (RejectedExecutionException e) {
+					// the world was closed and the workers were shut down
+					activeWorkers.decrementAndGet();
+				}
+				return;
+			}
+		}
+	}
+
 	/**
 	 * It is important that the dimension setting is the same while a fragment
 	 * is loaded by different fragment loaders. This is why the dimension
-	 * setting is read by the fragment loader thread.
+	 * setting is read once by the fragment worker before it loads a fragment.
 	 */
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	public void processQueues() {
-		final Thread flThread = Thread.currentThread(); // the fragment loader thread
-		Dimension dimension = dimensionSetting.get();
-		updateLayerManager(dimension);
-		processRecycleQueue();
-		/*
-		 * We queue fragments to the thread pool only when a thread isn't working.
-		 * This keeps the thread pool queue small and doesn't make the fragment
-		 * loading thread think we're done when we're still processing fragments.
-		 * While the latter does happen a small amount with this setup, it's not
-		 * to the extent of if we were pushing to the thread pool queue as fast
-		 * as possible.
-		 */
-		int maxSize = fragWorkers.getMaximumPoolSize();
-		while (loadingQueue.isEmpty() == false) {
-			if (fragWorkers.getActiveCount() < maxSize) {
-				fragWorkers.execute(() -> {
-					Fragment f = loadingQueue.poll();
-					if (f != null && dimension.equals(dimensionSetting.get())) {
-						loadFragment(dimension, f);
-						updateLayerManager(dimension);
-						processRecycleQueue();
-						LockSupport.unpark(flThread);
+	private void processQueues() {
+		try {
+			Fragment fragment;
+			do {
+				isUpdateRequested.set(false);
+				Dimension dimension = dimensionSetting.get();
+				updateLayerManager(dimension);
+				processRecycleQueue();
+				fragment = loadingQueue.poll();
+				if (fragment != null) {
+					if (!loadingQueue.isEmpty()) {
+						tryStartWorker();
 					}
-				});
-			} else {
-				LockSupport.parkNanos(PARK_MILLIS * 1000000); // if for some reason unpark was never called, unpark after time expires
-			}
+					loadFragment(dimension, fragment);
+				}
+			} while (fragment != null || hasWork());
+		} finally {
+			finishWorker();
+		}
+	}
+
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	private void finishWorker() {
+		activeWorkers.decrementAndGet();
+		// something might have been added after the last check of this worker
+		if (hasWork()) {
+			tryStartWorker();
 		}
-		layerManager.clearInvalidatedLayers();
+	}
+
+	@CalledByAny
+	private boolean hasWork() {
+		return isUpdateRequested.get() || !recycleQueue.isEmpty() || !loadingQueue.isEmpty();
 	}
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	private void updateLayerManager(Dimension dimension) {
-		if (layerManager.updateAll(dimension)) {
-			cache.reloadAll();
+	private synchronized void updateLayerManager(Dimension dimension) {
+		UpdateResult result = layerManager.updateAll(dimension);
+		if (result == UpdateResult.RELOAD) {
+			cache.reloadLoadedFragments();
+		} else if (result == UpdateResult.REPAINT) {
+			requestRepaint.run();
 		}
 	}
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	private void processRecycleQueue() {
 		Fragment fragment;
+		boolean isRecycled = false;
 		while ((fragment = recycleQueue.poll()) != null) {
 			recycleFragment(fragment);
+			isRecycled = true;
+		}
+		if (isRecycled) {
+			cache.trimToBudget();
 		}
 	}
 
+	/**
+	 * A layer might be invalidated while the fragment is loading. Since it is
+	 * not loaded yet, it is not reloaded with the other fragments, so it is
+	 * enqueued again, if it is stale. The same is true for a fragment which is
+	 * enqueued to be reloaded while another worker reloads it. The worker that
+	 * does not get the lock of the layers drops the fragment, and the worker
+	 * holding the lock enqueues it again after releasing the lock.
+	 */
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	private void loadFragment(Dimension dimension, Fragment fragment) {
 		if (fragment.getState().equals(Fragment.State.LOADED)) {
-			layerManager.reloadInvalidated(dimension, fragment);
+			if (fragment.tryLockLayers()) {
+				try {
+					layerManager.reloadInvalidated(dimension, fragment);
+				} finally {
+					fragment.unlockLayers();
+				}
+				requestRepaint.run();
+				offerIfStale(fragment);
+			}
 		} else if (!fragment.getState().equals(Fragment.State.UNINITIALIZED)
 				&& !fragment.getAndSetState(Fragment.State.LOADING).equals(Fragment.State.LOADING)) {
 			//If it's not loading, set loading and continue. If it is already loading, don't continue.
-			layerManager.loadAll(dimension, fragment);
+			// a reload from before the fragment was recycled might still be running
+			fragment.lockLayers();
+			try {
+				layerManager.loadAll(dimension, fragment);
+			} finally {
+				fragment.unlockLayers();
+			}
 			fragment.setState(State.LOADED);
+			requestRepaint.run();
+			offerIfStale(fragment);
 		}
 	}
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	private void recycleFragment(Fragment fragment) {
-		if (fragment.tryRecycle()) {
-			removeFromLoadingQueue(fragment);
-			availableQueue.offer(fragment);
+	private void offerIfStale(Fragment fragment) {
+		if (layerManager.isStale(fragment)) {
+			loadingQueue.offer(fragment);
 		}
 	}
 
-	// TODO: Check performance with and without this. It is not needed, since
-	// loadFragment checks for isInitialized(). It helps to keep the
-	// loadingQueue small, but it costs time to remove fragments from the queue.
+	/**
+	 * The fragment might still be in the loading queue. It does not need to be
+	 * removed, because recycling it makes its entries stale, so they are
+	 * skipped by the loading queue.
+	 */
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	private void removeFromLoadingQueue(Object fragment) {
-		while (loadingQueue.remove(fragment)) {
-			// noop
+	private void recycleFragment(Fragment fragment) {
+		if (fragment.tryRecycle()) {
+			availableQueue.offer(fragment);
 		}
 	}
 }
@@ -0,0 +1,60 @@
+package amidst.fragment;
+
+import java.awt.image.BufferedImage;
+
+import amidst.documentation.AmidstThread;
+import amidst.documentation.CalledByAny;
+import amidst.documentation.CalledOnlyBy;
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * The image of a layer together with its downscaled copies. Each image layer
+ * of a fragment has two of these: the front buffer is drawn by the EDT and
+ * the back buffer is written by the fragment loader. When the back buffer is
+ * complete, the buffers are swapped, so the EDT never draws a half written
+ * image. Both buffers are allocated once and reused, like the fragment
+ * itself.
+ */
+@NotThreadSafe
+public class ImageBuffer {
+	private final BufferedImage image;
+	private final ImagePyramid imagePyramid;
+
+	@CalledByAny
+	public ImageBuffer(int size) {
+		this.image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+		this.imagePyramid = new ImagePyramid(size);
+	}
+
+	@CalledByAny
+	public ImageBuffer createEmptyCopy() {
+		return new ImageBuffer(image.getWidth());
+	}
+
+	public BufferedImage getImage() {
+		return image;
+	}
+
+	public ImagePyramid getImagePyramid() {
+		return imagePyramid;
+	}
+
+	/**
+	 * Replaces the content of the image and updates the downscaled copies.
+	 * The pixels are the ARGB values in row-major order. They are written
+	 * directly to the raster of the image, instead of converting every pixel
+	 * through the color model like setRGB. The data buffer of the image is
+	 * not accessed directly, because that would prevent Java2D from caching
+	 * the image in video memory.
+	 */
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	public void setPixels(int[] pixels) {
+		int size = image.getWidth();
+		image.getRaster().setDataElements(0, 0, size, size, pixels);
+		imagePyramid.update(pixels, size);
+	}
+
+	public int getSizeInBytes() {
+		return image.getWidth() * image.getHeight() * 4 + imagePyramid.getSizeInBytes();
+	}
+}
@@ -0,0 +1,128 @@
+package amidst.fragment;
+
+import java.awt.image.BufferedImage;
+
+import amidst.documentation.AmidstThread;
+import amidst.documentation.CalledOnlyBy;
+import amidst.documentation.NotThreadSafe;
+import amidst.util.ArrayCache;
+
+/**
+ * Downscaled copies of a fragment image, each level half the size of the
+ * previous one. Level 1 is half the size of the image itself. When the map is
+ * zoomed out, drawing one of the smaller levels is a lot cheaper than
+ * downscaling the full image for every fragment in every frame, and it also
+ * looks smoother, because every pixel of the image contributes to the result.
+ *
+ * Like the images, the levels are updated in place when the fragment is
+ * loaded.
+ */
+@NotThreadSafe
+public class ImagePyramid {
+	private static final int MIN_SIZE = 4;
+
+	private static final ArrayCache<int[]> LEVEL_PIXEL_ARRAYS = ArrayCache.makeIntArrayCache(0);
+
+	private final BufferedImage[] levels;
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	public ImagePyramid(int size) {
+		int numberOfLevels = getNumberOfLevels(size);
+		this.levels = new BufferedImage[numberOfLevels];
+		for (int i = 0; i < numberOfLevels; i++) {
+			int levelSize = size >> (i + 1);
+			levels[i] = new BufferedImage(levelSize, levelSize, BufferedImage.TYPE_INT_ARGB);
+		}
+	}
+
+	/**
+	 * Returns the number of levels of a pyramid for images of the given size,
+	 * not counting the image itself.
+	 */
+	public static int getNumberOfLevels(int size) {
+		int result = 0;
+		for (int levelSize = size / 2; levelSize >= MIN_SIZE; levelSize /= 2) {
+			result++;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of levels, not counting the image itself.
+	 */
+	public int getNumberOfLevels() {
+		return levels.length;
+	}
+
+	public int getSizeInBytes() {
+		int result = 0;
+		for (BufferedImage level : levels) {
+			result += level.getWidth() * level.getHeight() * 4;
+		}
+		return result;
+	}
+
+	/**
+	 * Level 0 is not stored in the pyramid, since it is the image itself.
+	 */
+	public BufferedImage getLevel(int level) {
+		return levels[level - 1];
+	}
+
+	/**
+	 * The given pixels are the ARGB values of the image in row-major order.
+	 * They are written to the levels as raw data elements, which is a lot
+	 * faster than setRGB and keeps the levels eligible for acceleration. The
+	 * levels are computed in two pooled arrays, which take turns as the source
+	 * and the target of the next level.
+	 */
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	public void update(int[] pixels, int size) {
+		int levelSize = size / 2;
+		LEVEL_PIXEL_ARRAYS.withArray(levelSize * levelSize, first -> LEVEL_PIXEL_ARRAYS.withArray(levelSize * levelSize / 4, second -> {
+			updateLevels(pixels, size, first, second);
+			return null;
+		}));
+	}
+
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	private void updateLevels(int[] pixels, int size, int[] first, int[] second) {
+		int[] source = pixels;
+		int[] target = first;
+		for (BufferedImage level : levels) {
+			downscale(source, size, target);
+			size /= 2;
+			level.getRaster().setDataElements(0, 0, size, size, target);
+			source = target;
+			target = target == first ? second : first;
+		}
+	}
+
+	/**
+	 * Averages each block of 2x2 pixels into the given result array, which
+	 * may be larger than needed. The colors are weighted by their alpha value,
+	 * so transparent pixels don't darken their neighbours.
+	 */
+	static void downscale(int[] pixels, int size, int[] result) {
+		int resultSize = size / 2;
+		for (int y = 0; y < resultSize; y++) {
+			for (int x = 0; x < resultSize; x++) {
+				int topLeft = 2 * y * size + 2 * x;
+				int a = 0, r = 0, g = 0, b = 0;
+				for (int i = 0; i < 4; i++) {
+					int argb = pixels[topLeft + (i >> 1) * size + (i & 1)];
+					int alpha = argb >>> 24;
+					a += alpha;
+					r += ((argb >> 16) & 0xFF) * alpha;
+					g += ((argb >> 8) & 0xFF) * alpha;
+					b += (argb & 0xFF) * alpha;
+				}
+				if (a > 0) {
+					result[y * resultSize + x] = ((a + 2) / 4) << 24 | (r / a) << 16 | (g / a) << 8 | (b / a);
+				} else {
+					result[y * resultSize + x] = 0;
+				}
+			}
+		}
+	}
+}
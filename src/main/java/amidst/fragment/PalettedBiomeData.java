@@ -0,0 +1,179 @@
+package amidst.fragment;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+import amidst.documentation.Immutable;
+
+/**
+ * Stores the biome data of a fragment as indices into a small palette of
+ * distinct biomes. Depending on the number of distinct biomes, each sample
+ * takes 0, 4 or 8 bits. If there are more than 256 distinct biomes, the
+ * samples are stored as plain shorts instead.
+ *
+ * Most fragments contain less than 16 distinct biomes, so this needs a
+ * quarter of the memory of a plain short array. Fragments which are entirely
+ * covered by a single biome, like the ones in the middle of an ocean, don't
+ * need any memory per sample at all.
+ */
+@Immutable
+public class PalettedBiomeData {
+	private static final int MAX_PALETTE_SIZE = 256;
+
+	public static PalettedBiomeData empty(int width, int height) {
+		return new PalettedBiomeData(width, height, 0, new short[] { 0 }, null, null);
+	}
+
+	/**
+	 * Compresses the first width * height samples of the given row-major
+	 * array. The array is not retained.
+	 */
+	public static PalettedBiomeData from(short[] data, int width, int height) {
+		int length = width * height;
+		short[] palette = new short[MAX_PALETTE_SIZE];
+		byte[] paletteIndices = new byte[length];
+		int paletteSize = 0;
+		int lastIndex = -1;
+		for (int i = 0; i < length; i++) {
+			short biome = data[i];
+			if (lastIndex < 0 || palette[lastIndex] != biome) {
+				lastIndex = indexOf(palette, paletteSize, biome);
+				if (lastIndex < 0) {
+					if (paletteSize == MAX_PALETTE_SIZE) {
+						return new PalettedBiomeData(width, height, 16, null, null, copyOf(data, length));
+					}
+					lastIndex = paletteSize++;
+					palette[lastIndex] = biome;
+				}
+			}
+			paletteIndices[i] = (byte) lastIndex;
+		}
+
+		short[] trimmedPalette = copyOf(palette, paletteSize);
+		if (paletteSize <= 1) {
+			return new PalettedBiomeData(width, height, 0, paletteSize == 0 ? new short[] { 0 } : trimmedPalette, null, null);
+		} else if (paletteSize <= 16) {
+			byte[] packed = new byte[(length + 1) / 2];
+			for (int i = 0; i < length; i++) {
+				packed[i >> 1] = (byte) (packed[i >> 1] | (paletteIndices[i] << ((i & 1) << 2)));
+			}
+			return new PalettedBiomeData(width, height, 4, trimmedPalette, packed, null);
+		} else {
+			return new PalettedBiomeData(width, height, 8, trimmedPalette, paletteIndices, null);
+		}
+	}
+
+	private static int indexOf(short[] palette, int paletteSize, short biome) {
+		for (int i = 0; i < paletteSize; i++) {
+			if (palette[i] == biome) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static short[] copyOf(short[] array, int length) {
+		short[] result = new short[length];
+		System.arraycopy(array, 0, result, 0, length);
+		return result;
+	}
+
+	private final int width;
+	private final int height;
+	private final int bitsPerSample;
+	private final short[] palette;
+	private final byte[] paletteIndices;
+	private final short[] samples;
+
+	private PalettedBiomeData(
+			int width,
+			int height,
+			int bitsPerSample,
+			short[] palette,
+			byte[] paletteIndices,
+			short[] samples) {
+		this.width = width;
+		this.height = height;
+		this.bitsPerSample = bitsPerSample;
+		this.palette = palette;
+		this.paletteIndices = paletteIndices;
+		this.samples = samples;
+	}
+
+	public short get(int x, int y) {
+		int i = y * width + x;
+		switch (bitsPerSample) {
+		case 0:
+			return palette[0];
+		case 4:
+			return palette[(paletteIndices[i >> 1] >> ((i & 1) << 2)) & 0xF];
+		case 8:
+			return palette[paletteIndices[i] & 0xFF];
+		default:
+			return samples[i];
+		}
+	}
+
+	/**
+	 * Writes the result of the given function for every sample to the given
+	 * array in row-major order. The function is only called once for each
+	 * palette entry, unless the samples are stored as plain shorts.
+	 */
+	public void map(IntUnaryOperator function, int[] result) {
+		int length = width * height;
+		if (bitsPerSample == 16) {
+			for (int i = 0; i < length; i++) {
+				result[i] = function.applyAsInt(samples[i]);
+			}
+			return;
+		}
+		int[] mappedPalette = new int[palette.length];
+		for (int i = 0; i < palette.length; i++) {
+			mappedPalette[i] = function.applyAsInt(palette[i]);
+		}
+		switch (bitsPerSample) {
+		case 0:
+			Arrays.fill(result, 0, length, mappedPalette[0]);
+			break;
+		case 4:
+			for (int i = 0; i < length; i++) {
+				result[i] = mappedPalette[(paletteIndices[i >> 1] >> ((i & 1) << 2)) & 0xF];
+			}
+			break;
+		default:
+			for (int i = 0; i < length; i++) {
+				result[i] = mappedPalette[paletteIndices[i] & 0xFF];
+			}
+			break;
+		}
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getBitsPerSample() {
+		return bitsPerSample;
+	}
+
+	/**
+	 * An estimate of the heap memory used by the arrays of this instance.
+	 */
+	public int getSizeInBytes() {
+		int result = 0;
+		if (palette != null) {
+			result += palette.length * 2;
+		}
+		if (paletteIndices != null) {
+			result += paletteIndices.length;
+		}
+		if (samples != null) {
+			result += samples.length * 2;
+		}
+		return result;
+	}
+}
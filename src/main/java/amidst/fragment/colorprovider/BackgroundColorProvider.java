@@ -1,5 +1,7 @@
 package amidst.fragment.colorprovider;
 
+import java.util.Arrays;
+
 import amidst.documentation.ThreadSafe;
 import amidst.fragment.Fragment;
 import amidst.logging.AmidstLogger;
@@ -27,4 +29,23 @@ public class BackgroundColorProvider implements ColorProvider {
 			return BiomeColor.unknown().getRGB();
 		}
 	}
+
+	@Override
+	public void getColors(
+			Dimension dimension,
+			Fragment fragment,
+			long cornerX,
+			long cornerY,
+			int width,
+			int height,
+			int[] result) {
+		if (dimension.equals(Dimension.OVERWORLD)) {
+			biomeColorProvider.getColors(dimension, fragment, cornerX, cornerY, width, height, result);
+		} else if (dimension.equals(Dimension.END)) {
+			theEndColorProvider.getColors(dimension, fragment, cornerX, cornerY, width, height, result);
+		} else {
+			AmidstLogger.warn("unsupported dimension");
+			Arrays.fill(result, 0, width * height, BiomeColor.unknown().getRGB());
+		}
+	}
 }
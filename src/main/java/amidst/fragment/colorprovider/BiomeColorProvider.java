@@ -5,12 +5,37 @@ import amidst.fragment.Fragment;
 import amidst.gui.main.viewer.BiomeSelection;
 import amidst.mojangapi.world.Dimension;
 import amidst.mojangapi.world.biome.BiomeColor;
+import amidst.settings.biomeprofile.BiomeColorTable;
 import amidst.settings.biomeprofile.BiomeProfileSelection;
 
+/**
+ * The colors of all biomes in the current biome profile are looked up in a
+ * table, which already takes the biome selection into account. The table is
+ * rebuilt when the biome profile or the biome selection changes. It is
+ * replaced as a whole, so a fragment is never drawn with a half updated
+ * table.
+ */
 @ThreadSafe
 public class BiomeColorProvider implements ColorProvider {
+	private static class ColorLookupTable {
+		private final BiomeColorTable biomeColorTable;
+		private final int biomeSelectionVersion;
+		private final int[] colors;
+
+		public ColorLookupTable(BiomeColorTable biomeColorTable, int biomeSelectionVersion, int[] colors) {
+			this.biomeColorTable = biomeColorTable;
+			this.biomeSelectionVersion = biomeSelectionVersion;
+			this.colors = colors;
+		}
+
+		public boolean isCurrent(BiomeColorTable biomeColorTable, int biomeSelectionVersion) {
+			return this.biomeColorTable == biomeColorTable && this.biomeSelectionVersion == biomeSelectionVersion;
+		}
+	}
+
 	private final BiomeSelection biomeSelection;
 	private final BiomeProfileSelection biomeProfileSelection;
+	private volatile ColorLookupTable colorLookupTable;
 
 	public BiomeColorProvider(BiomeSelection biomeSelection, BiomeProfileSelection biomeProfileSelection) {
 		this.biomeSelection = biomeSelection;
@@ -19,9 +44,67 @@ public class BiomeColorProvider implements ColorProvider {
 
 	@Override
 	public int getColorAt(Dimension dimension, Fragment fragment, long cornerX, long cornerY, int x, int y) {
-		return getColor(fragment.getBiomeDataAt(x, y));
+		return getColor(getColors(), fragment.getBiomeDataAt(x, y));
+	}
+
+	/**
+	 * The color is only looked up once for each biome in the palette of the
+	 * biome data.
+	 */
+	@Override
+	public void getColors(
+			Dimension dimension,
+			Fragment fragment,
+			long cornerX,
+			long cornerY,
+			int width,
+			int height,
+			int[] result) {
+		int[] colors = getColors();
+		fragment.getBiomeData().map(biomeIndex -> getColor(colors, biomeIndex), result);
+	}
+
+	/**
+	 * The versions are read before the table is built, so a change during
+	 * the build causes another build the next time.
+	 */
+	private int[] getColors() {
+		BiomeColorTable biomeColorTable = biomeProfileSelection.getBiomeColorTable();
+		int biomeSelectionVersion = biomeSelection.getVersion();
+		ColorLookupTable current = colorLookupTable;
+		if (current == null || !current.isCurrent(biomeColorTable, biomeSelectionVersion)) {
+			current = new ColorLookupTable(
+					biomeColorTable,
+					biomeSelectionVersion,
+					createColors(biomeColorTable));
+			colorLookupTable = current;
+		}
+		return current.colors;
+	}
+
+	private int[] createColors(BiomeColorTable biomeColorTable) {
+		int[] result = new int[biomeColorTable.size()];
+		for (int biomeIndex = 0; biomeIndex < result.length; biomeIndex++) {
+			if (biomeSelection.isVisible(biomeIndex)) {
+				result[biomeIndex] = biomeColorTable.getRGB(biomeIndex);
+			} else {
+				result[biomeIndex] = biomeColorTable.getHiddenRGB(biomeIndex);
+			}
+		}
+		return result;
+	}
+
+	private int getColor(int[] colors, int biomeIndex) {
+		if (biomeIndex >= 0 && biomeIndex < colors.length && colors[biomeIndex] != BiomeColorTable.UNKNOWN) {
+			return colors[biomeIndex];
+		} else {
+			return getColor(biomeIndex);
+		}
 	}
 
+	/**
+	 * This is only used for biomes which are not part of the biome profile.
+	 */
 	private int getColor(int biomeIndex) {
 		if (biomeSelection.isVisible(biomeIndex)) {
 			return getBiomeColor(biomeIndex).getRGB();
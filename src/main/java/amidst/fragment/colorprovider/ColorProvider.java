@@ -8,4 +8,25 @@ import amidst.mojangapi.world.Dimension;
 public interface ColorProvider {
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	int getColorAt(Dimension dimension, Fragment fragment, long cornerX, long cornerY, int x, int y);
+
+	/**
+	 * Writes the colors of the given region in row-major order to the given
+	 * array, starting at index 0. Implementations should override this, if
+	 * they can avoid doing the same work for every pixel.
+	 */
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	default void getColors(
+			Dimension dimension,
+			Fragment fragment,
+			long cornerX,
+			long cornerY,
+			int width,
+			int height,
+			int[] result) {
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				result[y * width + x] = getColorAt(dimension, fragment, cornerX, cornerY, x, y);
+			}
+		}
+	}
 }
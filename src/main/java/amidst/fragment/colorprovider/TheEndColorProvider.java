@@ -17,6 +17,7 @@ public class TheEndColorProvider implements ColorProvider {
 
 	private static final int TEXTURES_WIDTH = TEXTURES.getWidth();
 	private static final int TEXTURES_HEIGHT = TEXTURES.getHeight() >> 1;
+	private static final int[] TEXTURE_PIXELS = TEXTURES.getRGB(0, 0, TEXTURES_WIDTH, TEXTURES.getHeight(), null, 0, TEXTURES_WIDTH);
 
 	/**
 	 * INFLUENCE_FADE_FINISH must be lower than INFLUENCE_FADE_START, so that
@@ -100,7 +101,7 @@ public class TheEndColorProvider implements ColorProvider {
 	}
 
 	private int getEndStoneTextureAt(int textureX, int textureY) {
-		return TEXTURES.getRGB(textureX, textureY);
+		return TEXTURE_PIXELS[textureY * TEXTURES_WIDTH + textureX];
 	}
 
 	/**
@@ -110,7 +111,7 @@ public class TheEndColorProvider implements ColorProvider {
 	 * sad :( Let's use a symbolic texture, since we can't plot them properly.
 	 */
 	private int getRockyShoresTextureAt(int textureX, int textureY) {
-		return TEXTURES.getRGB(textureX, textureY + TEXTURES_HEIGHT);
+		return TEXTURE_PIXELS[(textureY + TEXTURES_HEIGHT) * TEXTURES_WIDTH + textureX];
 	}
 
 	private int getFadedEndStoneTextureAt(int textureX, int textureY, int alpha) {
@@ -1,11 +1,10 @@
 package amidst.fragment.constructor;
 
-import java.awt.image.BufferedImage;
-
 import amidst.documentation.AmidstThread;
 import amidst.documentation.CalledOnlyBy;
 import amidst.documentation.Immutable;
 import amidst.fragment.Fragment;
+import amidst.fragment.ImageBuffer;
 import amidst.mojangapi.world.coordinates.Resolution;
 
 @Immutable
@@ -22,11 +21,6 @@ public class ImageConstructor implements FragmentConstructor {
 	@CalledOnlyBy(AmidstThread.EDT)
 	@Override
 	public void construct(Fragment fragment) {
-		fragment.putImage(layerId, createBufferedImage());
-	}
-
-	@CalledOnlyBy(AmidstThread.EDT)
-	private BufferedImage createBufferedImage() {
-		return new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+		fragment.putImageBuffers(layerId, new ImageBuffer(size), new ImageBuffer(size));
 	}
 }
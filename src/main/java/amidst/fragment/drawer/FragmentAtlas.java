@@ -0,0 +1,342 @@
+package amidst.fragment.drawer;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import amidst.documentation.AmidstThread;
+import amidst.documentation.CalledOnlyBy;
+import amidst.documentation.NotThreadSafe;
+import amidst.fragment.Fragment;
+import amidst.fragment.FragmentGraphItem;
+import amidst.fragment.ImagePyramid;
+import amidst.gui.main.viewer.Graphics2DAccelerationCounter;
+import amidst.mojangapi.world.coordinates.CoordinatesInWorld;
+
+/**
+ * Composes the downscaled images of an image layer into large pages, which
+ * are kept in video memory. Each page covers a square of fragments, which is
+ * aligned to the world, so the pages stay valid while the map is moved. A
+ * tile of a page is only redrawn when the fragment at its position or the
+ * snapshot version or alpha value of that fragment changed. Each page is then
+ * drawn with a single scaled draw call. When zoomed out, this replaces
+ * thousands of tiny draw calls per frame with a few large ones.
+ *
+ * Pages which are not visible anymore are kept in a small pool, so they can
+ * be reused instead of allocating new video memory.
+ */
+@NotThreadSafe
+class FragmentAtlas {
+	private static final int FRAGMENTS_PER_PAGE = 16;
+	private static final int MAX_POOLED_PAGES = 32;
+	private static final Color TRANSPARENT = new Color(0, 0, 0, 0);
+
+	@NotThreadSafe
+	private static class Page {
+		private final int tileSize;
+		private final Fragment[] fragments = new Fragment[FRAGMENTS_PER_PAGE * FRAGMENTS_PER_PAGE];
+		private final int[] snapshotVersions = new int[FRAGMENTS_PER_PAGE * FRAGMENTS_PER_PAGE];
+		private final float[] alphas = new float[FRAGMENTS_PER_PAGE * FRAGMENTS_PER_PAGE];
+		private final int[] lastUsedFrames = new int[FRAGMENTS_PER_PAGE * FRAGMENTS_PER_PAGE];
+		private VolatileImage image;
+		private Graphics2D graphics;
+		private long pageX;
+		private long pageY;
+		private int lastUsedFrame;
+
+		public Page(int tileSize) {
+			this.tileSize = tileSize;
+		}
+
+		@CalledOnlyBy(AmidstThread.EDT)
+		public void reset(long pageX, long pageY) {
+			this.pageX = pageX;
+			this.pageY = pageY;
+			invalidateAll();
+		}
+
+		@CalledOnlyBy(AmidstThread.EDT)
+		private void invalidateAll() {
+			forgetTiles();
+			getGraphics().setComposite(AlphaComposite.Src);
+			graphics.setColor(TRANSPARENT);
+			graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+		}
+
+		@CalledOnlyBy(AmidstThread.EDT)
+		private void forgetTiles() {
+			for (int i = 0; i < fragments.length; i++) {
+				fragments[i] = null;
+			}
+		}
+
+		/**
+		 * Creates the image if needed and restores it, if its content was
+		 * lost, e.g. because the display mode changed.
+		 */
+		@CalledOnlyBy(AmidstThread.EDT)
+		public void validate(GraphicsConfiguration configuration) {
+			int result = image == null ? VolatileImage.IMAGE_INCOMPATIBLE : image.validate(configuration);
+			if (result == VolatileImage.IMAGE_INCOMPATIBLE) {
+				disposeGraphics();
+				if (image != null) {
+					image.flush();
+				}
+				int size = tileSize * FRAGMENTS_PER_PAGE;
+				image = configuration.createCompatibleVolatileImage(size, size, Transparency.TRANSLUCENT);
+				invalidateAll();
+			} else if (result == VolatileImage.IMAGE_RESTORED) {
+				invalidateAll();
+			}
+		}
+
+		@CalledOnlyBy(AmidstThread.EDT)
+		public void updateTile(int tileX, int tileY, Fragment fragment, int level, int layerId, int frame) {
+			int index = tileY * FRAGMENTS_PER_PAGE + tileX;
+			lastUsedFrames[index] = frame;
+			boolean isLoaded = fragment.getState().equals(Fragment.State.LOADED);
+			int snapshotVersion = fragment.getSnapshotVersion();
+			float alpha = isLoaded ? fragment.getAlpha() : 0;
+			if (fragments[index] != fragment || snapshotVersions[index] != snapshotVersion || alphas[index] != alpha) {
+				fragments[index] = fragment;
+				snapshotVersions[index] = snapshotVersion;
+				alphas[index] = alpha;
+				drawTile(tileX, tileY, isLoaded ? getLevel(fragment, level, layerId) : null, alpha);
+			}
+		}
+
+		@CalledOnlyBy(AmidstThread.EDT)
+		private BufferedImage getLevel(Fragment fragment, int level, int layerId) {
+			ImagePyramid imagePyramid = fragment.getImagePyramid(layerId);
+			return imagePyramid == null ? null : imagePyramid.getLevel(level);
+		}
+
+		@CalledOnlyBy(AmidstThread.EDT)
+		private void drawTile(int tileX, int tileY, BufferedImage tileImage, float alpha) {
+			int x = tileX * tileSize;
+			int y = tileY * tileSize;
+			Graphics2D g2d = getGraphics();
+			g2d.setComposite(AlphaComposite.Src);
+			g2d.setColor(TRANSPARENT);
+			g2d.fillRect(x, y, tileSize, tileSize);
+			if (tileImage != null && alpha > 0) {
+				g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+				g2d.drawImage(tileImage, x, y, null);
+			}
+		}
+
+		/**
+		 * Clears the tiles of fragments which are no longer in the fragment
+		 * graph.
+		 */
+		@CalledOnlyBy(AmidstThread.EDT)
+		public void clearUnusedTiles(int frame) {
+			for (int index = 0; index < fragments.length; index++) {
+				if (fragments[index] != null && lastUsedFrames[index] != frame) {
+					fragments[index] = null;
+					drawTile(index % FRAGMENTS_PER_PAGE, index / FRAGMENTS_PER_PAGE, null, 0);
+				}
+			}
+		}
+
+		@CalledOnlyBy(AmidstThread.EDT)
+		private Graphics2D getGraphics() {
+			if (graphics == null) {
+				graphics = image.createGraphics();
+			}
+			return graphics;
+		}
+
+		@CalledOnlyBy(AmidstThread.EDT)
+		public void disposeGraphics() {
+			if (graphics != null) {
+				graphics.dispose();
+				graphics = null;
+			}
+		}
+
+		/**
+		 * The given graphics draw in world coordinates relative to the given
+		 * corner.
+		 */
+		@CalledOnlyBy(AmidstThread.EDT)
+		public void draw(Graphics2D g2d, CoordinatesInWorld origin) {
+			disposeGraphics();
+			AffineTransform originalTransform = g2d.getTransform();
+			long worldSize = (long) FRAGMENTS_PER_PAGE * Fragment.SIZE;
+			g2d.translate(pageX * worldSize - origin.getX(), pageY * worldSize - origin.getY());
+			g2d.scale((double) Fragment.SIZE / tileSize, (double) Fragment.SIZE / tileSize);
+			Object oldHint = g2d.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, getRenderingHint(g2d));
+			g2d.drawImage(image, 0, 0, null);
+			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, oldHint);
+			g2d.setTransform(originalTransform);
+			if (image.contentsLost()) {
+				// all tiles are redrawn after the image is restored
+				forgetTiles();
+			}
+		}
+
+		@CalledOnlyBy(AmidstThread.EDT)
+		private Object getRenderingHint(Graphics2D g2d) {
+			if (g2d.getTransform().getScaleX() < 1.0f) {
+				return RenderingHints.VALUE_INTERPOLATION_BILINEAR;
+			} else {
+				return RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR;
+			}
+		}
+
+		@CalledOnlyBy(AmidstThread.EDT)
+		public void flush() {
+			disposeGraphics();
+			image.flush();
+		}
+	}
+
+	private final int layerId;
+	private final Graphics2DAccelerationCounter accelerationCounter;
+	private final Map<Long, Page> pages = new HashMap<>();
+	private final Map<Integer, Deque<Page>> pagePool = new HashMap<>();
+	private int level;
+	private int frame;
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	public FragmentAtlas(int layerId, Graphics2DAccelerationCounter accelerationCounter) {
+		this.layerId = layerId;
+		this.accelerationCounter = accelerationCounter;
+	}
+
+	/**
+	 * The given graphics draw in world coordinates relative to the corner of
+	 * the first fragment of the graph, like the fragment drawers.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	public void draw(Iterable<FragmentGraphItem> graph, int level, int tileSize, Graphics2D g2d) {
+		if (this.level != level) {
+			releaseAllPages();
+			this.level = level;
+		}
+		frame++;
+		GraphicsConfiguration configuration = g2d.getDeviceConfiguration();
+		CoordinatesInWorld origin = null;
+		for (FragmentGraphItem fragmentGraphItem : graph) {
+			Fragment fragment = fragmentGraphItem.getFragment();
+			CoordinatesInWorld corner = fragment.getCorner();
+			if (origin == null) {
+				origin = corner;
+			}
+			long fragmentX = Math.floorDiv(corner.getX(), Fragment.SIZE);
+			long fragmentY = Math.floorDiv(corner.getY(), Fragment.SIZE);
+			Page page = getPage(
+					Math.floorDiv(fragmentX, FRAGMENTS_PER_PAGE),
+					Math.floorDiv(fragmentY, FRAGMENTS_PER_PAGE),
+					tileSize,
+					configuration);
+			page.updateTile(
+					Math.floorMod(fragmentX, FRAGMENTS_PER_PAGE),
+					Math.floorMod(fragmentY, FRAGMENTS_PER_PAGE),
+					fragment,
+					level,
+					layerId,
+					frame);
+		}
+		releaseUnusedPages();
+		if (origin != null) {
+			drawPages(g2d, origin);
+		}
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private Page getPage(long pageX, long pageY, int tileSize, GraphicsConfiguration configuration) {
+		long key = (pageX << 32) ^ (pageY & 0xFFFFFFFFL);
+		Page page = pages.get(key);
+		if (page == null) {
+			page = createPage(tileSize);
+			page.validate(configuration);
+			page.reset(pageX, pageY);
+			pages.put(key, page);
+		} else if (page.lastUsedFrame != frame) {
+			page.validate(configuration);
+		}
+		page.lastUsedFrame = frame;
+		return page;
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private Page createPage(int tileSize) {
+		Deque<Page> pool = pagePool.get(tileSize);
+		if (pool != null && !pool.isEmpty()) {
+			return pool.pop();
+		}
+		return new Page(tileSize);
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void releaseUnusedPages() {
+		Iterator<Page> iterator = pages.values().iterator();
+		while (iterator.hasNext()) {
+			Page page = iterator.next();
+			if (page.lastUsedFrame != frame) {
+				iterator.remove();
+				releasePage(page);
+			}
+		}
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void releaseAllPages() {
+		for (Page page : pages.values()) {
+			releasePage(page);
+		}
+		pages.clear();
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void releasePage(Page page) {
+		Deque<Page> pool = pagePool.computeIfAbsent(page.tileSize, tileSize -> new ArrayDeque<>());
+		if (pool.size() < MAX_POOLED_PAGES) {
+			page.disposeGraphics();
+			pool.push(page);
+		} else {
+			page.flush();
+		}
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void drawPages(Graphics2D g2d, CoordinatesInWorld origin) {
+		g2d.setComposite(AlphaComposite.SrcOver);
+		for (Page page : pages.values()) {
+			page.clearUnusedTiles(frame);
+			page.draw(g2d, origin);
+			accelerationCounter.log(page.image);
+		}
+	}
+
+	/**
+	 * Frees the video memory of all pages.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	public void dispose() {
+		for (Page page : pages.values()) {
+			page.flush();
+		}
+		pages.clear();
+		for (Deque<Page> pool : pagePool.values()) {
+			for (Page page : pool) {
+				page.flush();
+			}
+		}
+		pagePool.clear();
+	}
+}
@@ -6,6 +6,7 @@ import amidst.documentation.AmidstThread;
 import amidst.documentation.CalledOnlyBy;
 import amidst.documentation.NotThreadSafe;
 import amidst.fragment.Fragment;
+import amidst.fragment.FragmentGraphItem;
 import amidst.fragment.layer.LayerDeclaration;
 
 @NotThreadSafe
@@ -28,4 +29,33 @@ public abstract class FragmentDrawer {
 
 	@CalledOnlyBy(AmidstThread.EDT)
 	public abstract void draw(Fragment fragment, Graphics2D g2d, float time);
+
+	/**
+	 * Draws the layer for all fragments of the graph at once. The given
+	 * graphics draw in world coordinates relative to the first fragment of the
+	 * graph. Returns false if the fragments need to be drawn one by one
+	 * instead, which is the default.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	public boolean drawAll(Iterable<FragmentGraphItem> graph, Graphics2D g2d, float time) {
+		return false;
+	}
+
+	/**
+	 * Returns a hash of everything that changes what this drawer draws,
+	 * besides the fragments, the position of the map and the zoom. The map is
+	 * only drawn again if one of them changed, so a drawer which depends on
+	 * anything else needs to override this.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	public int getDrawingStateHash() {
+		return 0;
+	}
+
+	/**
+	 * Releases the resources of this drawer, e.g. when the world is closed.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	public void dispose() {
+	}
 }
@@ -14,45 +14,108 @@ import amidst.documentation.AmidstThread;
 import amidst.documentation.CalledOnlyBy;
 import amidst.documentation.NotThreadSafe;
 import amidst.fragment.Fragment;
+import amidst.fragment.FragmentGraphItem;
+import amidst.fragment.ImagePyramid;
 import amidst.fragment.layer.LayerDeclaration;
 import amidst.gui.main.viewer.Graphics2DAccelerationCounter;
+import amidst.gui.main.viewer.Zoom;
 import amidst.mojangapi.world.coordinates.Resolution;
 import amidst.settings.Setting;
 
 @NotThreadSafe
 public class ImageDrawer extends FragmentDrawer {
 	private final Resolution resolution;
+	private final Zoom zoom;
 	private final Graphics2DAccelerationCounter accelerationCounter;
 	private final Setting<Boolean> useHybridScaling;
+	private final FragmentAtlas atlas;
 
 	public ImageDrawer(
 			LayerDeclaration declaration,
 			Resolution resolution,
+			Zoom zoom,
 			Graphics2DAccelerationCounter accelerationCounter,
 			Setting<Boolean> useHybridScaling) {
 		super(declaration);
 		this.resolution = resolution;
+		this.zoom = zoom;
 		this.accelerationCounter = accelerationCounter;
 		this.useHybridScaling = useHybridScaling;
+		this.atlas = new FragmentAtlas(declaration.getLayerId(), accelerationCounter);
 	}
 
 	@Override
 	public void draw(Fragment fragment, Graphics2D g2d, float time) {
-		if (useHybridScaling.get()) {
+		ImagePyramid imagePyramid = fragment.getImagePyramid(declaration.getLayerId());
+		int level = getPyramidLevel(imagePyramid);
+		if (level > 0) {
+			drawNearest(imagePyramid.getLevel(level), resolution.getStep() << level, g2d);
+		} else if (useHybridScaling.get()) {
 			drawHybrid(fragment, g2d, time);
 		} else {
-			drawNearest(fragment, g2d, time);
+			drawNearest(fragment.getImage(declaration.getLayerId()), resolution.getStep(), g2d);
 		}
 	}
 
+	/**
+	 * When a downscaled level is drawn, the map is zoomed out, so there are
+	 * many small fragments on the screen. They are composed in the atlas and
+	 * drawn with a few draw calls. Otherwise, there are only a few fragments
+	 * on the screen, so they are drawn one by one with the full image.
+	 */
 	@CalledOnlyBy(AmidstThread.EDT)
-	private void drawNearest(Fragment fragment, Graphics2D g2d, float time) {
-		int scale = resolution.getStep();
+	@Override
+	public boolean drawAll(Iterable<FragmentGraphItem> graph, Graphics2D g2d, float time) {
+		int level = getPyramidLevel(ImagePyramid.getNumberOfLevels(resolution.getStepsPerFragment()));
+		if (level > 0) {
+			atlas.draw(graph, level, resolution.getStepsPerFragment() >> level, g2d);
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	@Override
+	public int getDrawingStateHash() {
+		return Boolean.hashCode(useHybridScaling.get());
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	@Override
+	public void dispose() {
+		atlas.dispose();
+	}
+
+	/**
+	 * Picks the smallest level which still has at least one screen pixel per
+	 * image pixel.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	private int getPyramidLevel(ImagePyramid imagePyramid) {
+		if (imagePyramid == null) {
+			return 0;
+		}
+		return getPyramidLevel(imagePyramid.getNumberOfLevels());
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private int getPyramidLevel(int numberOfLevels) {
+		double screenPixelsPerImagePixel = zoom.getCurrentValue() * resolution.getStep();
+		int level = 0;
+		while (level < numberOfLevels && screenPixelsPerImagePixel * 2 <= 1) {
+			screenPixelsPerImagePixel *= 2;
+			level++;
+		}
+		return level;
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void drawNearest(BufferedImage image, int scale, Graphics2D g2d) {
 		g2d.scale(scale, scale);
 		Object oldHint = g2d.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
 		Object newHint = getRenderingHint(g2d);
 		g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, newHint);
-		BufferedImage image = fragment.getImage(declaration.getLayerId());
 		accelerationCounter.log(image);
 		g2d.drawImage(image, 0, 0, null);
 		g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, oldHint);
@@ -1,14 +1,22 @@
 package amidst.fragment.drawer;
 
+import java.awt.AlphaComposite;
+import java.awt.Composite;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 import amidst.documentation.AmidstThread;
 import amidst.documentation.CalledOnlyBy;
 import amidst.documentation.NotThreadSafe;
 import amidst.fragment.Fragment;
+import amidst.fragment.FragmentGraphItem;
 import amidst.fragment.layer.LayerDeclaration;
 import amidst.gui.main.viewer.WorldIconSelection;
 import amidst.gui.main.viewer.Zoom;
@@ -16,11 +24,45 @@ import amidst.mojangapi.world.coordinates.CoordinatesInWorld;
 import amidst.mojangapi.world.icon.WorldIcon;
 import amidst.settings.Setting;
 
+/**
+ * The icons are drawn with sprites, which are already scaled to their size on
+ * the screen, so each icon is a plain copy of pixels. When all fragments are
+ * drawn at once, the icons are collected per sprite and each sprite is drawn
+ * for all of its icons in a row. The selected icon is drawn last, so it is not
+ * hidden by other icons.
+ */
 @NotThreadSafe
 public class WorldIconDrawer extends FragmentDrawer {
+	private static class SpriteBatch {
+		private final BufferedImage sprite;
+		private int size;
+		private int[] xs = new int[16];
+		private int[] ys = new int[16];
+		private float[] alphas = new float[16];
+
+		public SpriteBatch(BufferedImage sprite) {
+			this.sprite = sprite;
+		}
+
+		public void add(int x, int y, float alpha) {
+			if (size == xs.length) {
+				xs = Arrays.copyOf(xs, size * 2);
+				ys = Arrays.copyOf(ys, size * 2);
+				alphas = Arrays.copyOf(alphas, size * 2);
+			}
+			xs[size] = x;
+			ys[size] = y;
+			alphas[size] = alpha;
+			size++;
+		}
+	}
+
 	private final Zoom zoom;
 	private final WorldIconSelection worldIconSelection;
 	private final Setting<Boolean> useHybridScaling;
+	private final WorldIconSprites sprites = new WorldIconSprites();
+	private final Map<BufferedImage, SpriteBatch> batchesBySprite = new IdentityHashMap<>();
+	private final List<SpriteBatch> batches = new ArrayList<>();
 
 	public WorldIconDrawer(
 			LayerDeclaration declaration,
@@ -36,32 +78,166 @@ public class WorldIconDrawer extends FragmentDrawer {
 	@CalledOnlyBy(AmidstThread.EDT)
 	@Override
 	public void draw(Fragment fragment, Graphics2D g2d, float time) {
-		double invZoom = 1.0 / zoom.getCurrentValue();
-		
-		Object oldHint = g2d.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
 		AffineTransform originalTransform = g2d.getTransform();
-		
+		updateSprites(g2d, originalTransform);
+		setPixelTransform(g2d, originalTransform);
 		for (WorldIcon icon : fragment.getWorldIcons(declaration.getLayerId())) {
-			drawIcon(icon, invZoom, g2d);
-			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, oldHint);
-			g2d.setTransform(originalTransform);
+			CoordinatesInWorld coordinates = icon.getCoordinates();
+			BufferedImage sprite = getSprite(icon);
+			g2d.drawImage(
+					sprite,
+					getSpriteX(sprite, coordinates.getXRelativeToFragment(), originalTransform),
+					getSpriteY(sprite, coordinates.getYRelativeToFragment(), originalTransform),
+					null);
 		}
+		g2d.setTransform(originalTransform);
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
-	private void drawIcon(WorldIcon icon, double invZoom, Graphics2D g2d) {
-		BufferedImage image = icon.getImage().getImage();
-		int width = image.getWidth();
-		int height = image.getHeight();
-		if (worldIconSelection.isSelected(icon)) {
-			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, getInterpolationHint());
-			width *= 1.5;
-			height *= 1.5;
+	@Override
+	public boolean drawAll(Iterable<FragmentGraphItem> graph, Graphics2D g2d, float time) {
+		AffineTransform originalTransform = g2d.getTransform();
+		Composite originalComposite = g2d.getComposite();
+		updateSprites(g2d, originalTransform);
+		SpriteBatch selectedBatch = null;
+		CoordinatesInWorld origin = null;
+		for (FragmentGraphItem fragmentGraphItem : graph) {
+			Fragment fragment = fragmentGraphItem.getFragment();
+			CoordinatesInWorld corner = fragment.getCorner();
+			if (origin == null) {
+				origin = corner;
+			}
+			float alpha;
+			if (isDrawUnloaded()) {
+				alpha = 1.0f;
+			} else if (fragment.getState().equals(Fragment.State.LOADED)) {
+				alpha = fragment.getAlpha();
+			} else {
+				continue;
+			}
+			long offsetX = corner.getX() - origin.getX();
+			long offsetY = corner.getY() - origin.getY();
+			for (WorldIcon icon : fragment.getWorldIcons(declaration.getLayerId())) {
+				CoordinatesInWorld coordinates = icon.getCoordinates();
+				BufferedImage sprite = getSprite(icon);
+				SpriteBatch batch = getBatch(sprite);
+				if (worldIconSelection.isSelected(icon)) {
+					selectedBatch = batch;
+				}
+				batch.add(
+						getSpriteX(sprite, offsetX + coordinates.getXRelativeToFragment(), originalTransform),
+						getSpriteY(sprite, offsetY + coordinates.getYRelativeToFragment(), originalTransform),
+						alpha);
+			}
+		}
+		setPixelTransform(g2d, originalTransform);
+		float currentAlpha = 1.0f;
+		for (SpriteBatch batch : batches) {
+			if (batch != selectedBatch) {
+				currentAlpha = drawBatch(batch, g2d, currentAlpha);
+			}
+		}
+		if (selectedBatch != null) {
+			drawBatch(selectedBatch, g2d, currentAlpha);
 		}
-		CoordinatesInWorld coordinates = icon.getCoordinates();
-		g2d.translate(coordinates.getXRelativeToFragment(), coordinates.getYRelativeToFragment());
-		g2d.scale(invZoom, invZoom);
-		g2d.drawImage(image, -(width >> 1), -(height >> 1), width, height, null);
+		g2d.setComposite(originalComposite);
+		g2d.setTransform(originalTransform);
+		return true;
+	}
+
+	/**
+	 * Returns the alpha value of the composite after the batch was drawn.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	private float drawBatch(SpriteBatch batch, Graphics2D g2d, float currentAlpha) {
+		for (int i = 0; i < batch.size; i++) {
+			currentAlpha = setAlpha(g2d, currentAlpha, batch.alphas[i]);
+			g2d.drawImage(batch.sprite, batch.xs[i], batch.ys[i], null);
+		}
+		batch.size = 0;
+		return currentAlpha;
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private float setAlpha(Graphics2D g2d, float currentAlpha, float alpha) {
+		if (currentAlpha != alpha) {
+			g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+		}
+		return alpha;
+	}
+
+	/**
+	 * The batches are kept, so their arrays can be reused in the next frame.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	private SpriteBatch getBatch(BufferedImage sprite) {
+		SpriteBatch result = batchesBySprite.get(sprite);
+		if (result == null) {
+			result = new SpriteBatch(sprite);
+			batchesBySprite.put(sprite, result);
+			batches.add(result);
+		}
+		return result;
+	}
+
+	/**
+	 * The icons have the same size on the screen at every zoom level, so the
+	 * scale of the sprites is the scale of the screen.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void updateSprites(Graphics2D g2d, AffineTransform layerTransform) {
+		double scale = layerTransform.getScaleX() / zoom.getCurrentValue();
+		if (sprites.update(g2d.getDeviceConfiguration(), scale, getInterpolationHint())) {
+			batchesBySprite.clear();
+			batches.clear();
+		}
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private BufferedImage getSprite(WorldIcon icon) {
+		return sprites.get(icon.getImage().getImage(), worldIconSelection.isSelected(icon));
+	}
+
+	/**
+	 * Sets a transform which maps one unit to one pixel, so the sprites are
+	 * drawn without scaling. The origin is rounded to a whole pixel, so the
+	 * sprites are not resampled either.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void setPixelTransform(Graphics2D g2d, AffineTransform layerTransform) {
+		g2d.setTransform(
+				AffineTransform.getTranslateInstance(
+						Math.round(layerTransform.getTranslateX()),
+						Math.round(layerTransform.getTranslateY())));
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private int getSpriteX(BufferedImage sprite, long xInWorld, AffineTransform layerTransform) {
+		return toPixel(xInWorld, layerTransform.getTranslateX(), layerTransform.getScaleX()) - (sprite.getWidth() >> 1);
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private int getSpriteY(BufferedImage sprite, long yInWorld, AffineTransform layerTransform) {
+		return toPixel(yInWorld, layerTransform.getTranslateY(), layerTransform.getScaleY()) - (sprite.getHeight() >> 1);
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private int toPixel(long coordinateInWorld, double translate, double scale) {
+		return (int) Math.round(translate - Math.round(translate) + coordinateInWorld * scale);
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	@Override
+	public int getDrawingStateHash() {
+		return 31 * System.identityHashCode(worldIconSelection.get()) + Boolean.hashCode(useHybridScaling.get());
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	@Override
+	public void dispose() {
+		sprites.flush();
+		batchesBySprite.clear();
+		batches.clear();
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
@@ -0,0 +1,112 @@
+package amidst.fragment.drawer;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import amidst.documentation.AmidstThread;
+import amidst.documentation.CalledOnlyBy;
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * Copies of the world icon images, which are already scaled to the size they
+ * have on the screen and compatible with the screen, so Java2D can keep them
+ * in video memory and draw them without scaling or converting them. World
+ * icons have the same size on the screen at every zoom level, so the copies
+ * only depend on the scale of the screen itself, e.g. on a high resolution
+ * display. This scale is quantized, so small rounding errors in the scale do
+ * not cause new copies.
+ */
+@NotThreadSafe
+class WorldIconSprites {
+	private static class Sprites {
+		private final BufferedImage normal;
+		private BufferedImage selected;
+
+		public Sprites(BufferedImage normal) {
+			this.normal = normal;
+		}
+	}
+
+	private static final int SCALE_STEPS = 8;
+	private static final double SELECTED_SCALE = 1.5;
+
+	private final Map<BufferedImage, Sprites> spritesByImage = new IdentityHashMap<>();
+	private GraphicsConfiguration configuration;
+	private double scale;
+	private Object selectedInterpolationHint;
+
+	/**
+	 * Needs to be called before the sprites are drawn. Returns true if the
+	 * previous sprites are discarded.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	public boolean update(GraphicsConfiguration configuration, double scale, Object selectedInterpolationHint) {
+		double quantizedScale = Math.max(1, Math.round(scale * SCALE_STEPS)) / (double) SCALE_STEPS;
+		if (this.configuration != configuration
+				|| this.scale != quantizedScale
+				|| this.selectedInterpolationHint != selectedInterpolationHint) {
+			flush();
+			this.configuration = configuration;
+			this.scale = quantizedScale;
+			this.selectedInterpolationHint = selectedInterpolationHint;
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	public BufferedImage get(BufferedImage image, boolean isSelected) {
+		Sprites sprites = spritesByImage.get(image);
+		if (sprites == null) {
+			sprites = new Sprites(
+					createSprite(
+							image,
+							image.getWidth(),
+							image.getHeight(),
+							RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR));
+			spritesByImage.put(image, sprites);
+		}
+		if (!isSelected) {
+			return sprites.normal;
+		}
+		if (sprites.selected == null) {
+			sprites.selected = createSprite(
+					image,
+					(int) (image.getWidth() * SELECTED_SCALE),
+					(int) (image.getHeight() * SELECTED_SCALE),
+					selectedInterpolationHint);
+		}
+		return sprites.selected;
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private BufferedImage createSprite(BufferedImage image, int iconWidth, int iconHeight, Object interpolationHint) {
+		int width = Math.max(1, (int) Math.round(iconWidth * scale));
+		int height = Math.max(1, (int) Math.round(iconHeight * scale));
+		BufferedImage result = configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		Graphics2D g2d = result.createGraphics();
+		g2d.setComposite(AlphaComposite.Src);
+		g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolationHint);
+		g2d.drawImage(image, 0, 0, width, height, null);
+		g2d.dispose();
+		return result;
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	public void flush() {
+		for (Sprites sprites : spritesByImage.values()) {
+			sprites.normal.flush();
+			if (sprites.selected != null) {
+				sprites.selected.flush();
+			}
+		}
+		spritesByImage.clear();
+	}
+}
@@ -75,6 +75,7 @@ public class LayerBuilder {
 				declarations,
 				new LayerLoader(
 						createLoaders(declarations, world, biomeSelection, settings),
+						createDependencies(),
 						LayerIds.NUMBER_OF_LAYERS),
 				createDrawers(declarations, zoom, worldIconSelection, accelerationCounter,
 						settings)
@@ -122,7 +123,8 @@ public class LayerBuilder {
 	}
 
 	/**
-	 * This also defines the loading and reloading order.
+	 * This also defines the order in which the loaders are started. They run
+	 * in parallel, except for the dependencies declared below.
 	 */
 	private Iterable<FragmentLoader> createLoaders(
 			List<LayerDeclaration> declarations,
@@ -151,6 +153,22 @@ public class LayerBuilder {
 		// @formatter:on
 	}
 
+	/**
+	 * Defines which layers read the data of other layers while they are
+	 * loaded, e.g. the background image is drawn from the biome data. All
+	 * other layers are loaded in parallel. A layer can only depend on layers
+	 * which come before it in the loading order.
+	 */
+	private int[][] createDependencies() {
+		int[][] dependencies = new int[LayerIds.NUMBER_OF_LAYERS][];
+		Arrays.fill(dependencies, new int[0]);
+		// @formatter:off
+		dependencies[LayerIds.BACKGROUND] = new int[] { LayerIds.BIOME_DATA, LayerIds.END_ISLANDS };
+		dependencies[LayerIds.END_CITY]   = new int[] { LayerIds.END_ISLANDS };
+		// @formatter:on
+		return dependencies;
+	}
+
 	/**
 	 * This also defines the rendering order.
 	 */
@@ -163,8 +181,8 @@ public class LayerBuilder {
 		// @formatter:off
 		return Collections.unmodifiableList(Arrays.asList(
 				new AlphaUpdater(   declarations.get(LayerIds.ALPHA)),
-				new ImageDrawer(    declarations.get(LayerIds.BACKGROUND),      Resolution.QUARTER, accelerationCounter, settings.useHybridScaling),
-				new ImageDrawer(    declarations.get(LayerIds.SLIME),           Resolution.CHUNK,   accelerationCounter, settings.useHybridScaling),
+				new ImageDrawer(    declarations.get(LayerIds.BACKGROUND),      Resolution.QUARTER, zoom, accelerationCounter, settings.useHybridScaling),
+				new ImageDrawer(    declarations.get(LayerIds.SLIME),           Resolution.CHUNK,   zoom, accelerationCounter, settings.useHybridScaling),
 				new GridDrawer(     declarations.get(LayerIds.GRID),            zoom),
 				new WorldIconDrawer(declarations.get(LayerIds.SPAWN),           zoom, worldIconSelection, settings.useHybridScaling),
 				new WorldIconDrawer(declarations.get(LayerIds.STRONGHOLD),      zoom, worldIconSelection, settings.useHybridScaling),
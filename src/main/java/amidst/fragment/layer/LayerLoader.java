@@ -1,56 +1,166 @@
 package amidst.fragment.layer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
 import amidst.documentation.AmidstThread;
 import amidst.documentation.CalledByAny;
 import amidst.documentation.CalledOnlyBy;
-import amidst.documentation.NotThreadSafe;
+import amidst.documentation.ThreadSafe;
+import amidst.fragment.DimensionLayerData;
 import amidst.fragment.Fragment;
 import amidst.fragment.loader.FragmentLoader;
 import amidst.mojangapi.world.Dimension;
 
-@NotThreadSafe
+/**
+ * When called by a fragment worker, the loaders of a single fragment are
+ * executed in parallel as tasks of the worker pool, so idle workers can help
+ * with it. A loader only waits for the loaders of the layers it depends on.
+ *
+ * Every layer has a generation, which is incremented when the layer is
+ * invalidated. Each fragment remembers the generation of every layer at the
+ * time it was loaded, so a reload only runs the loaders of the layers that
+ * changed since then. A fragment that is not reloaded right away, because it
+ * is still loading or not in use, is simply stale and will catch up when it is
+ * loaded or reloaded next time. There is no global state that needs to be
+ * cleared after all fragments were reloaded. Since a fragment keeps the
+ * generations separately for each dimension, switching back to a dimension
+ * only reloads the layers which were invalidated in the meantime. The layer
+ * data of the dimension is selected once per (re)load, so the images and
+ * generations stay with that dimension, even if the fragment switches to
+ * another dimension while the loaders are running.
+ */
+@ThreadSafe
 public class LayerLoader {
 	private final Iterable<FragmentLoader> loaders;
-	private final boolean[] invalidatedLayers;
+	private final int[][] dependencies;
+	private final AtomicIntegerArray layerGenerations;
 
 	@CalledByAny
-	public LayerLoader(Iterable<FragmentLoader> loaders, int numberOfLayers) {
+	public LayerLoader(Iterable<FragmentLoader> loaders, int[][] dependencies, int numberOfLayers) {
 		this.loaders = loaders;
-		this.invalidatedLayers = new boolean[numberOfLayers];
-	}
-
-	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	public void clearInvalidatedLayers() {
-		for (int i = 0; i < invalidatedLayers.length; i++) {
-			invalidatedLayers[i] = false;
-		}
+		this.dependencies = dependencies;
+		this.layerGenerations = new AtomicIntegerArray(numberOfLayers);
 	}
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	public void invalidateLayer(int layerId) {
-		invalidatedLayers[layerId] = true;
+		layerGenerations.incrementAndGet(layerId);
 	}
 
+	/**
+	 * The layers of disabled loaders are marked as not loaded, so they are
+	 * loaded as soon as the layer is enabled.
+	 */
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	public void loadAll(Dimension dimension, Fragment fragment) {
+		DimensionLayerData layerData = fragment.selectDimension(dimension);
 		for (FragmentLoader loader : loaders) {
-			if (loader.isEnabled()) {
-				loader.load(dimension, fragment);
+			if (!loader.isEnabled()) {
+				layerData.setLayerGeneration(loader.getLayerId(), Fragment.NOT_LOADED);
 			}
 		}
+		runLoaders(layerData, loader -> true, loader -> loader.load(dimension, fragment, layerData));
 	}
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	public void reloadInvalidated(Dimension dimension, Fragment fragment) {
+		DimensionLayerData layerData = fragment.selectDimension(dimension);
+		runLoaders(
+				layerData,
+				loader -> isStale(layerData.getLayerGeneration(loader.getLayerId()), loader),
+				loader -> loader.reload(dimension, fragment, layerData));
+	}
+
+	/**
+	 * Returns true if an enabled layer of the given fragment was invalidated
+	 * after it was loaded.
+	 */
+	@CalledByAny
+	public boolean isStale(Fragment fragment) {
 		for (FragmentLoader loader : loaders) {
-			if (loader.isEnabled() && isInvalidated(loader.getLayerId())) {
-				loader.reload(dimension, fragment);
+			if (loader.isEnabled() && isStale(fragment.getLayerGeneration(loader.getLayerId()), loader)) {
+				return true;
 			}
 		}
+		return false;
+	}
+
+	@CalledByAny
+	private boolean isStale(int loadedLayerGeneration, FragmentLoader loader) {
+		return loadedLayerGeneration != layerGenerations.get(loader.getLayerId());
 	}
 
+	/**
+	 * The generation is read before the loader runs, so an invalidation during
+	 * the execution of the loader leaves the layer stale.
+	 */
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	private boolean isInvalidated(int layerId) {
-		return invalidatedLayers[layerId];
+	private void runLoaders(
+			DimensionLayerData layerData,
+			Predicate<FragmentLoader> isSelected,
+			Consumer<FragmentLoader> action) {
+		Consumer<FragmentLoader> stampedAction = loader -> {
+			int layerId = loader.getLayerId();
+			int layerGeneration = layerGenerations.get(layerId);
+			action.accept(loader);
+			layerData.setLayerGeneration(layerId, layerGeneration);
+		};
+		boolean isParallel = ForkJoinTask.inForkJoinPool();
+		boolean[] isRunning = new boolean[layerGenerations.length()];
+		ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[layerGenerations.length()];
+		List<ForkJoinTask<?>> taskList = new ArrayList<>();
+		for (FragmentLoader loader : loaders) {
+			if (loader.isEnabled() && (isSelected.test(loader) || isAnyDependencyRunning(isRunning, loader))) {
+				isRunning[loader.getLayerId()] = true;
+				if (isParallel) {
+					ForkJoinTask<?> task = createTask(tasks, loader, stampedAction);
+					tasks[loader.getLayerId()] = task;
+					taskList.add(task);
+				} else {
+					stampedAction.accept(loader);
+				}
+			}
+		}
+		ForkJoinTask.invokeAll(taskList);
+	}
+
+	/**
+	 * A layer that depends on a reloaded layer has to be reloaded as well,
+	 * even if it was not invalidated itself.
+	 */
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	private boolean isAnyDependencyRunning(boolean[] isRunning, FragmentLoader loader) {
+		for (int layerId : dependencies[loader.getLayerId()]) {
+			if (isRunning[layerId]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The tasks of the dependencies are created before the task of the given
+	 * loader, so they are already in the array. Dependencies which are not
+	 * (re)loaded have no task, since their data is already available.
+	 */
+	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
+	private ForkJoinTask<?> createTask(ForkJoinTask<?>[] tasks, FragmentLoader loader, Consumer<FragmentLoader> action) {
+		List<ForkJoinTask<?>> requiredTasks = new ArrayList<>();
+		for (int layerId : dependencies[loader.getLayerId()]) {
+			if (tasks[layerId] != null) {
+				requiredTasks.add(tasks[layerId]);
+			}
+		}
+		return ForkJoinTask.adapt(() -> {
+			for (ForkJoinTask<?> requiredTask : requiredTasks) {
+				requiredTask.join();
+			}
+			action.accept(loader);
+		});
 	}
 }
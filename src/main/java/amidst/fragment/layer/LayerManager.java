@@ -14,11 +14,23 @@ import amidst.threading.TaskQueue;
 
 @NotThreadSafe
 public class LayerManager {
+	/**
+	 * What needs to be done with the loaded fragments after the layers were
+	 * updated. Reloading the fragments repaints the map anyway.
+	 */
+	public static enum UpdateResult {
+		NOTHING,
+		REPAINT,
+		RELOAD;
+	}
+
 	private final TaskQueue invalidationOperations = new TaskQueue();
 
 	private final List<LayerDeclaration> declarations;
 	private final LayerLoader layerLoader;
 	private final Iterable<FragmentDrawer> drawers;
+	private volatile Runnable onInvalidation = () -> {
+	};
 
 	public LayerManager(
 			List<LayerDeclaration> declarations,
@@ -29,23 +41,50 @@ public class LayerManager {
 		this.drawers = drawers;
 	}
 
+	/**
+	 * A layer that becomes visible again is not invalidated, because the
+	 * fragments still know whether their data of that layer is up to date.
+	 * This way, toggling a layer or the dimension back and forth does not
+	 * load the same data again. The background does not need to be
+	 * invalidated when the dimension changes either, because the fragments
+	 * keep separate images for each dimension. A layer that becomes hidden
+	 * does not need to be reloaded, but the map still needs to be repainted,
+	 * because the drawers only check the visibility when they draw.
+	 */
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	public boolean updateAll(Dimension dimension) {
+	public UpdateResult updateAll(Dimension dimension) {
+		boolean isAnyLayerShown = false;
+		boolean isAnyLayerHidden = false;
 		for (LayerDeclaration declaration : declarations) {
+			boolean wasVisible = declaration.isVisible();
 			if (declaration.update(dimension)) {
-				int layerId = declaration.getLayerId();
-				if (layerId == LayerIds.BIOME_DATA || layerId == LayerIds.END_ISLANDS) {
-					invalidateLayer(LayerIds.BACKGROUND);
-				}
-				invalidateLayer(layerId);
+				isAnyLayerShown = true;
+			} else if (wasVisible && !declaration.isVisible()) {
+				isAnyLayerHidden = true;
 			}
 		}
-		return invalidationOperations.processTasks();
+		if (invalidationOperations.processTasks() | isAnyLayerShown) {
+			return UpdateResult.RELOAD;
+		} else if (isAnyLayerHidden) {
+			return UpdateResult.REPAINT;
+		} else {
+			return UpdateResult.NOTHING;
+		}
 	}
 
 	@CalledByAny
 	public void invalidateLayer(int layerId) {
 		invalidationOperations.invoke(() -> doInvalidateLayer(layerId));
+		onInvalidation.run();
+	}
+
+	/**
+	 * The given runnable is called whenever a layer is invalidated, so the
+	 * fragments can be reloaded without polling.
+	 */
+	@CalledByAny
+	public void setOnInvalidation(Runnable onInvalidation) {
+		this.onInvalidation = onInvalidation;
 	}
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
@@ -63,9 +102,9 @@ public class LayerManager {
 		layerLoader.reloadInvalidated(dimension, fragment);
 	}
 
-	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	public void clearInvalidatedLayers() {
-		layerLoader.clearInvalidatedLayers();
+	@CalledByAny
+	public boolean isStale(Fragment fragment) {
+		return layerLoader.isStale(fragment);
 	}
 
 	public Iterable<LayerDeclaration> getDeclarations() {
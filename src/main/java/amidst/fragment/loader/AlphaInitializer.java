@@ -3,6 +3,7 @@ package amidst.fragment.loader;
 import amidst.documentation.AmidstThread;
 import amidst.documentation.CalledOnlyBy;
 import amidst.documentation.NotThreadSafe;
+import amidst.fragment.DimensionLayerData;
 import amidst.fragment.Fragment;
 import amidst.fragment.layer.LayerDeclaration;
 import amidst.mojangapi.world.Dimension;
@@ -19,7 +20,7 @@ public class AlphaInitializer extends FragmentLoader {
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	@Override
-	public void load(Dimension dimension, Fragment fragment) {
+	public void load(Dimension dimension, Fragment fragment, DimensionLayerData layerData) {
 		if (fragmentFadingSetting.get()) {
 			fragment.setAlpha(0.0f);
 		} else {
@@ -29,7 +30,7 @@ public class AlphaInitializer extends FragmentLoader {
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	@Override
-	public void reload(Dimension dimension, Fragment fragment) {
+	public void reload(Dimension dimension, Fragment fragment, DimensionLayerData layerData) {
 		// noop
 	}
 }
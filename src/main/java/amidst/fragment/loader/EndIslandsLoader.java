@@ -6,6 +6,7 @@ import amidst.documentation.AmidstThread;
 import amidst.documentation.CalledByAny;
 import amidst.documentation.CalledOnlyBy;
 import amidst.documentation.NotThreadSafe;
+import amidst.fragment.DimensionLayerData;
 import amidst.fragment.Fragment;
 import amidst.fragment.layer.LayerDeclaration;
 import amidst.mojangapi.world.Dimension;
@@ -26,13 +27,13 @@ public class EndIslandsLoader extends FragmentLoader {
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	@Override
-	public void load(Dimension dimension, Fragment fragment) {
+	public void load(Dimension dimension, Fragment fragment, DimensionLayerData layerData) {
 		doLoad(fragment);
 	}
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	@Override
-	public void reload(Dimension dimension, Fragment fragment) {
+	public void reload(Dimension dimension, Fragment fragment, DimensionLayerData layerData) {
 		doLoad(fragment);
 	}
 
@@ -3,6 +3,7 @@ package amidst.fragment.loader;
 import amidst.documentation.AmidstThread;
 import amidst.documentation.CalledOnlyBy;
 import amidst.documentation.NotThreadSafe;
+import amidst.fragment.DimensionLayerData;
 import amidst.fragment.Fragment;
 import amidst.fragment.layer.LayerDeclaration;
 import amidst.mojangapi.world.Dimension;
@@ -23,9 +24,14 @@ public abstract class FragmentLoader {
 		return declaration.isVisible();
 	}
 
+	/**
+	 * The layer data is the one of the given dimension. It is selected once
+	 * before the loaders run, so the images are written to the right
+	 * dimension even if the fragment switches to another one in the meantime.
+	 */
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	public abstract void load(Dimension dimension, Fragment fragment);
+	public abstract void load(Dimension dimension, Fragment fragment, DimensionLayerData layerData);
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	public abstract void reload(Dimension dimension, Fragment fragment);
+	public abstract void reload(Dimension dimension, Fragment fragment, DimensionLayerData layerData);
 }
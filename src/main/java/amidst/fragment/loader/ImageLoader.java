@@ -1,23 +1,25 @@
 package amidst.fragment.loader;
 
-import java.awt.image.BufferedImage;
-
 import amidst.documentation.AmidstThread;
 import amidst.documentation.CalledByAny;
 import amidst.documentation.CalledOnlyBy;
 import amidst.documentation.ThreadSafe;
+import amidst.fragment.DimensionLayerData;
 import amidst.fragment.Fragment;
+import amidst.fragment.ImageBuffer;
 import amidst.fragment.colorprovider.ColorProvider;
 import amidst.fragment.layer.LayerDeclaration;
 import amidst.mojangapi.world.Dimension;
 import amidst.mojangapi.world.coordinates.CoordinatesInWorld;
 import amidst.mojangapi.world.coordinates.Resolution;
+import amidst.util.ArrayCache;
 
 @ThreadSafe
 public class ImageLoader extends FragmentLoader {
 	private final Resolution resolution;
 	private final ColorProvider colorProvider;
 	private final int width, height;
+	private final ArrayCache<int[]> pixelArrays;
 
 	@CalledByAny
 	public ImageLoader(LayerDeclaration declaration, Resolution resolution, ColorProvider colorProvider) {
@@ -26,50 +28,38 @@ public class ImageLoader extends FragmentLoader {
 		this.colorProvider = colorProvider;
 		this.width = resolution.getStepsPerFragment();
 		this.height = resolution.getStepsPerFragment();
-	}
-
-	@CalledByAny
-	private BufferedImage createBufferedImage() {
-		return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		this.pixelArrays = ArrayCache.makeIntArrayCache(width * height);
 	}
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	@Override
-	public void load(Dimension dimension, Fragment fragment) {
-		doLoad(dimension, fragment);
+	public void load(Dimension dimension, Fragment fragment, DimensionLayerData layerData) {
+		doLoad(dimension, fragment, layerData);
 	}
 
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
 	@Override
-	public void reload(Dimension dimension, Fragment fragment) {
-		doLoad(dimension, fragment);
+	public void reload(Dimension dimension, Fragment fragment, DimensionLayerData layerData) {
+		doLoad(dimension, fragment, layerData);
 	}
 	
+	/**
+	 * The image is drawn into the back buffer, which is then published. This
+	 * way, the EDT never draws a half written image and the image it draws is
+	 * not modified, so it can stay cached in video memory.
+	 */
 	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	private void doLoad(Dimension dimension, Fragment fragment) {
-		// Slightly faster and uses less ram, but not as safe
+	private void doLoad(Dimension dimension, Fragment fragment, DimensionLayerData layerData) {
 		CoordinatesInWorld corner = fragment.getCorner();
 		long cornerX = corner.getXAs(resolution);
 		long cornerY = corner.getYAs(resolution);
-		drawToImage(dimension, fragment, cornerX, cornerY, fragment.getImage(declaration.getLayerId()));
-	}
-
-	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	private void doLoadAtomic(Dimension dimension, Fragment fragment) {
-		CoordinatesInWorld corner = fragment.getCorner();
-		long cornerX = corner.getXAs(resolution);
-		long cornerY = corner.getYAs(resolution);
-		BufferedImage tempImg = createBufferedImage();
-		drawToImage(dimension, fragment, cornerX, cornerY, tempImg);
-		fragment.putImage(declaration.getLayerId(), tempImg);
-	}
-
-	@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-	private void drawToImage(Dimension dimension, Fragment fragment, long cornerX, long cornerY, BufferedImage bufferedImage) {
-		for (int y = 0; y < height; y++) {
-			for (int x = 0; x < width; x++) {
-				bufferedImage.setRGB(x, y, colorProvider.getColorAt(dimension, fragment, cornerX, cornerY, x, y));
-			}
-		}
+		int layerId = declaration.getLayerId();
+		ImageBuffer backBuffer = layerData.getBackBuffer(layerId);
+		pixelArrays.withArray(width * height, pixels -> {
+			colorProvider.getColors(dimension, fragment, cornerX, cornerY, width, height, pixels);
+			backBuffer.setPixels(pixels);
+			return null;
+		});
+		fragment.publishBackBuffer(layerData, layerId);
 	}
 }
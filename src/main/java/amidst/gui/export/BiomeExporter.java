@@ -20,6 +20,11 @@ import java.nio.file.Files;
 import java.util.AbstractMap;
 import java.util.Map.Entry;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
@@ -33,6 +38,7 @@ import amidst.gui.main.menu.AmidstMenu;
 import amidst.gui.main.viewer.widget.ProgressWidget.ProgressEntryType;
 import amidst.logging.AmidstLogger;
 import amidst.logging.AmidstMessageBox;
+import amidst.mojangapi.minecraftinterface.BiomeTile;
 import amidst.mojangapi.world.coordinates.CoordinatesInWorld;
 import amidst.mojangapi.world.coordinates.Resolution;
 import amidst.mojangapi.world.oracle.BiomeDataOracle;
@@ -104,9 +110,11 @@ public class BiomeExporter {
 
 			progressReporter.report(entry(MAX, height + 1));
 
+			// Generates the next batch of biome data while the current one is being encoded.
+			ExecutorService prefetcher = Executors.newSingleThreadExecutor(r -> new Thread(r, "BiomeExportPrefetcher"));
 			RenderedImage img = new CustomRenderedImage(x, y, width, height,
 					configuration.getBiomeProfileSelection(), biomeDataOracle, configuration.isQuarterResolution(),
-					progressReporter);
+					prefetcher, progressReporter);
 
 			try {
 				ImageIO.write(img, "png", configuration.getImagePath().toAbsolutePath().toFile());
@@ -114,6 +122,7 @@ public class BiomeExporter {
 	    		AmidstLogger.error(e, "An error occured while trying to export the image");
 	    		AmidstMessageBox.displayError("Export Biome Images", e, "An error occured while trying to export the image");
 			} finally {
+				prefetcher.shutdownNow();
 				System.gc();
 				progressReporter.report(entry(PROGRESS, height + 1));
 			}
@@ -160,6 +169,7 @@ public class BiomeExporter {
 		private final BiomeDataOracle biomeDataOracle;
 		private final boolean useQuarterResolution;
 		private final int resolutionFactor;
+		private final Executor prefetcher;
 		private final ProgressReporter<Entry<ProgressEntryType, Integer>> progressReporter;
 
 		// The PNG renderer asks for data scanline by scanline, but the BiomeDataOracle has better
@@ -169,6 +179,10 @@ public class BiomeExporter {
 		private int cachedY;
 		private int cachedHeight;
 
+		// The batch after the cached one, which is generated in the background.
+		private CompletableFuture<BiomeTile> nextBatch;
+		private int nextBatchY;
+
 		public CustomRenderedImage(
 				int worldX,
 				int worldY,
@@ -177,6 +191,7 @@ public class BiomeExporter {
 				BiomeProfileSelection biomeProfileSelection,
 				BiomeDataOracle biomeDataOracle,
 				boolean useQuarterResolution,
+				Executor prefetcher,
 				ProgressReporter<Entry<ProgressEntryType, Integer>> progressReporter) {
 			this.useQuarterResolution = useQuarterResolution;
 			this.resolutionFactor = Resolution.from(useQuarterResolution).getStep();
@@ -188,6 +203,7 @@ public class BiomeExporter {
 			this.sampleModel = new SinglePixelPackedSampleModel(DataBuffer.TYPE_INT, width, height, BITMASKS);
 			this.biomeProfileSelection = biomeProfileSelection;
 			this.biomeDataOracle = biomeDataOracle;
+			this.prefetcher = prefetcher;
 			this.progressReporter = progressReporter;
 			this.cachedHeight = DEFAULT_BATCH_HEIGHT;
 		}
@@ -235,13 +251,18 @@ public class BiomeExporter {
 
 			// New batch, calculate the new pixels
 			if (rect.y < cachedY || rect.y >= cachedY + cachedHeight) {
-				CoordinatesInWorld corner = CoordinatesInWorld.from((long) worldX + rect.x * resolutionFactor, (long) worldY + rect.y * resolutionFactor);
-				biomeDataOracle.getBiomeData(corner, getWidth(), cachedHeight, useQuarterResolution, data -> {
+				BiomeTile batch = takeBatch(rect.y);
+				if (batch != null) {
+					int[] data = batch.getData();
 					for (int i = 0; i < cachedPixels.length; i++) {
-						cachedPixels[i] = biomeProfileSelection.getBiomeColorOrUnknown(data[i]).getRGB();
+						cachedPixels[i] = biomeProfileSelection.getRGBOrUnknown(data[i]);
 					}
-				});
+				}
 				cachedY = rect.y;
+				if (rect.y + cachedHeight < getHeight()) {
+					nextBatchY = rect.y + cachedHeight;
+					nextBatch = requestBatch(nextBatchY);
+				}
 			}
 
 			int bufSize = Math.multiplyExact(getWidth(), rect.height);
@@ -253,6 +274,36 @@ public class BiomeExporter {
 			return r;
 		}
 
+		private CompletableFuture<BiomeTile> requestBatch(int y) {
+			CoordinatesInWorld corner = CoordinatesInWorld.from((long) worldX, (long) worldY + y * resolutionFactor);
+			return biomeDataOracle.getBiomeTileAsync(corner, getWidth(), cachedHeight, useQuarterResolution, prefetcher);
+		}
+
+		private BiomeTile takeBatch(int y) {
+			CompletableFuture<BiomeTile> batch;
+			if (nextBatch != null && nextBatchY == y) {
+				batch = nextBatch;
+			} else {
+				if (nextBatch != null) {
+					nextBatch.cancel(false);
+				}
+				batch = requestBatch(y);
+			}
+			nextBatch = null;
+
+			try {
+				return batch.get();
+			} catch (ExecutionException e) {
+				AmidstLogger.error(e.getCause());
+				AmidstMessageBox.displayError("Error", e.getCause());
+				return null;
+			} catch (InterruptedException e) {
+				batch.cancel(false);
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
+
 		@Override
 		public Raster getData() {
 			throw new UnsupportedOperationException();
@@ -377,7 +377,7 @@ public class BiomeExporterDialog {
 						// we use imgY instead of (previewImage.getHeight() - imgY - 1) to mirror the y axis
 						int imgidx = imgY * previewImage.getWidth() + imgX;
 						Biome biome = biomeDataOracle.getBiomeAt(worldX, worldY, !fullResCheckBox.isSelected());
-						pixels[imgidx] = biomeProfileSelection.getBiomeColorOrUnknown(biome.getId()).getRGB();
+						pixels[imgidx] = biomeProfileSelection.getRGBOrUnknown(biome.getId());
 					}
 				}
 
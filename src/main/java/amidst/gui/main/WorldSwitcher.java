@@ -101,8 +101,7 @@ public class WorldSwitcher {
 
 	@CalledOnlyBy(AmidstThread.EDT)
 	private void clearViewerFacade() {
-		threadMaster.clearOnRepaintTick();
-		threadMaster.clearOnFragmentLoadTick();
+		threadMaster.clearOnRepaint();
 		ViewerFacade viewerFacade = mainWindow.getViewerFacade();
 		if (viewerFacade != null) {
 			mainWindow.setViewerFacade(null);
@@ -121,6 +120,7 @@ public class WorldSwitcher {
 					fragmentManager,
 					zoom,
 					threadMaster.getWorkerExecutor(),
+					threadMaster::requestRepaint,
 					biomeExporterDialog,
 					layerBuilder,
 					biomeSelection,
@@ -153,8 +153,7 @@ public class WorldSwitcher {
 		mainWindow.getMenuBar().set(viewerFacade);
 		frame.validate();
 		viewerFacade.loadPlayers();
-		threadMaster.setOnRepaintTick(viewerFacade.getOnRepainterTick());
-		threadMaster.setOnFragmentLoadTick(viewerFacade.getOnFragmentLoaderTick());
+		threadMaster.setOnRepaint(viewerFacade.getOnRepaint());
 		mainWindow.setViewerFacade(viewerFacade);
 	}
 
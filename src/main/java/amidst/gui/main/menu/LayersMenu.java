@@ -33,7 +33,10 @@ public class LayersMenu {
 		this.menu = menu;
 		this.settings = settings;
 		this.dimensionSetting = settings.dimension
-				.withListener((oldValue, newValue) -> this.createMenu(newValue));
+				.withListener((oldValue, newValue) -> {
+					this.createMenu(newValue);
+					this.onLayerSettingChanged();
+				});
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
@@ -101,8 +104,8 @@ public class LayersMenu {
 	@CalledOnlyBy(AmidstThread.EDT)
 	private void createAllDimensions() {
 		// @formatter:off
-		Menus.checkbox(menu, settings.showGrid,           "Grid",                   getIcon("grid.png"),            MenuShortcuts.SHOW_GRID);
-		Menus.checkbox(menu, settings.showPlayers,        "Player Icons",           getIcon("player.png"),          MenuShortcuts.SHOW_PLAYERS);
+		Menus.checkbox(menu, layerSetting(settings.showGrid),    "Grid",            getIcon("grid.png"),            MenuShortcuts.SHOW_GRID);
+		Menus.checkbox(menu, layerSetting(settings.showPlayers), "Player Icons",    getIcon("player.png"),          MenuShortcuts.SHOW_PLAYERS);
 		// @formatter:on
 	}
 
@@ -136,7 +139,20 @@ public class LayersMenu {
 			MenuShortcut menuShortcut,
 			Dimension dimension,
 			int layerId) {
-		return  Menus.checkbox(menu, setting, text, icon, menuShortcut);
+		return  Menus.checkbox(menu, layerSetting(setting), text, icon, menuShortcut);
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private Setting<Boolean> layerSetting(Setting<Boolean> setting) {
+		return setting.withListener((oldValue, newValue) -> onLayerSettingChanged());
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void onLayerSettingChanged() {
+		ViewerFacade viewerFacade = this.viewerFacade;
+		if (viewerFacade != null) {
+			viewerFacade.onLayerSettingChanged();
+		}
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
@@ -2,6 +2,7 @@ package amidst.gui.main.viewer;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import amidst.documentation.ThreadSafe;
 
@@ -12,6 +13,7 @@ public class BiomeSelection {
 	private final AtomicBoolean unknownBiomesSelected = new AtomicBoolean(false);
 	private final AtomicBoolean isHighlightMode = new AtomicBoolean(false);
 	private final AtomicBoolean shouldWidgetBeVisible = new AtomicBoolean(false);
+	private final AtomicInteger version = new AtomicInteger();
 
 	public BiomeSelection() {
 	}
@@ -47,16 +49,29 @@ public class BiomeSelection {
 	}
 
 	public boolean toggle(int id) {
-		return toggle(getSelected(id));
+		boolean result = toggle(getSelected(id));
+		version.incrementAndGet();
+		return result;
 	}
 
 	private void setAll(boolean value) {
 		selectedBiomes.clear();
 		unknownBiomesSelected.set(value);
+		version.incrementAndGet();
 	}
 
 	public boolean toggleHighlightMode() {
-		return toggle(isHighlightMode);
+		boolean result = toggle(isHighlightMode);
+		version.incrementAndGet();
+		return result;
+	}
+
+	/**
+	 * The version is incremented after every change that affects the result
+	 * of {@link #isVisible(int)}, so the result can be cached.
+	 */
+	public int getVersion() {
+		return version.get();
 	}
 
 	public boolean isHighlightMode() {
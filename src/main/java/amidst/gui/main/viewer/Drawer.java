@@ -4,12 +4,14 @@ import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.TexturePaint;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import java.util.List;
 
 import amidst.ResourceLoader;
@@ -24,6 +26,14 @@ import amidst.gui.main.viewer.widget.Widget;
 import amidst.mojangapi.world.Dimension;
 import amidst.settings.Setting;
 
+/**
+ * The map is drawn to an image in video memory, which is drawn to the screen
+ * together with the border and the widgets. The map is only drawn again when
+ * it changed, e.g. because it was moved or zoomed, a fragment was loaded or a
+ * layer was toggled. So moving the mouse over the map only draws the widgets
+ * again. As long as something is animated, another repaint is requested after
+ * each frame.
+ */
 @NotThreadSafe
 public class Drawer {
 	private static final BufferedImage DROP_SHADOW_BOTTOM_LEFT = ResourceLoader
@@ -55,6 +65,7 @@ public class Drawer {
 	private final Iterable<FragmentDrawer> drawers;
 	private final Setting<Dimension> dimensionSetting;
 	private final Graphics2DAccelerationCounter accelerationCounter;
+	private final Runnable requestRepaint;
 	private final TexturePaint voidTexturePaint;
 
 	private Graphics2D g2d;
@@ -65,6 +76,12 @@ public class Drawer {
 
 	private long lastTime = System.currentTimeMillis();
 	private float time;
+	private boolean isBatchDrawingAllowed;
+	private boolean isAnimating;
+
+	private VolatileImage mapImage;
+	private boolean isMapImageValid;
+	private long mapSignature;
 
 	@CalledOnlyBy(AmidstThread.EDT)
 	public Drawer(
@@ -75,7 +92,8 @@ public class Drawer {
 			List<Widget> widgets,
 			Iterable<FragmentDrawer> drawers,
 			Setting<Dimension> dimensionSetting,
-			Graphics2DAccelerationCounter accelerationCounter) {
+			Graphics2DAccelerationCounter accelerationCounter,
+			Runnable requestRepaint) {
 		this.graph = graph;
 		this.translator = translator;
 		this.zoom = zoom;
@@ -84,6 +102,7 @@ public class Drawer {
 		this.drawers = drawers;
 		this.dimensionSetting = dimensionSetting;
 		this.accelerationCounter = accelerationCounter;
+		this.requestRepaint = requestRepaint;
 		this.voidTexturePaint = new TexturePaint(
 				VOID_TEXTURE,
 				new Rectangle(0, 0, VOID_TEXTURE.getWidth(), VOID_TEXTURE.getHeight()));
@@ -102,6 +121,8 @@ public class Drawer {
 		this.mousePosition = mousePosition;
 		this.widgetFontMetrics = widgetFontMetrics;
 		this.time = 0;
+		// the screenshot is not drawn to the screen, so video memory does not help
+		this.isBatchDrawingAllowed = false;
 		updateTranslator();
 		clear();
 		drawFragments();
@@ -121,13 +142,30 @@ public class Drawer {
 		this.mousePosition = mousePosition;
 		this.widgetFontMetrics = widgetFontMetrics;
 		this.time = calculateTimeSpanSinceLastDrawInSeconds();
+		this.isBatchDrawingAllowed = true;
+		this.isAnimating = false;
 		updateZoom();
 		updateMovement();
 		updateTranslator();
-		clear();
-		drawFragments();
+		drawMap();
 		drawBorder();
 		drawWidgets();
+		if (isAnimating) {
+			requestRepaint.run();
+		}
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	public void dispose() {
+		flushMapImage();
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void flushMapImage() {
+		if (mapImage != null) {
+			mapImage.flush();
+			mapImage = null;
+		}
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
@@ -141,11 +179,13 @@ public class Drawer {
 	@CalledOnlyBy(AmidstThread.EDT)
 	private void updateZoom() {
 		zoom.update(translator);
+		isAnimating |= zoom.isFading();
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
 	private void updateMovement() {
 		movement.update(translator, mousePosition);
+		isAnimating |= movement.isMoving();
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
@@ -153,6 +193,102 @@ public class Drawer {
 		translator.update(viewerWidth, viewerHeight);
 	}
 
+	/**
+	 * The image has the size of the viewer in device pixels, so the map is
+	 * not blurred on screens which scale the user interface.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void drawMap() {
+		if (viewerWidth <= 0 || viewerHeight <= 0) {
+			return;
+		}
+		AffineTransform transform = g2d.getTransform();
+		double scaleX = transform.getScaleX();
+		double scaleY = transform.getScaleY();
+		validateMapImage(g2d.getDeviceConfiguration(), (int) Math.ceil(viewerWidth * scaleX), (int) Math.ceil(viewerHeight * scaleY));
+		boolean isAnyFragmentFading = isAnyFragmentFading();
+		if (!isMapImageValid || isAnyFragmentFading || getMapSignature() != mapSignature) {
+			renderMap(scaleX, scaleY);
+			isMapImageValid = true;
+			isAnimating |= isAnyFragmentFading;
+		}
+		g2d.drawImage(mapImage, 0, 0, viewerWidth, viewerHeight, null);
+		if (mapImage.contentsLost()) {
+			isMapImageValid = false;
+			isAnimating = true;
+		}
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void validateMapImage(GraphicsConfiguration configuration, int width, int height) {
+		int validation = VolatileImage.IMAGE_INCOMPATIBLE;
+		if (mapImage != null && mapImage.getWidth() == width && mapImage.getHeight() == height) {
+			validation = mapImage.validate(configuration);
+		}
+		if (validation == VolatileImage.IMAGE_INCOMPATIBLE) {
+			flushMapImage();
+			mapImage = configuration.createCompatibleVolatileImage(width, height);
+		}
+		if (validation != VolatileImage.IMAGE_OK) {
+			isMapImageValid = false;
+		}
+	}
+
+	/**
+	 * The signature is taken after the map was drawn, because drawing the map
+	 * updates the alpha values of the fragments.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void renderMap(double scaleX, double scaleY) {
+		Graphics2D screenGraphics = g2d;
+		g2d = mapImage.createGraphics();
+		g2d.scale(scaleX, scaleY);
+		clear();
+		drawFragments();
+		g2d.dispose();
+		g2d = screenGraphics;
+		mapSignature = getMapSignature();
+	}
+
+	/**
+	 * The alpha values are only updated while the map is drawn, so the map
+	 * cannot be reused while a fragment fades in.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	private boolean isAnyFragmentFading() {
+		for (FragmentGraphItem fragmentGraphItem : graph) {
+			Fragment fragment = fragmentGraphItem.getFragment();
+			if (fragment.getState().equals(Fragment.State.LOADED) && fragment.getAlpha() < 1.0f) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A hash of everything the map depends on. The widgets are not part of it,
+	 * because they are drawn on top of the map.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	private long getMapSignature() {
+		long result = Double.doubleToLongBits(translator.getLeftOnScreen());
+		result = 31 * result + Double.doubleToLongBits(translator.getTopOnScreen());
+		result = 31 * result + Double.doubleToLongBits(zoom.getCurrentValue());
+		result = 31 * result + dimensionSetting.get().ordinal();
+		result = 31 * result + graph.getFragmentsPerRow();
+		for (FragmentDrawer drawer : drawers) {
+			result = 31 * result + Boolean.hashCode(drawer.isEnabled());
+			result = 31 * result + drawer.getDrawingStateHash();
+		}
+		for (FragmentGraphItem fragmentGraphItem : graph) {
+			Fragment fragment = fragmentGraphItem.getFragment();
+			result = 31 * result + System.identityHashCode(fragment);
+			result = 31 * result + fragment.getSnapshotVersion();
+			result = 31 * result + Float.floatToIntBits(fragment.getAlpha());
+		}
+		return result;
+	}
+
 	@CalledOnlyBy(AmidstThread.EDT)
 	private void clear() {
 		if (dimensionSetting.get().equals(Dimension.END)) {
@@ -195,6 +331,13 @@ public class Drawer {
 		for (FragmentDrawer drawer : drawers) {
 			if (drawer.isEnabled()) {
 				initLayerMatrix();
+				if (isBatchDrawingAllowed) {
+					setAlphaComposite(1.0f);
+					g2d.setTransform(layerMatrix);
+					if (drawer.drawAll(graph, g2d, time)) {
+						continue;
+					}
+				}
 				for (FragmentGraphItem fragmentGraphItem : graph) {
 					Fragment fragment = fragmentGraphItem.getFragment();
 					if (drawer.isDrawUnloaded()) {
@@ -263,6 +406,7 @@ public class Drawer {
 				setAlphaComposite(widget.getAlpha());
 				widget.draw(g2d);
 			}
+			isAnimating |= widget.isAnimating();
 		}
 	}
 
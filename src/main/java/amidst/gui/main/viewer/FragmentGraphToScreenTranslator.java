@@ -9,14 +9,36 @@ import amidst.fragment.Fragment;
 import amidst.fragment.FragmentGraph;
 import amidst.mojangapi.world.coordinates.CoordinatesInWorld;
 
+/**
+ * While the map is moving, the fragment graph is extended beyond the screen in
+ * the direction of the movement, so the fragments are already loaded when
+ * they become visible. Since they are outside of the screen, they are loaded
+ * after the visible fragments. The number of prefetched fragments is limited
+ * by the number of available fragments in the cache, so prefetching never
+ * grows the cache.
+ */
 @NotThreadSafe
 public class FragmentGraphToScreenTranslator {
+	private static final int MAX_PREFETCHED_FRAGMENTS = 4;
+	/**
+	 * This is roughly the distance the map glides after the mouse was
+	 * released, when smooth scrolling is enabled.
+	 */
+	private static final int PREFETCH_LOOKAHEAD_FRAMES = 20;
+
 	private final FragmentGraph graph;
 	private final Zoom zoom;
 
 	private double leftOnScreen;
 	private double topOnScreen;
 
+	private int movementX;
+	private int movementY;
+	private int prefetchLeft;
+	private int prefetchAbove;
+	private int prefetchRight;
+	private int prefetchBelow;
+
 	private int viewerWidth;
 	private int viewerHeight;
 
@@ -34,6 +56,13 @@ public class FragmentGraphToScreenTranslator {
 		this.viewerHeight = viewerHeight;
 		centerOnOriginIfNecessary();
 		adjustNumberOfRowsAndColumns();
+		updateLoadingFocus();
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void updateLoadingFocus() {
+		CoordinatesInWorld center = screenToWorld(new Point(viewerWidth >> 1, viewerHeight >> 1));
+		graph.setLoadingFocus(center, zoom.screenToWorld(viewerWidth / 2.0), zoom.screenToWorld(viewerHeight / 2.0));
 	}
 
 	private void centerOnOriginIfNecessary() {
@@ -46,8 +75,11 @@ public class FragmentGraphToScreenTranslator {
 	@CalledOnlyBy(AmidstThread.EDT)
 	private void adjustNumberOfRowsAndColumns() {
 		double fragmentSizeOnScreen = zoom.worldToScreen(Fragment.SIZE);
-		int desiredFragmentsPerRow = (int) (viewerWidth / fragmentSizeOnScreen + 2);
-		int desiredFragmentsPerColumn = (int) (viewerHeight / fragmentSizeOnScreen + 2);
+		int visibleFragmentsPerRow = (int) (viewerWidth / fragmentSizeOnScreen + 2);
+		int visibleFragmentsPerColumn = (int) (viewerHeight / fragmentSizeOnScreen + 2);
+		updatePrefetch(fragmentSizeOnScreen, visibleFragmentsPerRow, visibleFragmentsPerColumn);
+		int desiredFragmentsPerRow = visibleFragmentsPerRow + prefetchLeft + prefetchRight;
+		int desiredFragmentsPerColumn = visibleFragmentsPerColumn + prefetchAbove + prefetchBelow;
 		int newColumns = desiredFragmentsPerRow - graph.getFragmentsPerRow();
 		int newRows = desiredFragmentsPerColumn - graph.getFragmentsPerColumn();
 		int newLeft = getNewLeft(fragmentSizeOnScreen);
@@ -58,21 +90,64 @@ public class FragmentGraphToScreenTranslator {
 		adjustTopLeftOnScreen(fragmentSizeOnScreen * -newLeft, fragmentSizeOnScreen * -newAbove);
 	}
 
+	/**
+	 * The map moves to the right, when the user drags it to the right. In
+	 * that case, the fragments to the left of the screen will become visible
+	 * next.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	private void updatePrefetch(double fragmentSizeOnScreen, int visibleFragmentsPerRow, int visibleFragmentsPerColumn) {
+		int columns = getPrefetchedFragments(movementX, fragmentSizeOnScreen);
+		int rows = getPrefetchedFragments(movementY, fragmentSizeOnScreen);
+		if (columns > 0 || rows > 0) {
+			int budget = graph.getAvailableFragments() + getPrefetchCost(
+					visibleFragmentsPerRow,
+					visibleFragmentsPerColumn,
+					prefetchLeft + prefetchRight,
+					prefetchAbove + prefetchBelow);
+			while (getPrefetchCost(visibleFragmentsPerRow, visibleFragmentsPerColumn, columns, rows) > budget) {
+				if (columns > rows) {
+					columns--;
+				} else {
+					rows--;
+				}
+			}
+		}
+		prefetchLeft = movementX > 0 ? columns : 0;
+		prefetchRight = movementX < 0 ? columns : 0;
+		prefetchAbove = movementY > 0 ? rows : 0;
+		prefetchBelow = movementY < 0 ? rows : 0;
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private int getPrefetchedFragments(int movement, double fragmentSizeOnScreen) {
+		double distance = Math.abs(movement) * PREFETCH_LOOKAHEAD_FRAMES;
+		return Math.min(MAX_PREFETCHED_FRAGMENTS, (int) Math.ceil(distance / fragmentSizeOnScreen));
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	private int getPrefetchCost(int visibleFragmentsPerRow, int visibleFragmentsPerColumn, int columns, int rows) {
+		return (visibleFragmentsPerRow + columns) * (visibleFragmentsPerColumn + rows)
+				- visibleFragmentsPerRow * visibleFragmentsPerColumn;
+	}
+
 	@CalledOnlyBy(AmidstThread.EDT)
 	private int getNewLeft(double fragmentSizeOnScreen) {
-		if (leftOnScreen > 0) {
-			return (int) (leftOnScreen / fragmentSizeOnScreen) + 1;
+		double left = leftOnScreen + prefetchLeft * fragmentSizeOnScreen;
+		if (left > 0) {
+			return (int) (left / fragmentSizeOnScreen) + 1;
 		} else {
-			return (int) (leftOnScreen / fragmentSizeOnScreen);
+			return (int) (left / fragmentSizeOnScreen);
 		}
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
 	private int getNewAbove(double fragmentSizeOnScreen) {
-		if (topOnScreen > 0) {
-			return (int) (topOnScreen / fragmentSizeOnScreen) + 1;
+		double top = topOnScreen + prefetchAbove * fragmentSizeOnScreen;
+		if (top > 0) {
+			return (int) (top / fragmentSizeOnScreen) + 1;
 		} else {
-			return (int) (topOnScreen / fragmentSizeOnScreen);
+			return (int) (top / fragmentSizeOnScreen);
 		}
 	}
 
@@ -90,6 +165,8 @@ public class FragmentGraphToScreenTranslator {
 
 	@CalledOnlyBy(AmidstThread.EDT)
 	public void adjustToMovement(int deltaX, int deltaY) {
+		this.movementX = deltaX;
+		this.movementY = deltaY;
 		adjustTopLeftOnScreen(deltaX, deltaY);
 	}
 
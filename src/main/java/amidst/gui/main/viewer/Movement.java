@@ -12,6 +12,7 @@ public class Movement {
 	private double speedX = 0;
 	private double speedY = 0;
 	private Point lastMouse;
+	private boolean isTranslatorMoving = false;
 
 	private final Setting<Boolean> smoothScrollingSetting;
 
@@ -43,7 +44,10 @@ public class Movement {
 
 	@CalledOnlyBy(AmidstThread.EDT)
 	private void adjustTranslator(FragmentGraphToScreenTranslator translator) {
-		translator.adjustToMovement((int) speedX, (int) speedY);
+		int deltaX = (int) speedX;
+		int deltaY = (int) speedY;
+		translator.adjustToMovement(deltaX, deltaY);
+		isTranslatorMoving = deltaX != 0 || deltaY != 0;
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
@@ -57,6 +61,17 @@ public class Movement {
 		}
 	}
 
+	/**
+	 * While the mouse is dragged, the mouse events cause the repaints, so this
+	 * is only true while the map keeps moving on its own. It stays true for
+	 * one more frame after the map stopped, so the translator gets a zero
+	 * movement and stops prefetching fragments in the previous direction.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	public boolean isMoving() {
+		return (int) speedX != 0 || (int) speedY != 0 || isTranslatorMoving;
+	}
+
 	@CalledOnlyBy(AmidstThread.EDT)
 	public void setLastMouse(Point lastMouse) {
 		this.lastMouse = lastMouse;
@@ -1,10 +1,15 @@
 package amidst.gui.main.viewer;
 
+import java.awt.AWTEvent;
 import java.awt.Component;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.Toolkit;
+import java.awt.event.AWTEventListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 
 import javax.swing.JComponent;
@@ -33,6 +38,11 @@ public class Viewer {
 			drawer.draw(g2d, getWidth(), getHeight(), getMousePositionOrNull(), widgetFontMetrics);
 		}
 
+		@CalledOnlyBy(AmidstThread.EDT)
+		public void dispose() {
+			drawer.dispose();
+		}
+
 		@CalledOnlyBy(AmidstThread.EDT)
 		public BufferedImage createScreenshot() {
 			int width = getWidth();
@@ -60,13 +70,29 @@ public class Viewer {
 		}
 	}
 
+	/**
+	 * The map is only repainted when something changed. Clicks, key strokes
+	 * and the mouse wheel can change the map or the widgets, even when they
+	 * are used in a menu or dialog, so each of them causes a repaint. Moving
+	 * the mouse only causes a repaint when it moves over the map, e.g. to
+	 * update the cursor information.
+	 */
+	private static final long REPAINTING_INPUT_EVENTS = AWTEvent.MOUSE_EVENT_MASK
+			| AWTEvent.MOUSE_WHEEL_EVENT_MASK
+			| AWTEvent.KEY_EVENT_MASK;
+
 	private final ViewerMouseListener mouseListener;
+	private final Runnable requestRepaint;
+	private final AWTEventListener inputListener;
 	private final ViewerComponent component;
 
 	@CalledOnlyBy(AmidstThread.EDT)
-	public Viewer(ViewerMouseListener mouseListener, Drawer drawer) {
+	public Viewer(ViewerMouseListener mouseListener, Drawer drawer, Runnable requestRepaint) {
 		this.mouseListener = mouseListener;
+		this.requestRepaint = requestRepaint;
+		this.inputListener = event -> requestRepaint.run();
 		this.component = createComponent(drawer);
+		Toolkit.getDefaultToolkit().addAWTEventListener(inputListener, REPAINTING_INPUT_EVENTS);
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
@@ -74,10 +100,34 @@ public class Viewer {
 		ViewerComponent result = new ViewerComponent(drawer);
 		result.addMouseListener(mouseListener);
 		result.addMouseWheelListener(mouseListener);
+		result.addMouseMotionListener(createMouseMotionListener());
 		result.setFocusable(true);
 		return result;
 	}
 
+	@CalledOnlyBy(AmidstThread.EDT)
+	private MouseAdapter createMouseMotionListener() {
+		return new MouseAdapter() {
+			@CalledOnlyBy(AmidstThread.EDT)
+			@Override
+			public void mouseMoved(MouseEvent e) {
+				requestRepaint.run();
+			}
+
+			@CalledOnlyBy(AmidstThread.EDT)
+			@Override
+			public void mouseDragged(MouseEvent e) {
+				requestRepaint.run();
+			}
+		};
+	}
+
+	@CalledOnlyBy(AmidstThread.EDT)
+	public void dispose() {
+		Toolkit.getDefaultToolkit().removeAWTEventListener(inputListener);
+		component.dispose();
+	}
+
 	@CalledOnlyBy(AmidstThread.EDT)
 	public BufferedImage createScreenshot() {
 		return component.createScreenshot();
@@ -7,6 +7,7 @@ import amidst.documentation.NotThreadSafe;
 import amidst.fragment.FragmentGraph;
 import amidst.fragment.FragmentManager;
 import amidst.fragment.FragmentQueueProcessor;
+import amidst.fragment.drawer.FragmentDrawer;
 import amidst.fragment.layer.LayerBuilder;
 import amidst.fragment.layer.LayerManager;
 import amidst.fragment.layer.LayerReloader;
@@ -47,6 +48,7 @@ public class ViewerFacade {
 	private final WorldIconSelection worldIconSelection;
 	private final LayerManager layerManager;
 	private final WorkerExecutor workerExecutor;
+	private final Runnable requestRepaint;
 	private final BiomeExporterDialog biomeExporterDialog;
 	private final FragmentQueueProcessor fragmentQueueProcessor;
 	private final AtomicReference<Entry<ProgressEntryType, Integer>> progressEntryHolder;
@@ -58,6 +60,7 @@ public class ViewerFacade {
 			FragmentManager fragmentManager,
 			Zoom zoom,
 			WorkerExecutor workerExecutor,
+			Runnable requestRepaint,
 			BiomeExporterDialog biomeExporterDialog,
 			LayerBuilder layerBuilder,
 			BiomeSelection biomeSelection,
@@ -66,6 +69,7 @@ public class ViewerFacade {
 		this.fragmentManager = fragmentManager;
 		this.zoom = zoom;
 		this.workerExecutor = workerExecutor;
+		this.requestRepaint = requestRepaint;
 		this.biomeExporterDialog = biomeExporterDialog;
 
 		Graphics2DAccelerationCounter accelerationCounter = new Graphics2DAccelerationCounter();
@@ -75,11 +79,11 @@ public class ViewerFacade {
 		this.layerManager = layerBuilder.create(settings, world, biomeSelection, worldIconSelection, zoom, accelerationCounter);
 		this.graph = new FragmentGraph(layerManager.getDeclarations(), fragmentManager);
 		this.translator = new FragmentGraphToScreenTranslator(graph, zoom);
-		this.fragmentQueueProcessor = fragmentManager.createQueueProcessor(layerManager, settings.dimension);
+		this.fragmentQueueProcessor = fragmentManager.createQueueProcessor(layerManager, settings.dimension, requestRepaint);
 		this.layerReloader = layerManager.createLayerReloader(world);
 		this.progressEntryHolder = new AtomicReference<Entry<ProgressEntryType, Integer>>();
 
-		DebugWidget debugWidget = new DebugWidget(Widget.CornerAnchorPoint.BOTTOM_RIGHT, graph, fragmentManager, settings.showDebug, accelerationCounter, zoom);
+		DebugWidget debugWidget = new DebugWidget(Widget.CornerAnchorPoint.BOTTOM_RIGHT, graph, fragmentManager, settings.showDebug, accelerationCounter, zoom, world.getBiomeSampleCache());
 		BiomeWidget biomeWidget = new BiomeWidget(Widget.CornerAnchorPoint.NONE, biomeSelection, layerReloader, settings.biomeProfileSelection, world.getBiomeList());
 		BiomeToggleWidget biomeToggleWidget = new BiomeToggleWidget(Widget.CornerAnchorPoint.BOTTOM_RIGHT, biomeWidget, biomeSelection);
 		WorldOptions worldOptions = world.getWorldOptions();
@@ -103,10 +107,11 @@ public class ViewerFacade {
 				widgets,
 				layerManager.getDrawers(),
 				settings.dimension,
-				accelerationCounter);
+				accelerationCounter,
+				requestRepaint);
 
 		ViewerMouseListener viewerMouseListener = new ViewerMouseListener(new WidgetManager(widgets), graph, translator, zoom, movement, actions);
-		this.viewer = new Viewer(viewerMouseListener, drawer);
+		this.viewer = new Viewer(viewerMouseListener, drawer, requestRepaint);
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
@@ -126,7 +131,11 @@ public class ViewerFacade {
 
 	@CalledOnlyBy(AmidstThread.EDT)
 	public void dispose() {
+		viewer.dispose();
 		graph.dispose();
+		for (FragmentDrawer drawer : layerManager.getDrawers()) {
+			drawer.dispose();
+		}
 		zoom.skipFading();
 		zoom.reset();
 		fragmentManager.clear();
@@ -134,13 +143,19 @@ public class ViewerFacade {
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
-	public Runnable getOnRepainterTick() {
+	public Runnable getOnRepaint() {
 		return viewer::repaintComponent;
 	}
 
+	/**
+	 * Needs to be called when a setting was changed which affects the layers,
+	 * like the visibility of a layer or the dimension, so the fragment workers
+	 * can load the layers which became visible and the map is repainted.
+	 */
 	@CalledOnlyBy(AmidstThread.EDT)
-	public Runnable getOnFragmentLoaderTick() {
-		return fragmentQueueProcessor::processQueues;
+	public void onLayerSettingChanged() {
+		fragmentQueueProcessor.signal();
+		requestRepaint.run();
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
@@ -232,7 +247,10 @@ public class ViewerFacade {
 
 	@CalledOnlyBy(AmidstThread.EDT)
 	public void openExportDialog() {
-		biomeExporterDialog.createAndShow(world, translator, progressEntryHolder::set);
+		biomeExporterDialog.createAndShow(world, translator, progressEntry -> {
+			progressEntryHolder.set(progressEntry);
+			requestRepaint.run();
+		});
 	}
 
 	public boolean isFullyLoaded() {
@@ -80,6 +80,11 @@ public class Zoom {
 		return current;
 	}
 
+	@CalledOnlyBy(AmidstThread.EDT)
+	public boolean isFading() {
+		return remainingTicks > 0;
+	}
+
 	@CalledOnlyBy(AmidstThread.EDT)
 	public void skipFading() {
 		remainingTicks = 0;
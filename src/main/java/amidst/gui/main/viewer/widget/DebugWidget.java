@@ -10,6 +10,7 @@ import amidst.fragment.FragmentGraph;
 import amidst.fragment.FragmentManager;
 import amidst.gui.main.viewer.Graphics2DAccelerationCounter;
 import amidst.gui.main.viewer.Zoom;
+import amidst.mojangapi.minecraftinterface.BiomeSampleCache;
 import amidst.settings.Setting;
 
 @NotThreadSafe
@@ -19,6 +20,7 @@ public class DebugWidget extends TextWidget {
 	private final Setting<Boolean> isVisibleSetting;
 	private final Graphics2DAccelerationCounter accelerationCounter;
 	private final Zoom zoom;
+	private final BiomeSampleCache biomeSampleCache;
 
 	@CalledOnlyBy(AmidstThread.EDT)
 	public DebugWidget(
@@ -27,13 +29,15 @@ public class DebugWidget extends TextWidget {
 			FragmentManager fragmentManager,
 			Setting<Boolean> isVisibleSetting,
 			Graphics2DAccelerationCounter accelerationCounter,
-			Zoom zoom) {
+			Zoom zoom,
+			BiomeSampleCache biomeSampleCache) {
 		super(anchor);
 		this.graph = graph;
 		this.fragmentManager = fragmentManager;
 		this.isVisibleSetting = isVisibleSetting;
 		this.accelerationCounter = accelerationCounter;
 		this.zoom = zoom;
+		this.biomeSampleCache = biomeSampleCache;
 	}
 
 	@CalledOnlyBy(AmidstThread.EDT)
@@ -42,13 +46,24 @@ public class DebugWidget extends TextWidget {
 		if (isVisibleSetting.get()) {
 			int columns = graph.getFragmentsPerRow();
 			int rows = graph.getFragmentsPerColumn();
+			long hits = biomeSampleCache.getHits();
+			long misses = biomeSampleCache.getMisses();
+			long lookups = Math.max(1, hits + misses);
 			return Arrays.asList(
 					"Fragment Manager:",
 					"Cache Size: " + fragmentManager.getCacheSize(),
+					String.format("Cache Memory: %1$d / %2$d MB",
+							fragmentManager.getCacheSizeInBytes() >> 20,
+							fragmentManager.getCacheMemoryBudget() >> 20),
 					"Available Queue Size: " + fragmentManager.getAvailableQueueSize(),
 					"Loading Queue Size: " + fragmentManager.getLoadingQueueSize(),
 					"Recycle Queue Size: " + fragmentManager.getRecycleQueueSize(),
 					"",
+					"Biome Sample Cache:",
+					"Size: " + biomeSampleCache.getSize() + " chunks",
+					String.format("Hits: %1$d (%2$.1f%%)", hits, 100.0 * hits / lookups),
+					"Misses: " + misses,
+					"",
 					"Viewer:",
 					"Size: " + columns + "x" + rows + " [" + (columns * rows) + "]",
 					String.format("Pixel Scale: %1$.3fx", zoom.getCurrentValue() * 4),
@@ -37,6 +37,16 @@ public class FpsWidget extends TextWidget {
 		}, 0, 500);
 	}
 
+	/**
+	 * The framerate can only be measured while the map is repainted, so it is
+	 * repainted constantly while this widget is shown.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	@Override
+	public boolean isAnimating() {
+		return super.isAnimating() || isVisibleSetting.get();
+	}
+
 	@CalledOnlyBy(AmidstThread.EDT)
 	@Override
 	protected List<String> updateTextLines() {
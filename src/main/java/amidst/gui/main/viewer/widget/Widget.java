@@ -257,6 +257,15 @@ public abstract class Widget {
 		return targetAlpha != alpha;
 	}
 
+	/**
+	 * Returns true if this widget needs to be drawn again, even if nothing
+	 * else changed.
+	 */
+	@CalledOnlyBy(AmidstThread.EDT)
+	public boolean isAnimating() {
+		return isFading();
+	}
+
 	@CalledOnlyBy(AmidstThread.EDT)
 	public float getAlpha() {
 		return alpha;
@@ -0,0 +1,102 @@
+package amidst.mojangapi.minecraftinterface;
+
+import amidst.documentation.ThreadSafe;
+
+/**
+ * Maps Minecraft biome objects to their numerical ids, using the identity of
+ * the biome objects as keys. The underlying table is immutable once published,
+ * so lookups never lock; only a miss (which happens once per biome) needs to
+ * call back into Minecraft and publish a new table.
+ */
+@ThreadSafe
+public class BiomeIdCache {
+	@FunctionalInterface
+	public static interface IdGetter {
+		public int getId(Object biome) throws Throwable;
+	}
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final IdGetter idGetter;
+	private volatile Table table = new Table(INITIAL_CAPACITY);
+
+	public BiomeIdCache(IdGetter idGetter) {
+		this.idGetter = idGetter;
+	}
+
+	public int getId(Object biome) throws Throwable {
+		Table current = table;
+		int idx = current.indexOf(biome);
+		if (current.keys[idx] == biome) {
+			return current.ids[idx];
+		}
+		return addId(biome);
+	}
+
+	private synchronized int addId(Object biome) throws Throwable {
+		Table current = table;
+		int idx = current.indexOf(biome);
+		if (current.keys[idx] == biome) {
+			return current.ids[idx];
+		}
+
+		int id = idGetter.getId(biome);
+		Table next = current.copyWithRoomFor(current.size + 1);
+		next.put(biome, id);
+		table = next;
+		return id;
+	}
+
+	private static class Table {
+		private final Object[] keys;
+		private final int[] ids;
+		private final int mask;
+		private int size;
+
+		private Table(int capacity) {
+			this.keys = new Object[capacity];
+			this.ids = new int[capacity];
+			this.mask = capacity - 1;
+		}
+
+		/**
+		 * Returns the slot of the given key, or the empty slot where it would
+		 * be inserted.
+		 */
+		private int indexOf(Object key) {
+			int idx = mix(System.identityHashCode(key)) & mask;
+			while (keys[idx] != null && keys[idx] != key) {
+				idx = (idx + 1) & mask;
+			}
+			return idx;
+		}
+
+		private void put(Object key, int id) {
+			int idx = indexOf(key);
+			keys[idx] = key;
+			ids[idx] = id;
+			size++;
+		}
+
+		private Table copyWithRoomFor(int requiredSize) {
+			int capacity = keys.length;
+			// keep the load factor at or below one half
+			while (requiredSize * 2 > capacity) {
+				capacity *= 2;
+			}
+
+			Table copy = new Table(capacity);
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i] != null) {
+					copy.put(keys[i], ids[i]);
+				}
+			}
+			return copy;
+		}
+
+		private static int mix(int hash) {
+			hash *= 0x9E3779B9;
+			return hash ^ (hash >>> 16);
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package amidst.mojangapi.minecraftinterface;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+import amidst.documentation.ThreadSafe;
+import amidst.mojangapi.minecraftinterface.MinecraftInterface.WorldAccessor;
+import amidst.mojangapi.world.Dimension;
+import amidst.util.ArrayCache;
+
+/**
+ * Keeps the most recently generated quarter-resolution biome data in memory,
+ * split in square chunks of {@link #CHUNK_SIZE} samples. Large requests, like
+ * the ones made when loading a fragment, are always passed to the inner
+ * accessor and their result is stored in the cache. Small requests, like the
+ * ones made by the structure checks, are served from the cache if all the
+ * chunks they overlap are available. They are passed to the inner accessor
+ * otherwise, without populating the cache: generating a whole chunk to answer
+ * a single point query would cost more than it saves.
+ *
+ * The cache is split into independently locked stripes, so concurrent fragment
+ * workers rarely contend.
+ */
+@ThreadSafe
+public class BiomeSampleCache implements WorldAccessor {
+	public static final int CHUNK_SIZE = 16;
+
+	private static final int DEFAULT_MAX_CHUNKS = 16384;
+	private static final int MAX_CHUNKS_PER_LOOKUP = 16;
+	private static final int NUMBER_OF_STRIPES = 16;
+
+	private final WorldAccessor inner;
+	private final Stripe[] stripes;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	private final ArrayCache<int[]> dataArray = ArrayCache.makeIntArrayCache(CHUNK_SIZE * CHUNK_SIZE);
+
+	public BiomeSampleCache(WorldAccessor inner) {
+		this(inner, DEFAULT_MAX_CHUNKS);
+	}
+
+	public BiomeSampleCache(WorldAccessor inner, int maxChunks) {
+		this.inner = inner;
+		this.stripes = new Stripe[NUMBER_OF_STRIPES];
+		int maxChunksPerStripe = Math.max(1, maxChunks / NUMBER_OF_STRIPES);
+		for (int i = 0; i < stripes.length; i++) {
+			stripes[i] = new Stripe(maxChunksPerStripe);
+		}
+	}
+
+	@Override
+	public <T> T getBiomeData(Dimension dimension, int x, int y, int width, int height, boolean useQuarterResolution,
+			Function<int[], T> biomeDataMapper) throws MinecraftInterfaceException {
+		if (!useQuarterResolution) {
+			return inner.getBiomeData(dimension, x, y, width, height, useQuarterResolution, biomeDataMapper);
+		}
+
+		int chunksX = Math.floorDiv(x + width - 1, CHUNK_SIZE) - Math.floorDiv(x, CHUNK_SIZE) + 1;
+		int chunksY = Math.floorDiv(y + height - 1, CHUNK_SIZE) - Math.floorDiv(y, CHUNK_SIZE) + 1;
+		if (chunksX * chunksY > MAX_CHUNKS_PER_LOOKUP) {
+			return inner.getBiomeData(dimension, x, y, width, height, true, data -> {
+				store(dimension, x, y, width, height, i -> data[i]);
+				return biomeDataMapper.apply(data);
+			});
+		}
+
+		return dataArray.withArrayFaillible(width * height, data -> {
+			if (tryFillFromCache(dimension, x, y, width, height, data)) {
+				hits.increment();
+				return biomeDataMapper.apply(data);
+			}
+			misses.increment();
+			return inner.getBiomeData(dimension, x, y, width, height, true, biomeDataMapper);
+		});
+	}
+
+	@Override
+	public void getBiomeData(Dimension dimension, int x, int y, int width, int height, boolean useQuarterResolution,
+			short[] destination) throws MinecraftInterfaceException {
+		int chunksX = Math.floorDiv(x + width - 1, CHUNK_SIZE) - Math.floorDiv(x, CHUNK_SIZE) + 1;
+		int chunksY = Math.floorDiv(y + height - 1, CHUNK_SIZE) - Math.floorDiv(y, CHUNK_SIZE) + 1;
+		if (useQuarterResolution && chunksX * chunksY > MAX_CHUNKS_PER_LOOKUP) {
+			inner.getBiomeData(dimension, x, y, width, height, true, destination);
+			store(dimension, x, y, width, height, i -> destination[i]);
+		} else {
+			WorldAccessor.super.getBiomeData(dimension, x, y, width, height, useQuarterResolution, destination);
+		}
+	}
+
+	private boolean tryFillFromCache(Dimension dimension, int x, int y, int width, int height, int[] data) {
+		int firstChunkX = Math.floorDiv(x, CHUNK_SIZE);
+		int firstChunkY = Math.floorDiv(y, CHUNK_SIZE);
+		int lastChunkX = Math.floorDiv(x + width - 1, CHUNK_SIZE);
+		int lastChunkY = Math.floorDiv(y + height - 1, CHUNK_SIZE);
+
+		for (int chunkY = firstChunkY; chunkY <= lastChunkY; chunkY++) {
+			for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++) {
+				short[] chunk = get(dimension, chunkX, chunkY);
+				if (chunk == null) {
+					return false;
+				}
+
+				int chunkLeft = chunkX * CHUNK_SIZE;
+				int chunkTop = chunkY * CHUNK_SIZE;
+				int left = Math.max(x, chunkLeft);
+				int top = Math.max(y, chunkTop);
+				int right = Math.min(x + width, chunkLeft + CHUNK_SIZE);
+				int bottom = Math.min(y + height, chunkTop + CHUNK_SIZE);
+				for (int j = top; j < bottom; j++) {
+					int chunkRow = (j - chunkTop) * CHUNK_SIZE - chunkLeft;
+					int dataRow = (j - y) * width - x;
+					for (int i = left; i < right; i++) {
+						data[dataRow + i] = chunk[chunkRow + i];
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stores all the chunks which are entirely covered by the given data.
+	 */
+	private void store(Dimension dimension, int x, int y, int width, int height, IntUnaryOperator data) {
+		int firstChunkX = Math.floorDiv(x + CHUNK_SIZE - 1, CHUNK_SIZE);
+		int firstChunkY = Math.floorDiv(y + CHUNK_SIZE - 1, CHUNK_SIZE);
+		int lastChunkX = Math.floorDiv(x + width, CHUNK_SIZE) - 1;
+		int lastChunkY = Math.floorDiv(y + height, CHUNK_SIZE) - 1;
+
+		for (int chunkY = firstChunkY; chunkY <= lastChunkY; chunkY++) {
+			for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++) {
+				short[] chunk = copyChunk(data, width, chunkX * CHUNK_SIZE - x, chunkY * CHUNK_SIZE - y);
+				if (chunk != null) {
+					put(dimension, chunkX, chunkY, chunk);
+				}
+			}
+		}
+	}
+
+	private static short[] copyChunk(IntUnaryOperator data, int width, int offsetX, int offsetY) {
+		short[] chunk = new short[CHUNK_SIZE * CHUNK_SIZE];
+		for (int j = 0; j < CHUNK_SIZE; j++) {
+			int dataRow = (offsetY + j) * width + offsetX;
+			for (int i = 0; i < CHUNK_SIZE; i++) {
+				int biome = data.applyAsInt(dataRow + i);
+				if (biome != (short) biome) {
+					return null;
+				}
+				chunk[j * CHUNK_SIZE + i] = (short) biome;
+			}
+		}
+		return chunk;
+	}
+
+	private short[] get(Dimension dimension, int chunkX, int chunkY) {
+		long key = createKey(dimension, chunkX, chunkY);
+		Stripe stripe = getStripe(key);
+		synchronized (stripe) {
+			return stripe.chunks.get(key);
+		}
+	}
+
+	private void put(Dimension dimension, int chunkX, int chunkY, short[] chunk) {
+		long key = createKey(dimension, chunkX, chunkY);
+		Stripe stripe = getStripe(key);
+		synchronized (stripe) {
+			stripe.chunks.put(key, chunk);
+		}
+	}
+
+	private static long createKey(Dimension dimension, int chunkX, int chunkY) {
+		return ((long) dimension.ordinal() << 60)
+				| ((chunkX & 0x3FFFFFFFL) << 30)
+				| (chunkY & 0x3FFFFFFFL);
+	}
+
+	private Stripe getStripe(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return stripes[(int) (hash >>> 60) & (NUMBER_OF_STRIPES - 1)];
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public int getSize() {
+		int result = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				result += stripe.chunks.size();
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Set<Dimension> supportedDimensions() {
+		return inner.supportedDimensions();
+	}
+
+	private static class Stripe {
+		private final LinkedHashMap<Long, short[]> chunks;
+
+		private Stripe(int maxChunks) {
+			this.chunks = new LinkedHashMap<Long, short[]>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Long, short[]> eldest) {
+					return size() > maxChunks;
+				}
+			};
+		}
+	}
+}
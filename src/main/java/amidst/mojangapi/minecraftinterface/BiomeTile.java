@@ -0,0 +1,77 @@
+package amidst.mojangapi.minecraftinterface;
+
+import amidst.documentation.Immutable;
+import amidst.mojangapi.world.Dimension;
+
+/**
+ * The biome data of a rectangular area, as produced by
+ * {@link MinecraftInterface.WorldAccessor#getBiomeTileAsync}. Unlike the array
+ * passed to the callback of getBiomeData, the data array belongs to the tile
+ * and stays valid for as long as the tile is used. It is never modified after
+ * the tile was created.
+ */
+@Immutable
+public class BiomeTile {
+	private final Dimension dimension;
+	private final int x;
+	private final int y;
+	private final int width;
+	private final int height;
+	private final boolean useQuarterResolution;
+	private final int[] data;
+
+	public BiomeTile(
+			Dimension dimension,
+			int x,
+			int y,
+			int width,
+			int height,
+			boolean useQuarterResolution,
+			int[] data) {
+		this.dimension = dimension;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+		this.useQuarterResolution = useQuarterResolution;
+		this.data = data;
+	}
+
+	public Dimension getDimension() {
+		return dimension;
+	}
+
+	public int getX() {
+		return x;
+	}
+
+	public int getY() {
+		return y;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public boolean isQuarterResolution() {
+		return useQuarterResolution;
+	}
+
+	/**
+	 * The biome data in row-major order. The array must not be modified.
+	 */
+	public int[] getData() {
+		return data;
+	}
+
+	/**
+	 * The coordinates are relative to the top left corner of the tile.
+	 */
+	public int getBiomeAt(int x, int y) {
+		return data[y * width + x];
+	}
+}
@@ -0,0 +1,356 @@
+package amidst.mojangapi.minecraftinterface;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import amidst.documentation.ThreadSafe;
+import amidst.logging.AmidstLogger;
+import amidst.mojangapi.minecraftinterface.MinecraftInterface.WorldAccessor;
+import amidst.mojangapi.world.Dimension;
+import amidst.mojangapi.world.WorldOptions;
+import amidst.mojangapi.world.coordinates.Resolution;
+
+/**
+ * A persistent store of biome data, split in square tiles of
+ * {@link #TILE_SIZE} samples. At quarter resolution, a tile covers exactly one
+ * fragment. Each tile is stored as a deflate-compressed file. The tiles of a
+ * world are stored in a directory named after a hash of everything that
+ * affects the biome generation, including the tile format and the generator,
+ * so the same world always ends up in the same place. The total size of the
+ * store is capped, the least recently used tiles are deleted first.
+ */
+@ThreadSafe
+public class BiomeTileStore {
+	public static BiomeTileStore create(Path directory) {
+		if (directory == null) {
+			directory = DEFAULT_ROOT_DIRECTORY;
+		}
+		AmidstLogger.info("using biome tile cache at: '" + directory + "'");
+		return new BiomeTileStore(directory, DEFAULT_MAX_SIZE_IN_BYTES, true);
+	}
+
+	public static BiomeTileStore createDisabled() {
+		return new BiomeTileStore(DEFAULT_ROOT_DIRECTORY, DEFAULT_MAX_SIZE_IN_BYTES, false);
+	}
+
+	public static final int TILE_SIZE = Resolution.QUARTER.getStepsPerFragment();
+
+	private static final Path DEFAULT_ROOT_DIRECTORY = Paths.get("cache", "biomes");
+	private static final long DEFAULT_MAX_SIZE_IN_BYTES = 256L * 1024 * 1024;
+	private static final String TILE_FILE_EXTENSION = ".tile";
+	private static final int TILE_BYTES = TILE_SIZE * TILE_SIZE * Short.BYTES;
+
+	/**
+	 * Needs to be increased whenever the layout of the tile files changes.
+	 */
+	private static final int TILE_FORMAT_VERSION = 1;
+
+	private static class IndexEntry {
+		private final long sizeInBytes;
+		private boolean isTouched;
+
+		public IndexEntry(long sizeInBytes, boolean isTouched) {
+			this.sizeInBytes = sizeInBytes;
+			this.isTouched = isTouched;
+		}
+	}
+
+	private final Path root;
+	private final long maxSizeInBytes;
+	private final boolean isEnabled;
+
+	/**
+	 * All known tile files with their size, in least recently used order.
+	 */
+	private final LinkedHashMap<Path, IndexEntry> index = new LinkedHashMap<>(1024, 0.75f, true);
+	private boolean isIndexLoaded = false;
+	private long totalSizeInBytes = 0;
+
+	public BiomeTileStore(Path root, long maxSizeInBytes, boolean isEnabled) {
+		this.root = root;
+		this.maxSizeInBytes = maxSizeInBytes;
+		this.isEnabled = isEnabled;
+	}
+
+	/**
+	 * Returns a world accessor serving tile-aligned requests from this store.
+	 * The given accessor is returned unchanged if the store is disabled or if
+	 * the version is unknown, since we can't tell two unknown versions apart.
+	 *
+	 * @see MinecraftInterface#getGeneratorId()
+	 */
+	public WorldAccessor wrap(
+			WorldAccessor worldAccessor,
+			RecognisedVersion recognisedVersion,
+			String generatorId,
+			WorldOptions worldOptions) {
+		if (!isEnabled || !recognisedVersion.isKnown()) {
+			return worldAccessor;
+		}
+		return new TileStoreWorldAccessor(
+				worldAccessor,
+				this,
+				root.resolve(createWorldHash(recognisedVersion, generatorId, worldOptions)));
+	}
+
+	private static String createWorldHash(
+			RecognisedVersion recognisedVersion,
+			String generatorId,
+			WorldOptions worldOptions) {
+		String key = TILE_FORMAT_VERSION
+				+ "\n" + recognisedVersion.getName()
+				+ "\n" + generatorId
+				+ "\n" + worldOptions.getWorldSeed().getLong()
+				+ "\n" + worldOptions.getWorldType().getName()
+				+ "\n" + worldOptions.getGeneratorOptions();
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+			StringBuilder result = new StringBuilder();
+			for (int i = 0; i < 16; i++) {
+				result.append(String.format("%02x", digest[i]));
+			}
+			return result.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	static Path getTileFile(Path worldDirectory, Dimension dimension, boolean useQuarterResolution, int tileX, int tileY) {
+		String resolution = useQuarterResolution ? "quarter" : "full";
+		return worldDirectory
+				.resolve(dimension.name().toLowerCase())
+				.resolve(resolution)
+				.resolve(tileX + "_" + tileY + TILE_FILE_EXTENSION);
+	}
+
+	/**
+	 * Copies the tile into dest, starting at offset with the given row stride.
+	 * Returns false if the tile is not in the store.
+	 */
+	boolean read(Path file, int[] dest, int offset, int stride) {
+		ShortBuffer tile = readTile(file);
+		if (tile == null) {
+			return false;
+		}
+		for (int j = 0; j < TILE_SIZE; j++) {
+			int rowOffset = offset + j * stride;
+			for (int i = 0; i < TILE_SIZE; i++) {
+				dest[rowOffset + i] = tile.get();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Like {@link #read(Path, int[], int, int)}, but without widening the
+	 * stored biome ids.
+	 */
+	boolean read(Path file, short[] dest, int offset, int stride) {
+		ShortBuffer tile = readTile(file);
+		if (tile == null) {
+			return false;
+		}
+		for (int j = 0; j < TILE_SIZE; j++) {
+			tile.get(dest, offset + j * stride, TILE_SIZE);
+		}
+		return true;
+	}
+
+	private ShortBuffer readTile(Path file) {
+		boolean isFirstRead;
+		synchronized (this) {
+			loadIndexIfNeeded();
+			IndexEntry entry = index.get(file);
+			if (entry == null) {
+				return null;
+			}
+			isFirstRead = !entry.isTouched;
+			entry.isTouched = true;
+		}
+
+		try {
+			byte[] compressed = Files.readAllBytes(file);
+			ByteBuffer raw = ByteBuffer.allocate(TILE_BYTES);
+			Inflater inflater = new Inflater();
+			try {
+				inflater.setInput(compressed);
+				while (raw.hasRemaining() && !inflater.finished()) {
+					if (inflater.inflate(raw) == 0 && inflater.needsInput()) {
+						break;
+					}
+				}
+			} finally {
+				inflater.end();
+			}
+			if (raw.hasRemaining()) {
+				throw new IOException("truncated biome tile");
+			}
+
+			raw.flip();
+			if (isFirstRead) {
+				// the index keeps the order while we are running, this only
+				// keeps it for the next start
+				Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			}
+			return raw.asShortBuffer();
+		} catch (NoSuchFileException e) {
+			// evicted by another thread in the meantime
+			delete(file);
+			return null;
+		} catch (IOException | DataFormatException e) {
+			AmidstLogger.warn(e, "Unable to read biome tile, discarding it: {}", file);
+			delete(file);
+			return null;
+		}
+	}
+
+	void write(Path file, int[] src, int offset, int stride) {
+		ByteBuffer raw = ByteBuffer.allocate(TILE_BYTES);
+		for (int j = 0; j < TILE_SIZE; j++) {
+			int rowOffset = offset + j * stride;
+			for (int i = 0; i < TILE_SIZE; i++) {
+				int biome = src[rowOffset + i];
+				if (biome != (short) biome) {
+					// doesn't fit in the file format, so don't store it at all
+					return;
+				}
+				raw.putShort((short) biome);
+			}
+		}
+		raw.flip();
+		write(file, raw);
+	}
+
+	void write(Path file, short[] src, int offset, int stride) {
+		ByteBuffer raw = ByteBuffer.allocate(TILE_BYTES);
+		ShortBuffer shorts = raw.asShortBuffer();
+		for (int j = 0; j < TILE_SIZE; j++) {
+			shorts.put(src, offset + j * stride, TILE_SIZE);
+		}
+		write(file, raw);
+	}
+
+	private void write(Path file, ByteBuffer raw) {
+		byte[] compressed = new byte[TILE_BYTES + 64];
+		int compressedSize;
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(raw);
+			deflater.finish();
+			compressedSize = deflater.deflate(compressed);
+			if (!deflater.finished()) {
+				return;
+			}
+		} finally {
+			deflater.end();
+		}
+
+		try {
+			Files.createDirectories(file.getParent());
+			Path tmp = Files.createTempFile(file.getParent(), "tile", ".tmp");
+			Files.write(tmp, Arrays.copyOf(compressed, compressedSize));
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			AmidstLogger.warn(e, "Unable to write biome tile: {}", file);
+			return;
+		}
+
+		synchronized (this) {
+			loadIndexIfNeeded();
+			IndexEntry previous = index.put(file, new IndexEntry(compressedSize, true));
+			totalSizeInBytes += compressedSize - (previous == null ? 0 : previous.sizeInBytes);
+			evictIfNeeded();
+		}
+	}
+
+	private synchronized void delete(Path file) {
+		IndexEntry entry = index.remove(file);
+		if (entry != null) {
+			totalSizeInBytes -= entry.sizeInBytes;
+		}
+		tryDelete(file);
+	}
+
+	private void evictIfNeeded() {
+		Iterator<Map.Entry<Path, IndexEntry>> iterator = index.entrySet().iterator();
+		while (totalSizeInBytes > maxSizeInBytes && iterator.hasNext()) {
+			Map.Entry<Path, IndexEntry> eldest = iterator.next();
+			iterator.remove();
+			totalSizeInBytes -= eldest.getValue().sizeInBytes;
+			tryDelete(eldest.getKey());
+		}
+	}
+
+	private void tryDelete(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			AmidstLogger.warn(e, "Unable to delete biome tile: {}", file);
+		}
+	}
+
+	/**
+	 * The files on disk are ordered by their modification time, which is
+	 * updated when a tile is written and when it is read for the first time
+	 * after the start.
+	 */
+	private void loadIndexIfNeeded() {
+		if (isIndexLoaded) {
+			return;
+		}
+		isIndexLoaded = true;
+
+		if (!Files.isDirectory(root)) {
+			return;
+		}
+
+		List<Path> files = new ArrayList<>();
+		try (Stream<Path> stream = Files.walk(root)) {
+			stream.filter(f -> f.getFileName().toString().endsWith(TILE_FILE_EXTENSION))
+					.filter(Files::isRegularFile)
+					.forEach(files::add);
+		} catch (IOException e) {
+			AmidstLogger.warn(e, "Unable to list the biome tile cache: {}", root);
+		}
+
+		Map<Path, FileTime> modificationTimes = new LinkedHashMap<>();
+		for (Path file : files) {
+			try {
+				modificationTimes.put(file, Files.getLastModifiedTime(file));
+				long size = Files.size(file);
+				index.put(file, new IndexEntry(size, false));
+				totalSizeInBytes += size;
+			} catch (IOException e) {
+				AmidstLogger.warn(e, "Unable to read biome tile attributes: {}", file);
+			}
+		}
+
+		files.sort(Comparator.comparing(f -> modificationTimes.getOrDefault(f, FileTime.fromMillis(0))));
+		for (Path file : files) {
+			// touch the entries in ascending modification time
+			index.get(file);
+		}
+		evictIfNeeded();
+	}
+}
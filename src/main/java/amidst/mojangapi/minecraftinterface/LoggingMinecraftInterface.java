@@ -55,4 +55,9 @@ public class LoggingMinecraftInterface implements MinecraftInterface {
 	public RecognisedVersion getRecognisedVersion() {
 		return inner.getRecognisedVersion();
 	}
+
+	@Override
+	public String getGeneratorId() {
+		return inner.getGeneratorId();
+	}
 }
@@ -1,6 +1,10 @@
 package amidst.mojangapi.minecraftinterface;
 
+import java.util.Arrays;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
 
 import amidst.documentation.ThreadSafe;
@@ -21,6 +25,15 @@ public interface MinecraftInterface {
 
 	public RecognisedVersion getRecognisedVersion();
 
+	/**
+	 * Identifies the code which generates the biome data, so stored biome data
+	 * of one generator is never served for another. Generators implemented in
+	 * Amidst itself need to change this whenever their output changes.
+	 */
+	public default String getGeneratorId() {
+		return getClass().getName();
+	}
+
 	/**
 	 * Represents a Minecraft world, allowing for querying of biome data.
 	 *
@@ -59,7 +72,61 @@ public interface MinecraftInterface {
 				int x, int y, int width, int height,
 				boolean useQuarterResolution, Function<int[], T> biomeDataMapper)
 				throws MinecraftInterfaceException;
-		
+
+		/**
+		 * Like {@link #getBiomeData(Dimension, int, int, int, int, boolean, Function)},
+		 * but writes the biome data directly into the given array, in row-major
+		 * order, starting at index 0. Biome ids are narrowed to shorts.
+		 *
+		 * The default implementation copies the data out of the callback.
+		 * Implementations which can produce the data directly into the
+		 * destination should override this.
+		 */
+		public default void getBiomeData(Dimension dimension,
+				int x, int y, int width, int height,
+				boolean useQuarterResolution, short[] destination)
+				throws MinecraftInterfaceException {
+			getBiomeData(dimension, x, y, width, height, useQuarterResolution, data -> {
+				for (int i = 0; i < width * height; i++) {
+					destination[i] = (short) data[i];
+				}
+				return null;
+			});
+		}
+
+		/**
+		 * Generates the biome data on the given executor. The returned tile
+		 * owns a copy of the data. A request which is cancelled before the
+		 * executor started working on it is dropped without generating
+		 * anything; a request which is already being generated runs to
+		 * completion, but its result is discarded.
+		 *
+		 * If the generation fails, the future completes exceptionally with the
+		 * MinecraftInterfaceException.
+		 */
+		public default CompletableFuture<BiomeTile> getBiomeTileAsync(Dimension dimension,
+				int x, int y, int width, int height,
+				boolean useQuarterResolution, Executor executor) {
+			CompletableFuture<BiomeTile> result = new CompletableFuture<>();
+			try {
+				executor.execute(() -> {
+					if (result.isDone()) {
+						return;
+					}
+					try {
+						int[] data = getBiomeData(dimension, x, y, width, height, useQuarterResolution,
+								biomeData -> Arrays.copyOf(biomeData, width * height));
+						result.complete(new BiomeTile(dimension, x, y, width, height, useQuarterResolution, data));
+					} catch (MinecraftInterfaceException | RuntimeException e) {
+						result.completeExceptionally(e);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				result.completeExceptionally(e);
+			}
+			return result;
+		}
+
 		public Set<Dimension> supportedDimensions();
 	}
 }
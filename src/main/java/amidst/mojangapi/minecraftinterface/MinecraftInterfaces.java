@@ -13,6 +13,7 @@ import amidst.clazz.translator.ClassTranslator;
 import amidst.documentation.NotNull;
 import amidst.logging.AmidstLogger;
 import amidst.mojangapi.file.LauncherProfile;
+import amidst.mojangapi.minecraftinterface.genlayer.GenLayerMinecraftInterface;
 import amidst.mojangapi.minecraftinterface.legacy.BetaClassTranslator;
 import amidst.mojangapi.minecraftinterface.legacy.BetaMinecraftInterface;
 import amidst.mojangapi.minecraftinterface.legacy.LegacyClassTranslator;
@@ -60,6 +61,9 @@ public enum MinecraftInterfaces {
     private static Factory fromVersion(RecognisedVersion version) {
         if(RecognisedVersion.isOlderOrEqualTo(version, BetaMinecraftInterface.LAST_COMPATIBLE_VERSION)) {
             return new Factory(BetaClassTranslator.get(version), BetaMinecraftInterface::new);
+        } else if(GenLayerMinecraftInterface.isCompatible(version)) {
+            return new Factory(LegacyClassTranslator.get(),
+                    (symbolicClassMap, v) -> new GenLayerMinecraftInterface(new LegacyMinecraftInterface(symbolicClassMap, v)));
         } else if(RecognisedVersion.isOlderOrEqualTo(version, LegacyMinecraftInterface.LAST_COMPATIBLE_VERSION)) {
             return new Factory(LegacyClassTranslator.get(), LegacyMinecraftInterface::new);
         } else if(RecognisedVersion.isOlderOrEqualTo(version, _1_13MinecraftInterface.LAST_COMPATIBLE_VERSION)) {
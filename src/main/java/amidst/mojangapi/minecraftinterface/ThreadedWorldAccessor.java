@@ -1,46 +1,178 @@
 package amidst.mojangapi.minecraftinterface;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 
+import amidst.documentation.ThreadSafe;
 import amidst.mojangapi.minecraftinterface.MinecraftInterface.WorldAccessor;
 import amidst.mojangapi.world.Dimension;
 import amidst.util.FaillibleFunction;
 
+/**
+ * Hands out the inner accessors, which aren't necessarily thread-safe, to one
+ * thread at a time. The accessors are kept in a bounded pool: a thread borrows
+ * an idle accessor for the duration of a single request, and a new one is only
+ * created if none is idle and the pool isn't full yet. Otherwise, the thread
+ * waits for an accessor to be returned. Accessors which stayed idle for too
+ * long are dropped whenever an accessor is borrowed or returned, except for
+ * the last one.
+ *
+ * A biome data mapper must not request biome data from the same accessor. It
+ * runs while the accessor is borrowed, so the nested request waits forever if
+ * the pool is exhausted.
+ */
+@ThreadSafe
 public class ThreadedWorldAccessor implements WorldAccessor {
-	private final ThreadLocal<WorldAccessor> rawThreadedAccessor;
+	private static final long MAX_IDLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+	private final FaillibleFunction<Void, WorldAccessor, MinecraftInterfaceException> innerAccessorFactory;
+	private final IntSupplier maxPoolSize;
 	private final Set<Dimension> supportedDimensions;
-	
-	public ThreadedWorldAccessor(FaillibleFunction<Void, WorldAccessor, MinecraftInterfaceException> innerAccessorFactory)
-			throws MinecraftInterfaceException {
-		AtomicReference<MinecraftInterface.WorldAccessor> initialWorld =
-								new AtomicReference<>(innerAccessorFactory.apply(null));
-		
-		this.supportedDimensions = initialWorld.get().supportedDimensions();
-		this.rawThreadedAccessor = ThreadLocal.withInitial(() -> {
-			WorldAccessor world = initialWorld.getAndSet(null);
-			if (world == null) {
-				try {
-					return innerAccessorFactory.apply(null);
-				} catch (MinecraftInterfaceException e) {
-					throw new RuntimeException(e);
-				}
-			} else {
-				return world;
-			}
-		});
+	private final LongSupplier nanoTime;
+
+	/**
+	 * The most recently returned accessor is at the head.
+	 */
+	private final Deque<IdleAccessor> idleAccessors = new ArrayDeque<>();
+	private int numberOfAccessors;
+
+	public ThreadedWorldAccessor(
+			FaillibleFunction<Void, WorldAccessor, MinecraftInterfaceException> innerAccessorFactory,
+			IntSupplier maxPoolSize) throws MinecraftInterfaceException {
+		this(innerAccessorFactory, maxPoolSize, System::nanoTime);
 	}
-	
+
+	ThreadedWorldAccessor(
+			FaillibleFunction<Void, WorldAccessor, MinecraftInterfaceException> innerAccessorFactory,
+			IntSupplier maxPoolSize,
+			LongSupplier nanoTime) throws MinecraftInterfaceException {
+		this.innerAccessorFactory = innerAccessorFactory;
+		this.maxPoolSize = maxPoolSize;
+		this.nanoTime = nanoTime;
+
+		WorldAccessor initialWorld = innerAccessorFactory.apply(null);
+		this.supportedDimensions = initialWorld.supportedDimensions();
+		this.numberOfAccessors = 1;
+		this.idleAccessors.push(new IdleAccessor(initialWorld, nanoTime.getAsLong()));
+	}
+
 	@Override
 	public <T> T getBiomeData(Dimension dimension, int x, int y, int width, int height, boolean useQuarterResolution,
 			Function<int[], T> biomeDataMapper) throws MinecraftInterfaceException {
-		return rawThreadedAccessor.get().getBiomeData(dimension, x, y, width, height, useQuarterResolution,
-				biomeDataMapper);
+		WorldAccessor accessor = borrow();
+		try {
+			return accessor.getBiomeData(dimension, x, y, width, height, useQuarterResolution, biomeDataMapper);
+		} finally {
+			giveBack(accessor);
+		}
+	}
+
+	@Override
+	public void getBiomeData(Dimension dimension, int x, int y, int width, int height, boolean useQuarterResolution,
+			short[] destination) throws MinecraftInterfaceException {
+		WorldAccessor accessor = borrow();
+		try {
+			accessor.getBiomeData(dimension, x, y, width, height, useQuarterResolution, destination);
+		} finally {
+			giveBack(accessor);
+		}
+	}
+
+	private WorldAccessor borrow() throws MinecraftInterfaceException {
+		boolean isInterrupted = false;
+		try {
+			synchronized (this) {
+				evictIdleAccessors(nanoTime.getAsLong());
+				while (idleAccessors.isEmpty() && numberOfAccessors >= getMaxPoolSize()) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						// Returning an accessor never takes long, so we just
+						// keep waiting and restore the flag afterwards.
+						isInterrupted = true;
+					}
+				}
+				if (!idleAccessors.isEmpty()) {
+					return idleAccessors.pop().accessor;
+				}
+				numberOfAccessors++;
+			}
+			return createAccessor();
+		} finally {
+			if (isInterrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private WorldAccessor createAccessor() throws MinecraftInterfaceException {
+		boolean isCreated = false;
+		try {
+			WorldAccessor result = innerAccessorFactory.apply(null);
+			isCreated = true;
+			return result;
+		} finally {
+			if (!isCreated) {
+				synchronized (this) {
+					numberOfAccessors--;
+					notifyAll();
+				}
+			}
+		}
+	}
+
+	private synchronized void giveBack(WorldAccessor accessor) {
+		long now = nanoTime.getAsLong();
+		if (numberOfAccessors > getMaxPoolSize()) {
+			// the pool was shrunk in the meantime
+			numberOfAccessors--;
+		} else {
+			idleAccessors.push(new IdleAccessor(accessor, now));
+		}
+		evictIdleAccessors(now);
+		notifyAll();
+	}
+
+	/**
+	 * Also drops idle accessors which exceed the pool size, if the pool was
+	 * shrunk in the meantime.
+	 */
+	private void evictIdleAccessors(long now) {
+		while (!idleAccessors.isEmpty() && numberOfAccessors > getMaxPoolSize()) {
+			idleAccessors.pollLast();
+			numberOfAccessors--;
+		}
+		while (idleAccessors.size() > 1 && now - idleAccessors.peekLast().since > MAX_IDLE_NANOS) {
+			idleAccessors.pollLast();
+			numberOfAccessors--;
+		}
 	}
-	
+
+	synchronized int getNumberOfAccessors() {
+		return numberOfAccessors;
+	}
+
+	private int getMaxPoolSize() {
+		return Math.max(1, maxPoolSize.getAsInt());
+	}
+
 	@Override
 	public Set<Dimension> supportedDimensions() {
 		return supportedDimensions;
 	}
+
+	private static class IdleAccessor {
+		private final WorldAccessor accessor;
+		private final long since;
+
+		private IdleAccessor(WorldAccessor accessor, long since) {
+			this.accessor = accessor;
+			this.since = since;
+		}
+	}
 }
@@ -0,0 +1,102 @@
+package amidst.mojangapi.minecraftinterface;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.function.Function;
+
+import amidst.documentation.ThreadSafe;
+import amidst.mojangapi.minecraftinterface.MinecraftInterface.WorldAccessor;
+import amidst.mojangapi.world.Dimension;
+import amidst.util.ArrayCache;
+
+/**
+ * Serves requests covering whole tiles from a {@link BiomeTileStore}, and only
+ * asks the inner accessor for the tiles which are missing. All other requests
+ * are passed through unchanged.
+ */
+@ThreadSafe
+public class TileStoreWorldAccessor implements WorldAccessor {
+	private static final int TILE_SIZE = BiomeTileStore.TILE_SIZE;
+
+	private final WorldAccessor inner;
+	private final BiomeTileStore store;
+	private final Path worldDirectory;
+
+	private final ArrayCache<int[]> dataArray = ArrayCache.makeIntArrayCache(TILE_SIZE * TILE_SIZE);
+
+	public TileStoreWorldAccessor(WorldAccessor inner, BiomeTileStore store, Path worldDirectory) {
+		this.inner = inner;
+		this.store = store;
+		this.worldDirectory = worldDirectory;
+	}
+
+	@Override
+	public <T> T getBiomeData(Dimension dimension, int x, int y, int width, int height, boolean useQuarterResolution,
+			Function<int[], T> biomeDataMapper) throws MinecraftInterfaceException {
+		if (!isTileAligned(x, y, width, height)) {
+			return inner.getBiomeData(dimension, x, y, width, height, useQuarterResolution, biomeDataMapper);
+		}
+
+		return dataArray.withArrayFaillible(width * height, data -> {
+			for (int y0 = 0; y0 < height; y0 += TILE_SIZE) {
+				for (int x0 = 0; x0 < width; x0 += TILE_SIZE) {
+					int offset = x0 + y0 * width;
+					Path file = BiomeTileStore.getTileFile(
+							worldDirectory, dimension, useQuarterResolution,
+							Math.floorDiv(x + x0, TILE_SIZE), Math.floorDiv(y + y0, TILE_SIZE));
+					if (!store.read(file, data, offset, width)) {
+						inner.getBiomeData(dimension, x + x0, y + y0, TILE_SIZE, TILE_SIZE, useQuarterResolution, tile -> {
+							for (int j = 0; j < TILE_SIZE; j++) {
+								System.arraycopy(tile, j * TILE_SIZE, data, offset + j * width, TILE_SIZE);
+							}
+							return null;
+						});
+						store.write(file, data, offset, width);
+					}
+				}
+			}
+			return biomeDataMapper.apply(data);
+		});
+	}
+
+	@Override
+	public void getBiomeData(Dimension dimension, int x, int y, int width, int height, boolean useQuarterResolution,
+			short[] destination) throws MinecraftInterfaceException {
+		if (!isTileAligned(x, y, width, height)) {
+			inner.getBiomeData(dimension, x, y, width, height, useQuarterResolution, destination);
+			return;
+		}
+
+		for (int y0 = 0; y0 < height; y0 += TILE_SIZE) {
+			for (int x0 = 0; x0 < width; x0 += TILE_SIZE) {
+				int offset = x0 + y0 * width;
+				Path file = BiomeTileStore.getTileFile(
+						worldDirectory, dimension, useQuarterResolution,
+						Math.floorDiv(x + x0, TILE_SIZE), Math.floorDiv(y + y0, TILE_SIZE));
+				if (!store.read(file, destination, offset, width)) {
+					inner.getBiomeData(dimension, x + x0, y + y0, TILE_SIZE, TILE_SIZE, useQuarterResolution, tile -> {
+						for (int j = 0; j < TILE_SIZE; j++) {
+							int rowOffset = offset + j * width;
+							for (int i = 0; i < TILE_SIZE; i++) {
+								destination[rowOffset + i] = (short) tile[j * TILE_SIZE + i];
+							}
+						}
+						return null;
+					});
+					store.write(file, destination, offset, width);
+				}
+			}
+		}
+	}
+
+	private static boolean isTileAligned(int x, int y, int width, int height) {
+		return Math.floorMod(x, TILE_SIZE) == 0 && Math.floorMod(y, TILE_SIZE) == 0
+				&& width > 0 && width % TILE_SIZE == 0
+				&& height > 0 && height % TILE_SIZE == 0;
+	}
+
+	@Override
+	public Set<Dimension> supportedDimensions() {
+		return inner.supportedDimensions();
+	}
+}
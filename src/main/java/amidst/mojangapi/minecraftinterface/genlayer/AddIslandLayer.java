@@ -0,0 +1,49 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * Grows and erodes the land along the coasts, looking at the diagonal
+ * neighbours.
+ */
+@NotThreadSafe
+public class AddIslandLayer extends PaddedLayer {
+	public AddIslandLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	protected int apply(int[] in, int center, int stride) {
+		int nw = in[center - stride - 1];
+		int ne = in[center - stride + 1];
+		int sw = in[center + stride - 1];
+		int se = in[center + stride + 1];
+		int value = in[center];
+		if (value != 0 || (nw == 0 && ne == 0 && sw == 0 && se == 0)) {
+			if (value > 0 && (nw == 0 || ne == 0 || sw == 0 || se == 0) && nextInt(5) == 0) {
+				return value == 4 ? 4 : 0;
+			}
+			return value;
+		}
+
+		int count = 1;
+		int result = 1;
+		if (nw != 0 && nextInt(count++) == 0) {
+			result = nw;
+		}
+		if (ne != 0 && nextInt(count++) == 0) {
+			result = ne;
+		}
+		if (sw != 0 && nextInt(count++) == 0) {
+			result = sw;
+		}
+		if (se != 0 && nextInt(count++) == 0) {
+			result = se;
+		}
+		if (nextInt(3) == 0) {
+			return result;
+		} else {
+			return result == 4 ? 4 : 0;
+		}
+	}
+}
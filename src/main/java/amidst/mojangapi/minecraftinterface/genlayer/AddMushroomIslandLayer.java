@@ -0,0 +1,23 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+import amidst.mojangapi.world.versionfeatures.DefaultBiomes;
+
+@NotThreadSafe
+public class AddMushroomIslandLayer extends PaddedLayer {
+	public AddMushroomIslandLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	protected int apply(int[] in, int center, int stride) {
+		int value = in[center];
+		if (value == 0
+				&& in[center - stride - 1] == 0 && in[center - stride + 1] == 0
+				&& in[center + stride - 1] == 0 && in[center + stride + 1] == 0
+				&& nextInt(100) == 0) {
+			return DefaultBiomes.mushroomIsland;
+		}
+		return value;
+	}
+}
@@ -0,0 +1,28 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * Assigns a climate to the land: 1 is warm, 3 is cold and 4 is freezing.
+ */
+@NotThreadSafe
+public class AddSnowLayer extends PaddedLayer {
+	public AddSnowLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	protected int apply(int[] in, int center, int stride) {
+		if (in[center] == 0) {
+			return 0;
+		}
+		int climate = nextInt(6);
+		if (climate == 0) {
+			return 4;
+		} else if (climate <= 1) {
+			return 3;
+		} else {
+			return 1;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import static amidst.mojangapi.world.versionfeatures.DefaultBiomes.*;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * Adds edge biomes between biomes which should not touch.
+ */
+@NotThreadSafe
+public class BiomeEdgeLayer extends PaddedLayer {
+	public BiomeEdgeLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	protected int apply(int[] in, int center, int stride) {
+		int value = in[center];
+		int n = in[center - stride];
+		int e = in[center + 1];
+		int w = in[center - 1];
+		int s = in[center + stride];
+
+		// Minecraft also checks whether extreme hills need an edge, based on
+		// the temperature of the neighbours. Extreme hills have a medium
+		// temperature which is compatible with everything, so they never do.
+		if (value == mesaPlateauF || value == mesaPlateau) {
+			return areAllSimilar(value, n, e, w, s) ? value : mesa;
+		} else if (value == megaTaiga) {
+			return areAllSimilar(value, n, e, w, s) ? value : taiga;
+		} else if (value == desert) {
+			return isAny(icePlains, n, e, w, s) ? extremeHillsPlus : value;
+		} else if (value == swampland) {
+			if (isAny(desert, n, e, w, s) || isAny(coldTaiga, n, e, w, s) || isAny(icePlains, n, e, w, s)) {
+				return plains;
+			} else if (isAny(jungle, n, e, w, s)) {
+				return jungleEdge;
+			}
+		}
+		return value;
+	}
+
+	private static boolean areAllSimilar(int value, int n, int e, int w, int s) {
+		return LegacyBiomes.isSimilar(n, value)
+				&& LegacyBiomes.isSimilar(e, value)
+				&& LegacyBiomes.isSimilar(w, value)
+				&& LegacyBiomes.isSimilar(s, value);
+	}
+
+	private static boolean isAny(int value, int n, int e, int w, int s) {
+		return n == value || e == value || w == value || s == value;
+	}
+}
@@ -0,0 +1,61 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import static amidst.mojangapi.world.versionfeatures.DefaultBiomes.*;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * Turns the climates into actual biomes.
+ */
+@NotThreadSafe
+public class BiomeLayer extends GenLayer {
+	private static final int[] WARM_BIOMES = { desert, desert, desert, savanna, savanna, plains };
+	private static final int[] MEDIUM_BIOMES = { forest, roofedForest, extremeHills, plains, birchForest, swampland };
+	private static final int[] COLD_BIOMES = { forest, extremeHills, taiga, plains };
+	private static final int[] ICE_BIOMES = { icePlains, icePlains, icePlains, coldTaiga };
+
+	public BiomeLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	public int[] getInts(int x, int z, int width, int height) {
+		int[] in = parent.getInts(x, z, width, height);
+		int[] out = getBuffer(width * height);
+		for (int j = 0; j < height; j++) {
+			for (int i = 0; i < width; i++) {
+				initChunkSeed(x + i, z + j);
+				int index = i + j * width;
+				out[index] = getBiome(in[index]);
+			}
+		}
+		return out;
+	}
+
+	private int getBiome(int value) {
+		int special = (value & 0xF00) >> 8;
+		int climate = value & ~0xF00;
+		if (LegacyBiomes.isOceanic(climate) || climate == mushroomIsland) {
+			return climate;
+		} else if (climate == 1) {
+			if (special > 0) {
+				return nextInt(3) == 0 ? mesaPlateau : mesaPlateauF;
+			}
+			return WARM_BIOMES[nextInt(WARM_BIOMES.length)];
+		} else if (climate == 2) {
+			if (special > 0) {
+				return jungle;
+			}
+			return MEDIUM_BIOMES[nextInt(MEDIUM_BIOMES.length)];
+		} else if (climate == 3) {
+			if (special > 0) {
+				return megaTaiga;
+			}
+			return COLD_BIOMES[nextInt(COLD_BIOMES.length)];
+		} else if (climate == 4) {
+			return ICE_BIOMES[nextInt(ICE_BIOMES.length)];
+		} else {
+			return mushroomIsland;
+		}
+	}
+}
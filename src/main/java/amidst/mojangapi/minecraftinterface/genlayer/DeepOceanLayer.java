@@ -0,0 +1,22 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+import amidst.mojangapi.world.versionfeatures.DefaultBiomes;
+
+@NotThreadSafe
+public class DeepOceanLayer extends PaddedLayer {
+	public DeepOceanLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	protected int apply(int[] in, int center, int stride) {
+		int value = in[center];
+		if (value == 0
+				&& in[center - stride] == 0 && in[center + 1] == 0
+				&& in[center - 1] == 0 && in[center + stride] == 0) {
+			return DefaultBiomes.deepOcean;
+		}
+		return value;
+	}
+}
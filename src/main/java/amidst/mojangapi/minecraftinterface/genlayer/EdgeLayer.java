@@ -0,0 +1,67 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * Smooths the transitions between the climates. The special mode instead marks
+ * some land with a flag, which later turns it into a rare biome.
+ */
+@NotThreadSafe
+public class EdgeLayer extends PaddedLayer {
+	public static enum Mode {
+		COOL_WARM,
+		HEAT_ICE,
+		SPECIAL;
+	}
+
+	private final Mode mode;
+
+	public EdgeLayer(long salt, GenLayer parent, Mode mode) {
+		super(salt, parent);
+		this.mode = mode;
+	}
+
+	@Override
+	public int[] getInts(int x, int z, int width, int height) {
+		if (mode != Mode.SPECIAL) {
+			return super.getInts(x, z, width, height);
+		}
+
+		int[] in = parent.getInts(x, z, width, height);
+		int[] out = getBuffer(width * height);
+		for (int j = 0; j < height; j++) {
+			for (int i = 0; i < width; i++) {
+				initChunkSeed(x + i, z + j);
+				int value = in[i + j * width];
+				if (value != 0 && nextInt(13) == 0) {
+					value |= (1 + nextInt(15)) << 8 & 0xF00;
+				}
+				out[i + j * width] = value;
+			}
+		}
+		return out;
+	}
+
+	@Override
+	protected int apply(int[] in, int center, int stride) {
+		int value = in[center];
+		int n = in[center - stride];
+		int e = in[center + 1];
+		int w = in[center - 1];
+		int s = in[center + stride];
+		if (mode == Mode.COOL_WARM) {
+			if (value == 1 && (isAny(3, n, e, w, s) || isAny(4, n, e, w, s))) {
+				return 2;
+			}
+		} else {
+			if (value == 4 && (isAny(2, n, e, w, s) || isAny(1, n, e, w, s))) {
+				return 3;
+			}
+		}
+		return value;
+	}
+
+	private static boolean isAny(int value, int n, int e, int w, int s) {
+		return n == value || e == value || w == value || s == value;
+	}
+}
@@ -0,0 +1,125 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * The base of a reimplementation of the layered biome generator used from
+ * Minecraft 1.7 to 1.12. Each layer evaluates a whole region at once from the
+ * region returned by its parent. Instead of allocating a new array for each
+ * call like the game does, each layer owns a buffer which is reused: the array
+ * returned by {@link #getInts(int, int, int, int)} is only valid until the
+ * next call on the same layer.
+ *
+ * The random number generator is the same linear congruential generator as in
+ * Minecraft, seeded the same way, so the output is identical.
+ */
+@NotThreadSafe
+public abstract class GenLayer {
+	private static final long MULTIPLIER = 6364136223846793005L;
+	private static final long INCREMENT = 1442695040888963407L;
+
+	protected final GenLayer parent;
+	private final long baseSeed;
+	private long worldGenSeed;
+	private long chunkSeed;
+
+	private int[] buffer = new int[256];
+
+	protected GenLayer(long salt, GenLayer parent) {
+		this.parent = parent;
+		long seed = salt;
+		seed = step(seed, salt);
+		seed = step(seed, salt);
+		seed = step(seed, salt);
+		this.baseSeed = seed;
+	}
+
+	private static long step(long seed, long addend) {
+		return seed * (seed * MULTIPLIER + INCREMENT) + addend;
+	}
+
+	public void initWorldGenSeed(long seed) {
+		if (parent != null) {
+			parent.initWorldGenSeed(seed);
+		}
+		long result = seed;
+		result = step(result, baseSeed);
+		result = step(result, baseSeed);
+		result = step(result, baseSeed);
+		this.worldGenSeed = result;
+	}
+
+	protected void initChunkSeed(long x, long z) {
+		long result = worldGenSeed;
+		result = step(result, x);
+		result = step(result, z);
+		result = step(result, x);
+		result = step(result, z);
+		this.chunkSeed = result;
+	}
+
+	protected int nextInt(int bound) {
+		int result = (int) ((chunkSeed >> 24) % bound);
+		if (result < 0) {
+			result += bound;
+		}
+		chunkSeed = step(chunkSeed, worldGenSeed);
+		return result;
+	}
+
+	protected int selectRandom(int a, int b) {
+		return nextInt(2) == 0 ? a : b;
+	}
+
+	protected int selectRandom(int a, int b, int c, int d) {
+		switch (nextInt(4)) {
+		case 0:
+			return a;
+		case 1:
+			return b;
+		case 2:
+			return c;
+		default:
+			return d;
+		}
+	}
+
+	protected int selectModeOrRandom(int a, int b, int c, int d) {
+		if (b == c && c == d) {
+			return b;
+		} else if (a == b && a == c) {
+			return a;
+		} else if (a == b && a == d) {
+			return a;
+		} else if (a == c && a == d) {
+			return a;
+		} else if (a == b && c != d) {
+			return a;
+		} else if (a == c && b != d) {
+			return a;
+		} else if (a == d && b != c) {
+			return a;
+		} else if (b == c && a != d) {
+			return b;
+		} else if (b == d && a != c) {
+			return b;
+		} else if (c == d && a != b) {
+			return c;
+		} else {
+			return selectRandom(a, b, c, d);
+		}
+	}
+
+	protected int[] getBuffer(int size) {
+		if (buffer.length < size) {
+			buffer = new int[size];
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns the values of the given region in row-major order. The returned
+	 * array may be larger than the region and is overwritten by the next call.
+	 */
+	public abstract int[] getInts(int x, int z, int width, int height);
+}
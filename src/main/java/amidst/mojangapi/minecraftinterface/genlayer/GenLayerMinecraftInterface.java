@@ -0,0 +1,92 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Function;
+
+import amidst.documentation.ThreadSafe;
+import amidst.mojangapi.minecraftinterface.MinecraftInterface;
+import amidst.mojangapi.minecraftinterface.MinecraftInterfaceException;
+import amidst.mojangapi.minecraftinterface.RecognisedVersion;
+import amidst.mojangapi.minecraftinterface.UnsupportedDimensionException;
+import amidst.mojangapi.world.Dimension;
+import amidst.mojangapi.world.WorldOptions;
+import amidst.mojangapi.world.WorldType;
+
+/**
+ * Generates the overworld biomes with a {@link LayerStack} instead of calling
+ * into the Minecraft jar. The layer stack implements Minecraft 1.7 to 1.12, but
+ * it is only used for the versions which are covered by the test worlds, that
+ * is from 1.8.9 to 1.9-pre2. Customized worlds with generator options are still
+ * delegated to the wrapped interface.
+ */
+@ThreadSafe
+public class GenLayerMinecraftInterface implements MinecraftInterface {
+	public static final RecognisedVersion FIRST_COMPATIBLE_VERSION = RecognisedVersion._1_8_9;
+	public static final RecognisedVersion LAST_COMPATIBLE_VERSION = RecognisedVersion._1_9_pre2;
+
+	/**
+	 * Needs to be increased whenever the generated biomes change, so the biome
+	 * tiles stored with an older revision are not used anymore.
+	 */
+	private static final int GENERATOR_REVISION = 1;
+
+	private final MinecraftInterface inner;
+
+	public GenLayerMinecraftInterface(MinecraftInterface inner) {
+		this.inner = inner;
+	}
+
+	public static boolean isCompatible(RecognisedVersion version) {
+		return RecognisedVersion.isNewerOrEqualTo(version, FIRST_COMPATIBLE_VERSION)
+				&& RecognisedVersion.isOlderOrEqualTo(version, LAST_COMPATIBLE_VERSION)
+				&& version.isKnown();
+	}
+
+	@Override
+	public MinecraftInterface.WorldAccessor createWorldAccessor(WorldOptions worldOptions)
+			throws MinecraftInterfaceException {
+		String generatorOptions = worldOptions.getGeneratorOptions();
+		if (worldOptions.getWorldType() == WorldType.CUSTOMIZED && generatorOptions != null && !generatorOptions.isEmpty()) {
+			return inner.createWorldAccessor(worldOptions);
+		}
+		return new WorldAccessor(new LayerStack(
+				worldOptions.getWorldSeed().getLong(),
+				worldOptions.getWorldType(),
+				inner.getRecognisedVersion()));
+	}
+
+	@Override
+	public RecognisedVersion getRecognisedVersion() {
+		return inner.getRecognisedVersion();
+	}
+
+	@Override
+	public String getGeneratorId() {
+		return getClass().getName() + "@" + GENERATOR_REVISION + "/" + inner.getGeneratorId();
+	}
+
+	private static class WorldAccessor implements MinecraftInterface.WorldAccessor {
+		private final LayerStack layerStack;
+
+		private WorldAccessor(LayerStack layerStack) {
+			this.layerStack = layerStack;
+		}
+
+		@Override
+		public synchronized <T> T getBiomeData(Dimension dimension, int x, int y, int width, int height,
+				boolean useQuarterResolution, Function<int[], T> biomeDataMapper) throws MinecraftInterfaceException {
+			if (dimension != Dimension.OVERWORLD) {
+				throw new UnsupportedDimensionException(dimension);
+			}
+			// The layers reuse their buffers, so the data is only valid while we
+			// hold the lock.
+			return biomeDataMapper.apply(layerStack.getInts(x, y, width, height, useQuarterResolution));
+		}
+
+		@Override
+		public Set<Dimension> supportedDimensions() {
+			return Collections.singleton(Dimension.OVERWORLD);
+		}
+	}
+}
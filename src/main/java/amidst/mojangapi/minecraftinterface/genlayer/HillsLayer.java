@@ -0,0 +1,122 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import static amidst.mojangapi.world.versionfeatures.DefaultBiomes.*;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * Adds hills inside of the biomes, as well as the mutated biomes. The second
+ * parent is derived from the river noise and decides where the mutations go.
+ *
+ * Just like in Minecraft, the world seed is never passed to the second parent,
+ * so its own zoom layers always run with a world seed of zero.
+ *
+ * Minecraft 1.9 and 1.10 declare birch forest as the base of both mutated birch
+ * biomes (MC-98995). The last one registered wins, so birch forest mutates into
+ * mutated birch forest hills, and birch forest hills don't mutate at all.
+ */
+@NotThreadSafe
+public class HillsLayer extends PaddedLayer {
+	private final GenLayer riverLayer;
+	private final boolean hasBirchMutationBug;
+	private int[] river;
+
+	public HillsLayer(long salt, GenLayer parent, GenLayer riverLayer, boolean hasBirchMutationBug) {
+		super(salt, parent);
+		this.riverLayer = riverLayer;
+		this.hasBirchMutationBug = hasBirchMutationBug;
+	}
+
+	@Override
+	public int[] getInts(int x, int z, int width, int height) {
+		river = riverLayer.getInts(x - 1, z - 1, width + 2, height + 2);
+		return super.getInts(x, z, width, height);
+	}
+
+	@Override
+	protected int apply(int[] in, int center, int stride) {
+		int value = in[center];
+		int riverValue = river[center];
+		boolean isHillMutation = (riverValue - 2) % 29 == 0;
+
+		if (value != 0 && riverValue >= 2 && (riverValue - 2) % 29 == 1 && !LegacyBiomes.isMutation(value)) {
+			int mutation = getMutation(value);
+			return mutation == -1 ? value : mutation;
+		} else if (nextInt(3) != 0 && !isHillMutation) {
+			return value;
+		}
+
+		int hill = getHill(value);
+		if (isHillMutation && hill != value) {
+			int mutation = getMutation(hill);
+			hill = mutation == -1 ? value : mutation;
+		}
+		if (hill == value) {
+			return value;
+		}
+
+		int similarNeighbours = 0;
+		if (LegacyBiomes.isSimilar(in[center - stride], value)) {
+			similarNeighbours++;
+		}
+		if (LegacyBiomes.isSimilar(in[center + 1], value)) {
+			similarNeighbours++;
+		}
+		if (LegacyBiomes.isSimilar(in[center - 1], value)) {
+			similarNeighbours++;
+		}
+		if (LegacyBiomes.isSimilar(in[center + stride], value)) {
+			similarNeighbours++;
+		}
+		return similarNeighbours >= 3 ? hill : value;
+	}
+
+	private int getMutation(int value) {
+		if (hasBirchMutationBug) {
+			if (value == birchForest) {
+				return birchForestHillsM;
+			} else if (value == birchForestHills) {
+				return -1;
+			}
+		}
+		return LegacyBiomes.getMutation(value);
+	}
+
+	private int getHill(int value) {
+		switch (value) {
+		case desert:
+			return desertHills;
+		case forest:
+			return forestHills;
+		case birchForest:
+			return birchForestHills;
+		case roofedForest:
+			return plains;
+		case taiga:
+			return taigaHills;
+		case megaTaiga:
+			return megaTaigaHills;
+		case coldTaiga:
+			return coldTaigaHills;
+		case plains:
+			return nextInt(3) == 0 ? forestHills : forest;
+		case icePlains:
+			return iceMountains;
+		case jungle:
+			return jungleHills;
+		case ocean:
+			return deepOcean;
+		case extremeHills:
+			return extremeHillsPlus;
+		case savanna:
+			return savannaPlateau;
+		default:
+			if (LegacyBiomes.isSimilar(value, mesaPlateauF)) {
+				return mesa;
+			} else if (value == deepOcean && nextInt(3) == 0) {
+				return nextInt(2) == 0 ? plains : forest;
+			}
+			return value;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * The bottom of the stack: scattered land, always with land at the origin.
+ */
+@NotThreadSafe
+public class IslandLayer extends GenLayer {
+	public IslandLayer(long salt) {
+		super(salt, null);
+	}
+
+	@Override
+	public int[] getInts(int x, int z, int width, int height) {
+		int[] out = getBuffer(width * height);
+		for (int j = 0; j < height; j++) {
+			for (int i = 0; i < width; i++) {
+				initChunkSeed(x + i, z + j);
+				out[i + j * width] = nextInt(10) == 0 ? 1 : 0;
+			}
+		}
+		if (x > -width && x <= 0 && z > -height && z <= 0) {
+			out[-x + -z * width] = 1;
+		}
+		return out;
+	}
+}
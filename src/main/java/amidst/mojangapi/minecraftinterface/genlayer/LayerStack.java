@@ -0,0 +1,82 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+import amidst.mojangapi.minecraftinterface.RecognisedVersion;
+import amidst.mojangapi.minecraftinterface.genlayer.EdgeLayer.Mode;
+import amidst.mojangapi.world.WorldType;
+
+/**
+ * The layers of the overworld biome generator of Minecraft 1.7 to 1.12, wired
+ * the same way as in the game. Only some of these versions are checked against
+ * test worlds, see {@link GenLayerMinecraftInterface}.
+ */
+@NotThreadSafe
+public class LayerStack {
+	private static final int DEFAULT_BIOME_SIZE = 4;
+	private static final int LARGE_BIOME_SIZE = 6;
+	private static final int RIVER_SIZE = 4;
+
+	private final GenLayer quarterResolution;
+	private final GenLayer fullResolution;
+
+	public LayerStack(long seed, WorldType worldType, RecognisedVersion version) {
+		// the 1.9 snapshots up to 15w51b still mutate birch forests correctly
+		boolean hasBirchMutationBug = RecognisedVersion.isNewerOrEqualTo(version, RecognisedVersion._1_9_pre2)
+				&& RecognisedVersion.isOlderOrEqualTo(version, RecognisedVersion._1_10_2);
+		int biomeSize = worldType == WorldType.LARGE_BIOMES ? LARGE_BIOME_SIZE : DEFAULT_BIOME_SIZE;
+		// before 1.8, the rivers are zoomed like the biomes
+		int riverSize = RecognisedVersion.isOlder(version, RecognisedVersion._1_8) ? biomeSize : RIVER_SIZE;
+
+		GenLayer layer = new IslandLayer(1);
+		layer = new ZoomLayer(2000, layer, true);
+		layer = new AddIslandLayer(1, layer);
+		layer = new ZoomLayer(2001, layer);
+		layer = new AddIslandLayer(2, layer);
+		layer = new AddIslandLayer(50, layer);
+		layer = new AddIslandLayer(70, layer);
+		layer = new RemoveTooMuchOceanLayer(2, layer);
+		layer = new AddSnowLayer(2, layer);
+		layer = new AddIslandLayer(3, layer);
+		layer = new EdgeLayer(2, layer, Mode.COOL_WARM);
+		layer = new EdgeLayer(2, layer, Mode.HEAT_ICE);
+		layer = new EdgeLayer(3, layer, Mode.SPECIAL);
+		layer = new ZoomLayer(2002, layer);
+		layer = new ZoomLayer(2003, layer);
+		layer = new AddIslandLayer(4, layer);
+		layer = new AddMushroomIslandLayer(5, layer);
+		GenLayer deepOcean = new DeepOceanLayer(4, layer);
+
+		GenLayer riverInit = new RiverInitLayer(100, deepOcean);
+
+		GenLayer biomes = new BiomeLayer(200, deepOcean);
+		biomes = ZoomLayer.magnify(1000, biomes, 2);
+		biomes = new BiomeEdgeLayer(1000, biomes);
+		biomes = new HillsLayer(1000, biomes, ZoomLayer.magnify(1000, riverInit, 2), hasBirchMutationBug);
+		biomes = new RareBiomeLayer(1001, biomes);
+		for (int i = 0; i < biomeSize; i++) {
+			biomes = new ZoomLayer(1000 + i, biomes);
+			if (i == 0) {
+				biomes = new AddIslandLayer(3, biomes);
+			}
+			if (i == 1 || biomeSize == 1) {
+				biomes = new ShoreLayer(1000, biomes);
+			}
+		}
+		biomes = new SmoothLayer(1000, biomes);
+
+		GenLayer rivers = ZoomLayer.magnify(1000, riverInit, 2);
+		rivers = ZoomLayer.magnify(1000, rivers, riverSize);
+		rivers = new RiverLayer(1, rivers);
+		rivers = new SmoothLayer(1000, rivers);
+
+		this.quarterResolution = new RiverMixLayer(100, biomes, rivers);
+		this.fullResolution = new VoronoiZoomLayer(10, quarterResolution);
+		quarterResolution.initWorldGenSeed(seed);
+		fullResolution.initWorldGenSeed(seed);
+	}
+
+	public int[] getInts(int x, int z, int width, int height, boolean useQuarterResolution) {
+		GenLayer layer = useQuarterResolution ? quarterResolution : fullResolution;
+		return layer.getInts(x, z, width, height);
+	}
+}
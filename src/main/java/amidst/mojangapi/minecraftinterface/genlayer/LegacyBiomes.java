@@ -0,0 +1,111 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import static amidst.mojangapi.world.versionfeatures.DefaultBiomes.*;
+
+import java.util.Arrays;
+
+import amidst.documentation.Immutable;
+
+/**
+ * The biome properties queried by the layers. Minecraft compares the Java
+ * classes of the biomes in a few places, so each biome is assigned the group
+ * of its class.
+ */
+@Immutable
+public enum LegacyBiomes {
+	;
+
+	private static final int NUMBER_OF_IDS = 256;
+	private static final int NONE = -1;
+
+	private static final int[] GROUPS = new int[NUMBER_OF_IDS];
+	private static final int[] MUTATIONS = new int[NUMBER_OF_IDS];
+	private static final boolean[] SNOWY = new boolean[NUMBER_OF_IDS];
+
+	static {
+		Arrays.fill(GROUPS, NONE);
+		group(ocean, frozenOcean, deepOcean);
+		group(plains, sunflowerPlains);
+		group(desert, desertHills, desertM);
+		group(extremeHills, extremeHillsEdge, extremeHillsPlus, extremeHillsM, extremeHillsPlusM);
+		group(forest, forestHills, birchForest, birchForestHills, roofedForest, flowerForest, roofedForestM);
+		group(birchForestM, birchForestHillsM);
+		group(taiga, taigaHills, coldTaiga, coldTaigaHills, megaTaiga, megaTaigaHills,
+				taigaM, coldTaigaM, megaSpruceTaiga, megaSpruceTaigaHills);
+		group(swampland, swamplandM);
+		group(river, frozenRiver);
+		group(hell);
+		group(theEnd);
+		group(icePlains, iceMountains, icePlainsSpikes);
+		group(mushroomIsland, mushroomIslandShore);
+		group(beach, coldBeach);
+		group(jungle, jungleHills, jungleEdge, jungleM, jungleEdgeM);
+		group(stoneBeach);
+		group(savanna, savannaPlateau);
+		group(savannaM, savannaPlateauM);
+		group(mesa, mesaPlateauF, mesaPlateau, mesaBryce, mesaPlateauFM, mesaPlateauM);
+
+		Arrays.fill(MUTATIONS, NONE);
+		for (int base : new int[] {
+				plains, desert, extremeHills, forest, taiga, swampland, icePlains, jungle, jungleEdge,
+				birchForest, birchForestHills, roofedForest, coldTaiga, megaTaiga, megaTaigaHills,
+				extremeHillsPlus, savanna, savannaPlateau, mesa, mesaPlateauF, mesaPlateau }) {
+			MUTATIONS[base] = base + 128;
+		}
+
+		for (int id : new int[] {
+				frozenOcean, frozenRiver, icePlains, iceMountains, coldBeach, coldTaiga, coldTaigaHills,
+				icePlainsSpikes, coldTaigaM }) {
+			SNOWY[id] = true;
+		}
+	}
+
+	private static void group(int... ids) {
+		for (int id : ids) {
+			GROUPS[id] = ids[0];
+		}
+	}
+
+	private static boolean isValid(int id) {
+		return id >= 0 && id < NUMBER_OF_IDS && GROUPS[id] != NONE;
+	}
+
+	public static boolean isOceanic(int id) {
+		return id == ocean || id == deepOcean || id == frozenOcean;
+	}
+
+	public static boolean isSnowy(int id) {
+		return isValid(id) && SNOWY[id];
+	}
+
+	public static boolean isMutation(int id) {
+		return isValid(id) && id >= 128;
+	}
+
+	/**
+	 * Returns the mutated variant of the given biome, or -1 if there is none.
+	 */
+	public static int getMutation(int id) {
+		return isValid(id) ? MUTATIONS[id] : NONE;
+	}
+
+	public static boolean isSameGroup(int id, int group) {
+		return isValid(id) && GROUPS[id] == GROUPS[group];
+	}
+
+	/**
+	 * Two biomes are similar if they are equal or share the same class. The
+	 * mesa plateaus are only similar to each other.
+	 */
+	public static boolean isSimilar(int id1, int id2) {
+		if (id1 == id2) {
+			return true;
+		} else if (!isValid(id1) || !isValid(id2)) {
+			return false;
+		} else if (id1 == mesaPlateauF || id1 == mesaPlateau) {
+			return id2 == mesaPlateauF || id2 == mesaPlateau;
+		} else {
+			return GROUPS[id1] == GROUPS[id2];
+		}
+	}
+}
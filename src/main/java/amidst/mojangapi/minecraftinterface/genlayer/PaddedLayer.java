@@ -0,0 +1,35 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * A layer computing each value from the value at the same position in its
+ * parent and from the eight surrounding ones.
+ */
+@NotThreadSafe
+public abstract class PaddedLayer extends GenLayer {
+	protected PaddedLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	public int[] getInts(int x, int z, int width, int height) {
+		int stride = width + 2;
+		int[] in = parent.getInts(x - 1, z - 1, stride, height + 2);
+		int[] out = getBuffer(width * height);
+		for (int j = 0; j < height; j++) {
+			for (int i = 0; i < width; i++) {
+				initChunkSeed(x + i, z + j);
+				out[i + j * width] = apply(in, i + 1 + (j + 1) * stride, stride);
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Computes a single value. The neighbours of the center are found at
+	 * center - 1, center + 1, center - stride and center + stride. The chunk
+	 * seed is already initialized for the position.
+	 */
+	protected abstract int apply(int[] in, int center, int stride);
+}
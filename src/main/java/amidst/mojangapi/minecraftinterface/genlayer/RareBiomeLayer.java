@@ -0,0 +1,20 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+import amidst.mojangapi.world.versionfeatures.DefaultBiomes;
+
+@NotThreadSafe
+public class RareBiomeLayer extends PaddedLayer {
+	public RareBiomeLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	protected int apply(int[] in, int center, int stride) {
+		int value = in[center];
+		if (nextInt(57) == 0 && value == DefaultBiomes.plains) {
+			return DefaultBiomes.sunflowerPlains;
+		}
+		return value;
+	}
+}
@@ -0,0 +1,22 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+
+@NotThreadSafe
+public class RemoveTooMuchOceanLayer extends PaddedLayer {
+	public RemoveTooMuchOceanLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	protected int apply(int[] in, int center, int stride) {
+		int value = in[center];
+		if (value == 0
+				&& in[center - stride] == 0 && in[center + 1] == 0
+				&& in[center - 1] == 0 && in[center + stride] == 0
+				&& nextInt(2) == 0) {
+			return 1;
+		}
+		return value;
+	}
+}
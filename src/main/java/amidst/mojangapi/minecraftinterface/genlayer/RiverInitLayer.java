@@ -0,0 +1,28 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * Assigns a random value to the land, rivers are later drawn along the borders
+ * of these values.
+ */
+@NotThreadSafe
+public class RiverInitLayer extends GenLayer {
+	public RiverInitLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	public int[] getInts(int x, int z, int width, int height) {
+		int[] in = parent.getInts(x, z, width, height);
+		int[] out = getBuffer(width * height);
+		for (int j = 0; j < height; j++) {
+			for (int i = 0; i < width; i++) {
+				initChunkSeed(x + i, z + j);
+				int index = i + j * width;
+				out[index] = in[index] > 0 ? nextInt(299999) + 2 : 0;
+			}
+		}
+		return out;
+	}
+}
@@ -0,0 +1,30 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+import amidst.mojangapi.world.versionfeatures.DefaultBiomes;
+
+/**
+ * Draws the rivers along the borders of the river noise.
+ */
+@NotThreadSafe
+public class RiverLayer extends PaddedLayer {
+	public RiverLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	protected int apply(int[] in, int center, int stride) {
+		int value = filter(in[center]);
+		if (value == filter(in[center - 1])
+				&& value == filter(in[center - stride])
+				&& value == filter(in[center + 1])
+				&& value == filter(in[center + stride])) {
+			return -1;
+		}
+		return DefaultBiomes.river;
+	}
+
+	private static int filter(int value) {
+		return value >= 2 ? 2 + (value & 1) : value;
+	}
+}
@@ -0,0 +1,47 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import static amidst.mojangapi.world.versionfeatures.DefaultBiomes.*;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * Combines the biomes with the rivers. This is the quarter-resolution output
+ * of the stack.
+ */
+@NotThreadSafe
+public class RiverMixLayer extends GenLayer {
+	private final GenLayer riverLayer;
+
+	public RiverMixLayer(long salt, GenLayer biomeLayer, GenLayer riverLayer) {
+		super(salt, biomeLayer);
+		this.riverLayer = riverLayer;
+	}
+
+	@Override
+	public void initWorldGenSeed(long seed) {
+		riverLayer.initWorldGenSeed(seed);
+		super.initWorldGenSeed(seed);
+	}
+
+	@Override
+	public int[] getInts(int x, int z, int width, int height) {
+		int[] biomes = parent.getInts(x, z, width, height);
+		int[] rivers = riverLayer.getInts(x, z, width, height);
+		int[] out = getBuffer(width * height);
+		for (int i = 0; i < width * height; i++) {
+			int biome = biomes[i];
+			if (biome != ocean && biome != deepOcean && rivers[i] == river) {
+				if (biome == icePlains) {
+					out[i] = frozenRiver;
+				} else if (biome == mushroomIsland || biome == mushroomIslandShore) {
+					out[i] = mushroomIslandShore;
+				} else {
+					out[i] = rivers[i] & 255;
+				}
+			} else {
+				out[i] = biome;
+			}
+		}
+		return out;
+	}
+}
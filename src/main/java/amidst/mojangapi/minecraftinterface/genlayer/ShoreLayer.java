@@ -0,0 +1,76 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import static amidst.mojangapi.world.versionfeatures.DefaultBiomes.*;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * Adds the beaches and the other shore biomes.
+ */
+@NotThreadSafe
+public class ShoreLayer extends PaddedLayer {
+	public ShoreLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	protected int apply(int[] in, int center, int stride) {
+		int value = in[center];
+		int n = in[center - stride];
+		int e = in[center + 1];
+		int w = in[center - 1];
+		int s = in[center + stride];
+
+		if (value == mushroomIsland) {
+			return isAny(ocean, n, e, w, s) ? mushroomIslandShore : value;
+		} else if (LegacyBiomes.isSameGroup(value, jungle)) {
+			if (!isJungleCompatible(n) || !isJungleCompatible(e)
+					|| !isJungleCompatible(w) || !isJungleCompatible(s)) {
+				return jungleEdge;
+			}
+			return isAnyOceanic(n, e, w, s) ? beach : value;
+		} else if (value == extremeHills || value == extremeHillsPlus || value == extremeHillsEdge) {
+			return replaceIfNeighbourOcean(value, stoneBeach, n, e, w, s);
+		} else if (LegacyBiomes.isSnowy(value)) {
+			return replaceIfNeighbourOcean(value, coldBeach, n, e, w, s);
+		} else if (value == mesa || value == mesaPlateauF) {
+			if (isAnyOceanic(n, e, w, s)) {
+				return value;
+			} else if (isMesa(n) && isMesa(e) && isMesa(w) && isMesa(s)) {
+				return value;
+			} else {
+				return desert;
+			}
+		} else if (value != ocean && value != deepOcean && value != river && value != swampland) {
+			return isAnyOceanic(n, e, w, s) ? beach : value;
+		} else {
+			return value;
+		}
+	}
+
+	private static int replaceIfNeighbourOcean(int value, int replacement, int n, int e, int w, int s) {
+		if (LegacyBiomes.isOceanic(value) || !isAnyOceanic(n, e, w, s)) {
+			return value;
+		}
+		return replacement;
+	}
+
+	private static boolean isJungleCompatible(int id) {
+		return LegacyBiomes.isSameGroup(id, jungle)
+				|| id == jungleEdge || id == jungle || id == jungleHills || id == forest || id == taiga
+				|| LegacyBiomes.isOceanic(id);
+	}
+
+	private static boolean isMesa(int id) {
+		return LegacyBiomes.isSameGroup(id, mesa);
+	}
+
+	private static boolean isAnyOceanic(int n, int e, int w, int s) {
+		return LegacyBiomes.isOceanic(n) || LegacyBiomes.isOceanic(e)
+				|| LegacyBiomes.isOceanic(w) || LegacyBiomes.isOceanic(s);
+	}
+
+	private static boolean isAny(int value, int n, int e, int w, int s) {
+		return n == value || e == value || w == value || s == value;
+	}
+}
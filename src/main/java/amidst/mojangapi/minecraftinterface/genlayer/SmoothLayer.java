@@ -0,0 +1,27 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+
+@NotThreadSafe
+public class SmoothLayer extends PaddedLayer {
+	public SmoothLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	protected int apply(int[] in, int center, int stride) {
+		int w = in[center - 1];
+		int e = in[center + 1];
+		int n = in[center - stride];
+		int s = in[center + stride];
+		if (w == e && n == s) {
+			return nextInt(2) == 0 ? w : n;
+		} else if (n == s) {
+			return n;
+		} else if (w == e) {
+			return w;
+		} else {
+			return in[center];
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * Scales its parent up four times, by assigning each position to the closest
+ * of four randomly jittered cell centers. This is the full-resolution output of
+ * the stack.
+ */
+@NotThreadSafe
+public class VoronoiZoomLayer extends GenLayer {
+	private static final double JITTER = 3.6;
+
+	private int[] zoomed = new int[256];
+
+	public VoronoiZoomLayer(long salt, GenLayer parent) {
+		super(salt, parent);
+	}
+
+	@Override
+	public int[] getInts(int x, int z, int width, int height) {
+		x -= 2;
+		z -= 2;
+		int parentX = x >> 2;
+		int parentZ = z >> 2;
+		int parentWidth = (width >> 2) + 2;
+		int parentHeight = (height >> 2) + 2;
+		int[] in = parent.getInts(parentX, parentZ, parentWidth, parentHeight);
+
+		int zoomedWidth = (parentWidth - 1) << 2;
+		int zoomedHeight = (parentHeight - 1) << 2;
+		if (zoomed.length < zoomedWidth * zoomedHeight) {
+			zoomed = new int[zoomedWidth * zoomedHeight];
+		}
+		for (int j = 0; j < parentHeight - 1; j++) {
+			int topLeft = in[j * parentWidth];
+			int bottomLeft = in[(j + 1) * parentWidth];
+			for (int i = 0; i < parentWidth - 1; i++) {
+				initChunkSeed((i + parentX) << 2, (j + parentZ) << 2);
+				double topLeftX = nextJitter();
+				double topLeftZ = nextJitter();
+				initChunkSeed((i + parentX + 1) << 2, (j + parentZ) << 2);
+				double topRightX = nextJitter() + 4.0;
+				double topRightZ = nextJitter();
+				initChunkSeed((i + parentX) << 2, (j + parentZ + 1) << 2);
+				double bottomLeftX = nextJitter();
+				double bottomLeftZ = nextJitter() + 4.0;
+				initChunkSeed((i + parentX + 1) << 2, (j + parentZ + 1) << 2);
+				double bottomRightX = nextJitter() + 4.0;
+				double bottomRightZ = nextJitter() + 4.0;
+
+				int topRight = in[i + 1 + j * parentWidth] & 255;
+				int bottomRight = in[i + 1 + (j + 1) * parentWidth] & 255;
+				for (int dz = 0; dz < 4; dz++) {
+					int index = ((j << 2) + dz) * zoomedWidth + (i << 2);
+					for (int dx = 0; dx < 4; dx++) {
+						double d0 = (dz - topLeftZ) * (dz - topLeftZ) + (dx - topLeftX) * (dx - topLeftX);
+						double d1 = (dz - topRightZ) * (dz - topRightZ) + (dx - topRightX) * (dx - topRightX);
+						double d2 = (dz - bottomLeftZ) * (dz - bottomLeftZ) + (dx - bottomLeftX) * (dx - bottomLeftX);
+						double d3 = (dz - bottomRightZ) * (dz - bottomRightZ) + (dx - bottomRightX) * (dx - bottomRightX);
+						if (d0 < d1 && d0 < d2 && d0 < d3) {
+							zoomed[index++] = topLeft;
+						} else if (d1 < d0 && d1 < d2 && d1 < d3) {
+							zoomed[index++] = topRight;
+						} else if (d2 < d0 && d2 < d1 && d2 < d3) {
+							zoomed[index++] = bottomLeft;
+						} else {
+							zoomed[index++] = bottomRight;
+						}
+					}
+				}
+				topLeft = topRight;
+				bottomLeft = bottomRight;
+			}
+		}
+
+		int[] out = getBuffer(width * height);
+		for (int j = 0; j < height; j++) {
+			System.arraycopy(zoomed, (j + (z & 3)) * zoomedWidth + (x & 3), out, j * width, width);
+		}
+		return out;
+	}
+
+	private double nextJitter() {
+		return (nextInt(1024) / 1024.0 - 0.5) * JITTER;
+	}
+}
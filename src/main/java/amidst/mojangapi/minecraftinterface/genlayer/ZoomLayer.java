@@ -0,0 +1,73 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import amidst.documentation.NotThreadSafe;
+
+/**
+ * Doubles the resolution of its parent. The fuzzy variant picks a random corner
+ * instead of the most common one.
+ */
+@NotThreadSafe
+public class ZoomLayer extends GenLayer {
+	private final boolean isFuzzy;
+	private int[] zoomed = new int[256];
+
+	public ZoomLayer(long salt, GenLayer parent, boolean isFuzzy) {
+		super(salt, parent);
+		this.isFuzzy = isFuzzy;
+	}
+
+	public ZoomLayer(long salt, GenLayer parent) {
+		this(salt, parent, false);
+	}
+
+	public static GenLayer magnify(long salt, GenLayer parent, int count) {
+		GenLayer result = parent;
+		for (int i = 0; i < count; i++) {
+			result = new ZoomLayer(salt + i, result);
+		}
+		return result;
+	}
+
+	@Override
+	public int[] getInts(int x, int z, int width, int height) {
+		int parentX = x >> 1;
+		int parentZ = z >> 1;
+		int parentWidth = (width >> 1) + 2;
+		int parentHeight = (height >> 1) + 2;
+		int[] in = parent.getInts(parentX, parentZ, parentWidth, parentHeight);
+
+		int zoomedWidth = (parentWidth - 1) << 1;
+		int zoomedHeight = (parentHeight - 1) << 1;
+		if (zoomed.length < zoomedWidth * zoomedHeight) {
+			zoomed = new int[zoomedWidth * zoomedHeight];
+		}
+		for (int j = 0; j < parentHeight - 1; j++) {
+			int index = (j << 1) * zoomedWidth;
+			int topLeft = in[j * parentWidth];
+			int bottomLeft = in[(j + 1) * parentWidth];
+			for (int i = 0; i < parentWidth - 1; i++) {
+				initChunkSeed((i + parentX) << 1, (j + parentZ) << 1);
+				int topRight = in[i + 1 + j * parentWidth];
+				int bottomRight = in[i + 1 + (j + 1) * parentWidth];
+				zoomed[index] = topLeft;
+				zoomed[index + zoomedWidth] = selectRandom(topLeft, bottomLeft);
+				index++;
+				zoomed[index] = selectRandom(topLeft, topRight);
+				zoomed[index + zoomedWidth] = select(topLeft, topRight, bottomLeft, bottomRight);
+				index++;
+				topLeft = topRight;
+				bottomLeft = bottomRight;
+			}
+		}
+
+		int[] out = getBuffer(width * height);
+		for (int j = 0; j < height; j++) {
+			System.arraycopy(zoomed, (j + (z & 1)) * zoomedWidth + (x & 1), out, j * width, width);
+		}
+		return out;
+	}
+
+	private int select(int a, int b, int c, int d) {
+		return isFuzzy ? selectRandom(a, b, c, d) : selectModeOrRandom(a, b, c, d);
+	}
+}
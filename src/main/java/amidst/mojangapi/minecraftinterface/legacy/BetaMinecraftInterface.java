@@ -21,7 +21,7 @@ public class BetaMinecraftInterface implements MinecraftInterface {
     // Values in [0, 16] progressively increase the accuracy of ocean display, set to -1 to
     // disable ocean generation entirely.
     // Vanilla = 16
-    public static final int OCEAN_PRECISION = 4;
+    public static final int OCEAN_PRECISION = 16;
 
     // If set to false, only one layer of noise is generated at Y=64 and used directly, instead of
     // interpolating between two at Y=56 and Y=64. This will introduce inaccuracies, but also
@@ -168,11 +168,19 @@ public class BetaMinecraftInterface implements MinecraftInterface {
                 throw new UnsupportedDimensionException(dimension);
             // The "shapeChunk" method in OverworldLevelSource assumes that its BiomeGenerator was just called for a 16 * 16 area.
             // Thus, we need to generate biomes chunk-based.
-            int[] result = ChunkBasedGen.mapChunkBased(x, y, width, height, useQuarterResolution, this::biomesInChunk);
+            int[] result = ChunkBasedGen.mapChunkBased(x, y, width, height, useQuarterResolution, this::prepareArea);
             return biomeDataMapper.apply(result);
         }
 
-        private int[] biomesInChunk(int chunkZ, int chunkX) throws MinecraftInterfaceException {
+        private ChunkBasedGen.ChunkAccessor prepareArea(int chunkZBegin, int chunkXBegin, int chunkZEnd, int chunkXEnd) {
+            if (!generateOceans)
+                return (chunkZ, chunkX) -> biomesInChunk(chunkZ, chunkX, null);
+            // The 3D noise is sampled for many chunks at once, so the samples on chunk borders are only computed once.
+            NoiseStrips noiseStrips = new NoiseStrips(oceanOracle, chunkXBegin, chunkXEnd, chunkZEnd);
+            return (chunkZ, chunkX) -> biomesInChunk(chunkZ, chunkX, noiseStrips.get(chunkZ));
+        }
+
+        private int[] biomesInChunk(int chunkZ, int chunkX, NoiseArea noiseArea) throws MinecraftInterfaceException {
             try {
                 // Generate real biomes using the BiomeGenerator
                 Object[] biomes = getBiomes(chunkZ, chunkX);
@@ -180,7 +188,7 @@ public class BetaMinecraftInterface implements MinecraftInterface {
                 if (generateOceans) {
                     double[] temperatures = getTemperatures();
                     double[] rainfall = getRainfall();
-                    out = oceanOracle.determineOceans(chunkX, chunkZ, null, temperatures, rainfall);
+                    out = oceanOracle.determineOceans(chunkX, chunkZ, noiseArea, null, temperatures, rainfall);
                 } else {
                     out = new int[256];
                 }
@@ -285,7 +293,7 @@ public class BetaMinecraftInterface implements MinecraftInterface {
     }
 
     // This class is thread-safe
-    private static class OceanOracle {
+    static class OceanOracle {
         // Outputs of determineOceans
         public static final int OCEAN = -1;
         public static final int FROZEN_OCEAN = -2;
@@ -323,10 +331,25 @@ public class BetaMinecraftInterface implements MinecraftInterface {
             this.lowerInterpolationNoise = lowerInterpolationNoise;
         }
 
-        public int[] determineOceans(int chunkX, int chunkZ, int[] oceansIn, double[] temperatureNoises, double[] rainfallNoises) throws InvocationTargetException, IllegalAccessException {
+        /**
+         * Samples the 3D noises for all chunks in the given area. All bounds are inclusive. The noise grid has one
+         * sample every NOISE_POSITION_FACTOR blocks, and neighbouring chunks share the samples on their border.
+         */
+        public NoiseArea sampleArea(int chunkXBegin, int chunkZBegin, int chunkXEnd, int chunkZEnd) {
+            int resX = (chunkXEnd - chunkXBegin + 1) * NOISE_POSITION_FACTOR + 1;
+            int resZ = (chunkZEnd - chunkZBegin + 1) * NOISE_POSITION_FACTOR + 1;
+            int sampleX = chunkXBegin * NOISE_POSITION_FACTOR;
+            int sampleZ = chunkZBegin * NOISE_POSITION_FACTOR;
+            return new NoiseArea(chunkXBegin, chunkZBegin, resZ,
+                    interpolationNoise.sample3d(sampleX, NOISE_HEIGHT_OFFSET, sampleZ, resX, NOISE_HEIGHT, resZ, MAIN_INTERPOLATION_SCALE_XZ, MAIN_INTERPOLATION_SCALE_Y, MAIN_INTERPOLATION_SCALE_XZ),
+                    upperInterpolationNoise.sample3d(sampleX, NOISE_HEIGHT_OFFSET, sampleZ, resX, NOISE_HEIGHT, resZ, OTHER_INTERPOLATION_SCALE, OTHER_INTERPOLATION_SCALE, OTHER_INTERPOLATION_SCALE),
+                    lowerInterpolationNoise.sample3d(sampleX, NOISE_HEIGHT_OFFSET, sampleZ, resX, NOISE_HEIGHT, resZ, OTHER_INTERPOLATION_SCALE, OTHER_INTERPOLATION_SCALE, OTHER_INTERPOLATION_SCALE));
+        }
+
+        public int[] determineOceans(int chunkX, int chunkZ, NoiseArea noiseArea, int[] oceansIn, double[] temperatureNoises, double[] rainfallNoises) throws InvocationTargetException, IllegalAccessException {
             int[] oceans = (oceansIn != null && oceansIn.length >= 16 * 16) ? oceansIn : new int[16 * 16];
 
-            double[] noises = this.calculateNoise(chunkX, chunkZ, NOISE_WIDTH, NOISE_HEIGHT, NOISE_DEPTH, temperatureNoises, rainfallNoises);
+            double[] noises = this.calculateNoise(chunkX, chunkZ, noiseArea, NOISE_WIDTH, NOISE_HEIGHT, NOISE_DEPTH, temperatureNoises, rainfallNoises);
             for (int x = 0; x < 16; ++x) {
                 for (int z = 0; z < 16; ++z) {
                     double noiseAtPoint = NOISE_HEIGHT > 1
@@ -341,17 +364,13 @@ public class BetaMinecraftInterface implements MinecraftInterface {
             return oceans;
         }
 
-        private double[] calculateNoise(int chunkX, int chunkZ, int noiseWidth, int noiseHeight, int noiseDepth, double[] temperatureNoises, double[] rainfallNoises) throws InvocationTargetException, IllegalAccessException {
+        private double[] calculateNoise(int chunkX, int chunkZ, NoiseArea noiseArea, int noiseWidth, int noiseHeight, int noiseDepth, double[] temperatureNoises, double[] rainfallNoises) throws InvocationTargetException, IllegalAccessException {
             double[] noises = new double[noiseWidth * noiseHeight * noiseDepth];
             int sampleX = chunkX * NOISE_POSITION_FACTOR;
             int sampleZ = chunkZ * NOISE_POSITION_FACTOR;
             // All sample methods are thread-safe, thus this doesn't require any locks.
             double[] biomeNoises = (double[]) biomeNoise.callMethod(BetaSymbolicNames.METHOD_PERLIN_OCTAVE_NOISE_SAMPLE_2D, null, sampleX, sampleZ, noiseWidth, noiseDepth, BIOME_NOISE_SCALE, BIOME_NOISE_SCALE, 0);
             double[] depthNoises = (double[]) depthNoise.callMethod(BetaSymbolicNames.METHOD_PERLIN_OCTAVE_NOISE_SAMPLE_2D, null, sampleX, sampleZ, noiseWidth, noiseDepth, DEPTH_NOISE_SCALE, DEPTH_NOISE_SCALE, 0);
-            double[] interpolationNoises = interpolationNoise.sample3d(sampleX, NOISE_HEIGHT_OFFSET, sampleZ, noiseWidth, noiseHeight, noiseDepth, MAIN_INTERPOLATION_SCALE_XZ, MAIN_INTERPOLATION_SCALE_Y, MAIN_INTERPOLATION_SCALE_XZ);
-            double[] upperInterpolationNoises = upperInterpolationNoise.sample3d(sampleX, NOISE_HEIGHT_OFFSET, sampleZ, noiseWidth, noiseHeight, noiseDepth, OTHER_INTERPOLATION_SCALE, OTHER_INTERPOLATION_SCALE, OTHER_INTERPOLATION_SCALE);
-            double[] lowerInterpolationNoises = lowerInterpolationNoise.sample3d(sampleX, NOISE_HEIGHT_OFFSET, sampleZ, noiseWidth, noiseHeight, noiseDepth, OTHER_INTERPOLATION_SCALE, OTHER_INTERPOLATION_SCALE, OTHER_INTERPOLATION_SCALE);
-
             for(int xNoiseIdx = 0; xNoiseIdx < noiseWidth; ++xNoiseIdx) {
                 for(int yNoiseIdx = 0; yNoiseIdx < noiseHeight; ++yNoiseIdx) {
                     for(int zNoiseIdx = 0; zNoiseIdx < noiseDepth; ++zNoiseIdx) {
@@ -366,9 +385,10 @@ public class BetaMinecraftInterface implements MinecraftInterface {
                         double depth = depthNoises[noise2dIdx];
 
                         int noise3dIdx = (xNoiseIdx * noiseDepth + zNoiseIdx) * noiseHeight + yNoiseIdx;
-                        double upperInter = upperInterpolationNoises[noise3dIdx];
-                        double lowerInter = lowerInterpolationNoises[noise3dIdx];
-                        double inter = interpolationNoises[noise3dIdx];
+                        int areaIdx = noiseArea.getIndex(chunkX, chunkZ, xNoiseIdx, yNoiseIdx, zNoiseIdx);
+                        double upperInter = noiseArea.getUpperInterpolationNoise(areaIdx);
+                        double lowerInter = noiseArea.getLowerInterpolationNoise(areaIdx);
+                        double inter = noiseArea.getInterpolationNoise(areaIdx);
 
                         double mergedNoise = mergeNoises(yNoiseIdx,
                                 biome, depth, upperInter, lowerInter, inter, temperature, rainfall);
@@ -462,6 +482,85 @@ public class BetaMinecraftInterface implements MinecraftInterface {
         }
     }
 
+    /**
+     * Samples the noises of the chunks of a request in strips along the Z axis, so a large request never needs the
+     * noises of all its chunks at once. Each strip covers the whole X range of the request and at most
+     * MAX_CHUNKS_PER_STRIP chunks, but always at least one row of chunks. The chunks need to be requested row by row,
+     * like ChunkBasedGen does.
+     * <p>
+     * This class is not thread-safe, it is only used for a single request.
+     */
+    static class NoiseStrips {
+        static final int MAX_CHUNKS_PER_STRIP = 256;
+
+        private final OceanOracle oceanOracle;
+        private final int chunkXBegin;
+        private final int chunkXEnd;
+        private final int chunkZEnd;
+        private final int rowsPerStrip;
+        private NoiseArea strip;
+        private int stripChunkZBegin;
+        private int stripChunkZEnd;
+
+        /** All bounds are inclusive. */
+        public NoiseStrips(OceanOracle oceanOracle, int chunkXBegin, int chunkXEnd, int chunkZEnd) {
+            this.oceanOracle = oceanOracle;
+            this.chunkXBegin = chunkXBegin;
+            this.chunkXEnd = chunkXEnd;
+            this.chunkZEnd = chunkZEnd;
+            this.rowsPerStrip = Math.max(1, MAX_CHUNKS_PER_STRIP / (chunkXEnd - chunkXBegin + 1));
+        }
+
+        /** Returns the strip which contains the row of chunks at chunkZ, the previous strip is dropped. */
+        public NoiseArea get(int chunkZ) {
+            if (strip == null || chunkZ < stripChunkZBegin || chunkZ > stripChunkZEnd) {
+                stripChunkZBegin = chunkZ;
+                stripChunkZEnd = Math.min(chunkZEnd, chunkZ + rowsPerStrip - 1);
+                strip = null;
+                strip = oceanOracle.sampleArea(chunkXBegin, stripChunkZBegin, chunkXEnd, stripChunkZEnd);
+            }
+            return strip;
+        }
+    }
+
+    /** The raw 3D noises of an area of chunks, as sampled by {@link OceanOracle#sampleArea}. Will not be modified. */
+    static class NoiseArea {
+        private final int chunkXBegin;
+        private final int chunkZBegin;
+        private final int resZ;
+        private final double[] interpolationNoises;
+        private final double[] upperInterpolationNoises;
+        private final double[] lowerInterpolationNoises;
+
+        public NoiseArea(int chunkXBegin, int chunkZBegin, int resZ, double[] interpolationNoises, double[] upperInterpolationNoises, double[] lowerInterpolationNoises) {
+            this.chunkXBegin = chunkXBegin;
+            this.chunkZBegin = chunkZBegin;
+            this.resZ = resZ;
+            this.interpolationNoises = interpolationNoises;
+            this.upperInterpolationNoises = upperInterpolationNoises;
+            this.lowerInterpolationNoises = lowerInterpolationNoises;
+        }
+
+        /** Returns the index of a noise sample of the given chunk, with the sample indices relative to the chunk. */
+        public int getIndex(int chunkX, int chunkZ, int xNoiseIdx, int yNoiseIdx, int zNoiseIdx) {
+            int areaX = (chunkX - chunkXBegin) * OceanOracle.NOISE_POSITION_FACTOR + xNoiseIdx;
+            int areaZ = (chunkZ - chunkZBegin) * OceanOracle.NOISE_POSITION_FACTOR + zNoiseIdx;
+            return (areaX * resZ + areaZ) * OceanOracle.NOISE_HEIGHT + yNoiseIdx;
+        }
+
+        public double getInterpolationNoise(int index) {
+            return interpolationNoises[index];
+        }
+
+        public double getUpperInterpolationNoise(int index) {
+            return upperInterpolationNoises[index];
+        }
+
+        public double getLowerInterpolationNoise(int index) {
+            return lowerInterpolationNoises[index];
+        }
+    }
+
     /**
      * A custom implementation of perlin octave noise to speed up interpolation noises
      * <p>
@@ -477,7 +576,7 @@ public class BetaMinecraftInterface implements MinecraftInterface {
      * <p>
      * This class is immutable and thus thread-safe.
      */
-    private static class PerlinOctaveNoise {
+    static class PerlinOctaveNoise {
         private final PerlinNoise[] octaves; // will not be modified
         private final int firstOctave;
 
@@ -514,7 +613,7 @@ public class BetaMinecraftInterface implements MinecraftInterface {
     }
 
     // This class is immutable, thus thread-safe.
-    private static class PerlinNoise {
+    static class PerlinNoise {
         private final int[] permutations; // will not be modified
         private final double xOffset;
         private final double yOffset;
@@ -536,32 +635,81 @@ public class BetaMinecraftInterface implements MinecraftInterface {
             );
         }
 
+        /**
+         * Everything which only depends on a single coordinate is computed once per row, so the innermost loop is
+         * left with the permutation lookups and the gradients. The results are bit-for-bit identical to sampling
+         * each point on its own.
+         */
         public void sample(double[] array, double x, double y, double z, int resX, int resY, int resZ, double xScale, double yScale, double zScale, double scale) {
+            int[] cubeXs = new int[resX];
+            double[] xPositions = new double[resX];
+            double[] us = new double[resX];
+            for (int xIdx = 0; xIdx < resX; ++xIdx) {
+                double xPos = (x + xIdx) * xScale + xOffset;
+                cubeXs[xIdx] = (int) Math.floor(xPos) & 255;
+                xPositions[xIdx] = xPos - Math.floor(xPos);
+                us[xIdx] = fade(xPositions[xIdx]);
+            }
+
+            int[] cubeZs = new int[resZ];
+            double[] zPositions = new double[resZ];
+            double[] ws = new double[resZ];
+            for (int zIdx = 0; zIdx < resZ; ++zIdx) {
+                double zPos = (z + zIdx) * zScale + zOffset;
+                cubeZs[zIdx] = (int) Math.floor(zPos) & 255;
+                zPositions[zIdx] = zPos - Math.floor(zPos);
+                ws[zIdx] = fade(zPositions[zIdx]);
+            }
+
+            // Minecraft re-uses the lerps from the previous y value if cubeY didn't change.
+            // This is incorrect, as the lerps depend on yPos, not cubeY, so we need to figure out
+            // which yPos minecraft would have used to generate the lerps for each index.
+            int[] lerpCubeYs = new int[resY];
+            double[] lerpYPositions = new double[resY];
+            double[] vs = new double[resY];
+            for (int yIdx = 0; yIdx < resY; ++yIdx) {
+                double yPos = (y + yIdx) * yScale + yOffset;
+                int cubeY = (int) Math.floor(yPos) & 255;
+                vs[yIdx] = fade(yPos - Math.floor(yPos));
+
+                int lastY = findLastLerpIndex(yScale, (int) Math.round(y + yIdx), cubeY);
+                double lerpYPos = lastY * yScale + yOffset;
+                lerpCubeYs[yIdx] = (int) Math.floor(lerpYPos) & 255;
+                lerpYPositions[yIdx] = lerpYPos - Math.floor(lerpYPos);
+            }
+
+            double amplitude = 1 / scale;
             for (int xIdx = 0; xIdx < resX; ++xIdx) {
-                for (int zIdx = 0; zIdx < resZ; ++zIdx) {
-                    for (int yIdx = 0; yIdx < resY; ++yIdx) {
-                        double xPos = (x + xIdx) * xScale + xOffset;
-                        double yPos = (y + yIdx) * yScale + yOffset;
-                        double zPos = (z + zIdx) * zScale + zOffset;
-
-                        // The below is basically just perlinNoise(xPos, yPos, zPos), but some adjustments for Mojank.
-                        int cubeX = (int) Math.floor(xPos) & 255;
-                        int cubeY = (int) Math.floor(yPos) & 255;
-                        int cubeZ = (int) Math.floor(zPos) & 255;
-                        xPos -= Math.floor(xPos);
-                        yPos -= Math.floor(yPos);
-                        zPos -= Math.floor(zPos);
-                        double u = fade(xPos);
-                        double v = fade(yPos);
-                        double w = fade(zPos);
-
-                        // Minecraft re-uses the lerps from the previous y value if cubeY didn't change.
-                        // This is incorrect, as the lerps depend on yPos, not cubeY, so we need to figure out
-                        // which yPos minecraft would have used to generate the lerps for this index.
-                        int lastY = findLastLerpIndex(yScale, (int) Math.round(y + yIdx), cubeY);
-                        double[] lerps = calcBuggedLerps(yScale, xPos, zPos, cubeX, cubeZ, u, lastY);
-
-                        array[xIdx * resZ * resY + zIdx * resY + yIdx] += lerp(w, lerp(v, lerps[0], lerps[1]), lerp(v, lerps[2], lerps[3])) * (1 / scale);
+                int cubeX = cubeXs[xIdx];
+                double xPos = xPositions[xIdx];
+                double u = us[xIdx];
+                for (int yIdx = 0; yIdx < resY; ++yIdx) {
+                    double yPos = lerpYPositions[yIdx];
+                    double v = vs[yIdx];
+                    int A = permutations[cubeX] + lerpCubeYs[yIdx];
+                    int B = permutations[cubeX + 1] + lerpCubeYs[yIdx];
+                    int permA = permutations[A];
+                    int permA1 = permutations[A + 1];
+                    int permB = permutations[B];
+                    int permB1 = permutations[B + 1];
+                    for (int zIdx = 0; zIdx < resZ; ++zIdx) {
+                        double zPos = zPositions[zIdx];
+                        int cubeZ = cubeZs[zIdx];
+                        int AA = permA + cubeZ;
+                        int AB = permA1 + cubeZ;
+                        int BA = permB + cubeZ;
+                        int BB = permB1 + cubeZ;
+
+                        double lerp0 = lerp(u, grad(permutations[AA], xPos, yPos, zPos),
+                                grad(permutations[BA], xPos - 1, yPos, zPos));
+                        double lerp1 = lerp(u, grad(permutations[AB], xPos, yPos - 1, zPos),
+                                grad(permutations[BB], xPos - 1, yPos - 1, zPos));
+                        double lerp2 = lerp(u, grad(permutations[AA + 1], xPos, yPos, zPos - 1),
+                                grad(permutations[BA + 1], xPos - 1, yPos, zPos - 1));
+                        double lerp3 = lerp(u, grad(permutations[AB + 1], xPos, yPos - 1, zPos - 1),
+                                grad(permutations[BB + 1], xPos - 1, yPos - 1, zPos - 1));
+
+                        array[xIdx * resZ * resY + zIdx * resY + yIdx] += lerp(ws[zIdx], lerp(v, lerp0, lerp1), lerp(v, lerp2, lerp3)) * amplitude;
                     }
                 }
             }
@@ -579,29 +727,6 @@ public class BetaMinecraftInterface implements MinecraftInterface {
             return searchIdx + 1;
         }
 
-        private double[] calcBuggedLerps(double yScale, double xPos, double zPos, int cubeX, int cubeZ, double u, int yIdx) {
-            double yPos = yIdx * yScale + yOffset;
-            int cubeY = (int) Math.floor(yPos) & 255;
-            yPos -= Math.floor(yPos);
-            int A = permutations[cubeX] + cubeY;
-            int AA = permutations[A] + cubeZ;
-            int AB = permutations[A + 1] + cubeZ;
-            int B = permutations[cubeX + 1] + cubeY;
-            int BA = permutations[B] + cubeZ;
-            int BB = permutations[B + 1] + cubeZ;
-
-            double[] lerps = new double[4];
-            lerps[0] = lerp(u, grad(permutations[AA], xPos, yPos, zPos),
-                    grad(permutations[BA], xPos - 1, yPos, zPos));
-            lerps[1] = lerp(u, grad(permutations[AB], xPos, yPos - 1, zPos),
-                    grad(permutations[BB], xPos - 1, yPos - 1, zPos));
-            lerps[2] = lerp(u, grad(permutations[AA + 1], xPos, yPos, zPos - 1),
-                    grad(permutations[BA + 1], xPos - 1, yPos, zPos - 1));
-            lerps[3] = lerp(u, grad(permutations[AB + 1], xPos, yPos - 1, zPos - 1),
-                    grad(permutations[BB + 1], xPos - 1, yPos - 1, zPos - 1));
-            return lerps;
-        }
-
         public static double fade(double t) {
             return t * t * t * (t * (t * 6 - 15) + 10);
         }
@@ -610,11 +735,18 @@ public class BetaMinecraftInterface implements MinecraftInterface {
             return a + t * (b - a);
         }
 
+        // The gradient directions of grad(), as factors for x, y and z. Looking them up instead of branching on the
+        // hash avoids a mispredicted branch for nearly every gradient, which used to dominate the sampling time.
+        // Multiplying by 0 can only change the sign of a zero result, which is lost when the octaves are summed up.
+        // @formatter:off
+        private static final double[] GRADIENT_X = { 1, -1,  1, -1,  1, -1,  1, -1,  0,  0,  0,  0,  1,  0, -1,  0 };
+        private static final double[] GRADIENT_Y = { 1,  1, -1, -1,  0,  0,  0,  0,  1, -1,  1, -1,  1, -1,  1, -1 };
+        private static final double[] GRADIENT_Z = { 0,  0,  0,  0,  1,  1, -1, -1,  1,  1, -1, -1,  0,  1,  0, -1 };
+        // @formatter:on
+
         public static double grad(int hash, double x, double y, double z) {
             int h = hash & 15;
-            double u = h < 8 ? x : y;
-            double v = h < 4 ? y : h == 12 || h == 14 ? x : z;
-            return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
+            return GRADIENT_X[h] * x + GRADIENT_Y[h] * y + GRADIENT_Z[h] * z;
         }
     }
 }
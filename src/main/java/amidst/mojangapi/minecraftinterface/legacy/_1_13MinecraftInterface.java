@@ -12,6 +12,7 @@ import java.util.function.Function;
 import amidst.clazz.symbolic.SymbolicClass;
 import amidst.clazz.symbolic.SymbolicObject;
 import amidst.logging.AmidstLogger;
+import amidst.mojangapi.minecraftinterface.BiomeIdCache;
 import amidst.mojangapi.minecraftinterface.MinecraftInterface;
 import amidst.mojangapi.minecraftinterface.MinecraftInterfaceException;
 import amidst.mojangapi.minecraftinterface.RecognisedVersion;
@@ -262,6 +263,17 @@ public class _1_13MinecraftInterface implements MinecraftInterface {
 		 */
 		private final Object fullResolutionBiomeGenerator;
 
+		/**
+		 * Caches the ids of the biome objects returned by the GenLayers.
+		 */
+		private final BiomeIdCache biomeIds = new BiomeIdCache(biome -> {
+			if (biomeRegistry != null) {
+				return (int) biomeGetIdMethod.invokeExact(biomeRegistry, biome);
+			} else {
+				return (int) biomeGetIdMethod.invokeExact(biome);
+			}
+		});
+
 		private WorldAccessor(Object quarterResolutionGen, Object fullResolutionGen) {
 			this.quarterResolutionBiomeGenerator = quarterResolutionGen;
 			this.fullResolutionBiomeGenerator = fullResolutionGen;
@@ -335,11 +347,7 @@ public class _1_13MinecraftInterface implements MinecraftInterface {
 
 		private int getBiomeId(Object biome) throws MinecraftInterfaceException {
 			try {
-				if (biomeRegistry != null) {
-					return (int) biomeGetIdMethod.invokeExact(biomeRegistry, biome);
-				} else {
-					return (int) biomeGetIdMethod.invokeExact(biome);
-				}
+				return biomeIds.getId(biome);
 			} catch (Throwable e) {
 				e.printStackTrace();
 				throw new MinecraftInterfaceException("unable to get biome data", e);
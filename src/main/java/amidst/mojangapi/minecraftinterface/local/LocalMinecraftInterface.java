@@ -20,6 +20,7 @@ import java.util.function.Function;
 import amidst.clazz.symbolic.SymbolicClass;
 import amidst.clazz.symbolic.SymbolicObject;
 import amidst.logging.AmidstLogger;
+import amidst.mojangapi.minecraftinterface.BiomeIdCache;
 import amidst.mojangapi.minecraftinterface.MinecraftInterface;
 import amidst.mojangapi.minecraftinterface.MinecraftInterfaceException;
 import amidst.mojangapi.minecraftinterface.RecognisedVersion;
@@ -292,6 +293,11 @@ public class LocalMinecraftInterface implements MinecraftInterface {
 	     * It is derived from the world seed.
 	     */
 		private final long seedForBiomeZoomer;
+		/**
+		 * Caches the registry ids of the biome objects returned by this world.
+		 */
+		private final BiomeIdCache biomeIds = new BiomeIdCache(
+				biome -> (int) registryGetIdMethod.invokeExact(biomeRegistry, biome));
 
 	    private WorldAccessor(Object overworldBiomeProvider, Object netherBiomeProvider, Object biomeZoomer, long seedForBiomeZoomer) {
 	    	this.seedForBiomeZoomer = seedForBiomeZoomer;
@@ -340,13 +346,7 @@ public class LocalMinecraftInterface implements MinecraftInterface {
 
 		                for (int y0 = 0; y0 < height; y0 += chunkSize) {
 		                    int h = Math.min(chunkSize, height - y0);
-
-		                    for (int i = 0; i < w; i++) {
-		                        for (int j = 0; j < h; j++) {
-		                            int trueIdx = (x0 + i) + (y0 + j) * width;
-		                            data[trueIdx] = getBiomeIdAt(biomeProvider, biomeHeight, x + x0 + i, y + y0 + j, useQuarterResolution);
-		                        }
-		                    }
+		                    fillBiomeRegion(data, width, biomeProvider, biomeHeight, x, y, x0, y0, w, h, useQuarterResolution);
 		                }
 		            }
 			    } catch (Throwable e) {
@@ -362,14 +362,38 @@ public class LocalMinecraftInterface implements MinecraftInterface {
 			return SUPPORTED_DIMENSIONS;
 		}
 
+		/**
+		 * Fills the w*h region starting at (x0, y0) of the row-major data array.
+		 * Neighbouring samples are very likely to share the same biome object, so
+		 * we remember the last one to skip the id lookup entirely most of the time.
+		 */
+		private void fillBiomeRegion(int[] data, int width, Object biomeProvider, int biomeHeight,
+				int x, int y, int x0, int y0, int w, int h, boolean useQuarterResolution) throws Throwable {
+		    Object lastBiome = null;
+		    int lastId = 0;
+		    for (int j = 0; j < h; j++) {
+		        int rowIdx = x0 + (y0 + j) * width;
+		        for (int i = 0; i < w; i++) {
+		            Object biome = getBiomeAt(biomeProvider, biomeHeight, x + x0 + i, y + y0 + j, useQuarterResolution);
+		            if (biome != lastBiome) {
+		                lastId = biomeIds.getId(biome);
+		                lastBiome = biome;
+		            }
+		            data[rowIdx + i] = lastId;
+		        }
+		    }
+		}
+
 		private int getBiomeIdAt(Object biomeProvider, int biomeHeight, int x, int y, boolean useQuarterResolution) throws Throwable {
-		    Object biome;
+		    return biomeIds.getId(getBiomeAt(biomeProvider, biomeHeight, x, y, useQuarterResolution));
+		}
+
+		private Object getBiomeAt(Object biomeProvider, int biomeHeight, int x, int y, boolean useQuarterResolution) throws Throwable {
 		    if(useQuarterResolution) {
-		        biome = biomeProviderGetBiomeMethod.invokeExact(biomeProvider, x, biomeHeight, y);
+		        return biomeProviderGetBiomeMethod.invokeExact(biomeProvider, x, biomeHeight, y);
 		    } else {
-		        biome = biomeZoomerGetBiomeMethod.invokeExact(biomeZoomer, seedForBiomeZoomer, x, biomeHeight, y, biomeProvider);
+		        return biomeZoomerGetBiomeMethod.invokeExact(biomeZoomer, seedForBiomeZoomer, x, biomeHeight, y, biomeProvider);
 		    }
-		    return (int) registryGetIdMethod.invokeExact(biomeRegistry, biome);
 		}
 	}
 }
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import amidst.documentation.ThreadSafe;
+import amidst.mojangapi.minecraftinterface.BiomeSampleCache;
 import amidst.mojangapi.minecraftinterface.RecognisedVersion;
 import amidst.mojangapi.world.biome.BiomeList;
 import amidst.mojangapi.world.icon.WorldIcon;
@@ -38,6 +39,7 @@ public class World {
 	private final WorldIconProducer<Void> oceanFeaturesProducer;
 	private final WorldIconProducer<Void> netherFortressProducer;
 	private final WorldIconProducer<List<EndIsland>> endCityProducer;
+	private final BiomeSampleCache biomeSampleCache;
 
 	public World(
 			WorldOptions worldOptions,
@@ -59,7 +61,8 @@ public class World {
 			WorldIconProducer<Void> woodlandMansionProducer,
 			WorldIconProducer<Void> oceanFeaturesProducer,
 			WorldIconProducer<Void> netherFortressProducer,
-			WorldIconProducer<List<EndIsland>> endCityProducer) {
+			WorldIconProducer<List<EndIsland>> endCityProducer,
+			BiomeSampleCache biomeSampleCache) {
 		this.worldOptions = worldOptions;
 		this.movablePlayerList = movablePlayerList;
 		this.recognisedVersion = recognisedVersion;
@@ -80,6 +83,7 @@ public class World {
 		this.oceanFeaturesProducer = oceanFeaturesProducer;
 		this.netherFortressProducer = netherFortressProducer;
 		this.endCityProducer = endCityProducer;
+		this.biomeSampleCache = biomeSampleCache;
 	}
 
 	public WorldOptions getWorldOptions() {
@@ -162,6 +166,10 @@ public class World {
 		return oceanFeaturesProducer;
 	}
 
+	public BiomeSampleCache getBiomeSampleCache() {
+		return biomeSampleCache;
+	}
+
 	public WorldIcon getSpawnWorldIcon() {
 		return spawnProducer.getFirstWorldIcon();
 	}
@@ -1,11 +1,14 @@
 package amidst.mojangapi.world;
 
 import java.io.IOException;
+import java.util.function.IntSupplier;
 
 import amidst.documentation.Immutable;
 import amidst.mojangapi.file.ImmutablePlayerInformationProvider;
 import amidst.mojangapi.file.PlayerInformationProvider;
 import amidst.mojangapi.file.SaveGame;
+import amidst.mojangapi.minecraftinterface.BiomeSampleCache;
+import amidst.mojangapi.minecraftinterface.BiomeTileStore;
 import amidst.mojangapi.minecraftinterface.LoggingMinecraftInterface;
 import amidst.mojangapi.minecraftinterface.MinecraftInterface;
 import amidst.mojangapi.minecraftinterface.MinecraftInterfaceException;
@@ -26,38 +29,59 @@ import amidst.mojangapi.world.versionfeatures.VersionFeatures;
 @Immutable
 public class WorldBuilder {
 	/**
-	 * Create a new WorldBuilder that does not log any seeds and that provides
-	 * the singleplayer player information for each requested player.
+	 * Create a new WorldBuilder that does not log any seeds, does not store
+	 * any biome data on disk and that provides the singleplayer player
+	 * information for each requested player.
 	 */
 	public static WorldBuilder createSilentPlayerless() {
 		return new WorldBuilder(
 				new ImmutablePlayerInformationProvider(PlayerInformation.theSingleplayerPlayer()),
-				SeedHistoryLogger.createDisabled());
+				SeedHistoryLogger.createDisabled(),
+				BiomeTileStore.createDisabled(),
+				() -> 1);
 	}
 
 	private final PlayerInformationProvider playerInformationProvider;
 	private final SeedHistoryLogger seedHistoryLogger;
+	private final BiomeTileStore biomeTileStore;
+	private final IntSupplier threads;
 
-	public WorldBuilder(PlayerInformationProvider playerInformationProvider, SeedHistoryLogger seedHistoryLogger) {
+	/**
+	 * @param threads The number of threads loading fragments. The worlds
+	 *            created by this builder keep at most one more Minecraft world
+	 *            accessor than that, so other worker threads can still make
+	 *            progress while all fragment workers are busy.
+	 */
+	public WorldBuilder(
+			PlayerInformationProvider playerInformationProvider,
+			SeedHistoryLogger seedHistoryLogger,
+			BiomeTileStore biomeTileStore,
+			IntSupplier threads) {
 		this.playerInformationProvider = playerInformationProvider;
 		this.seedHistoryLogger = seedHistoryLogger;
+		this.biomeTileStore = biomeTileStore;
+		this.threads = threads;
 	}
 
 	public World from(
 			MinecraftInterface minecraftInterface,
 			WorldOptions worldOptions) throws MinecraftInterfaceException {
-		VersionFeatures versionFeatures = initInterfaceAndGetFeatures(worldOptions, minecraftInterface);
+		BiomeSampleCache biomeSampleCache = initInterfaceAndCreateWorldAccessor(worldOptions, minecraftInterface);
+		VersionFeatures versionFeatures = getFeatures(worldOptions, biomeSampleCache, minecraftInterface);
 		return create(
 				minecraftInterface.getRecognisedVersion(),
 				MovablePlayerList.dummy(),
 				versionFeatures,
-				versionFeatures.get(FeatureKey.WORLD_SPAWN_ORACLE));
+				versionFeatures.get(FeatureKey.WORLD_SPAWN_ORACLE),
+				biomeSampleCache);
 	}
 
 	public World fromSaveGame(MinecraftInterface minecraftInterface, SaveGame saveGame)
 			throws IOException,
 			MinecraftInterfaceException {
-		VersionFeatures versionFeatures = initInterfaceAndGetFeatures(WorldOptions.fromSaveGame(saveGame), minecraftInterface);
+		WorldOptions worldOptions = WorldOptions.fromSaveGame(saveGame);
+		BiomeSampleCache biomeSampleCache = initInterfaceAndCreateWorldAccessor(worldOptions, minecraftInterface);
+		VersionFeatures versionFeatures = getFeatures(worldOptions, biomeSampleCache, minecraftInterface);
 		return create(
 				minecraftInterface.getRecognisedVersion(),
 				new MovablePlayerList(
@@ -66,25 +90,40 @@ public class WorldBuilder {
 					true,
 					WorldPlayerType.from(saveGame)),
 				versionFeatures,
-				new ImmutableWorldSpawnOracle(saveGame.getWorldSpawn()));
+				new ImmutableWorldSpawnOracle(saveGame.getWorldSpawn()),
+				biomeSampleCache);
 	}
 
-	private VersionFeatures initInterfaceAndGetFeatures(WorldOptions worldOptions, MinecraftInterface minecraftInterface)
+	private BiomeSampleCache initInterfaceAndCreateWorldAccessor(WorldOptions worldOptions, MinecraftInterface minecraftInterface)
 		throws MinecraftInterfaceException {
 		RecognisedVersion recognisedVersion = minecraftInterface.getRecognisedVersion();
 		if(minecraftInterface instanceof LoggingMinecraftInterface) {
 			((LoggingMinecraftInterface) minecraftInterface).logNextAccessor();
 		}
-		MinecraftInterface.WorldAccessor worldAccessor = new ThreadedWorldAccessor(v -> minecraftInterface.createWorldAccessor(worldOptions));
+		MinecraftInterface.WorldAccessor worldAccessor = biomeTileStore.wrap(
+				new ThreadedWorldAccessor(
+						v -> minecraftInterface.createWorldAccessor(worldOptions),
+						() -> threads.getAsInt() + 1),
+				recognisedVersion,
+				minecraftInterface.getGeneratorId(),
+				worldOptions);
 		seedHistoryLogger.log(recognisedVersion, worldOptions.getWorldSeed());
-		return DefaultVersionFeatures.builder(worldOptions, worldAccessor).create(recognisedVersion);
+		return new BiomeSampleCache(worldAccessor);
+	}
+
+	private VersionFeatures getFeatures(
+			WorldOptions worldOptions,
+			MinecraftInterface.WorldAccessor worldAccessor,
+			MinecraftInterface minecraftInterface) throws MinecraftInterfaceException {
+		return DefaultVersionFeatures.builder(worldOptions, worldAccessor).create(minecraftInterface.getRecognisedVersion());
 	}
 
 	private World create(
 			RecognisedVersion recognisedVersion,
 			MovablePlayerList movablePlayerList,
 			VersionFeatures versionFeatures,
-			WorldSpawnOracle worldSpawnOracle) throws MinecraftInterfaceException {
+			WorldSpawnOracle worldSpawnOracle,
+			BiomeSampleCache biomeSampleCache) throws MinecraftInterfaceException {
 
 		return new World(
 				versionFeatures.get(FeatureKey.WORLD_OPTIONS),
@@ -121,6 +160,7 @@ public class WorldBuilder {
 						versionFeatures.get(FeatureKey.NETHER_FORTRESS_PRODUCER),
 						versionFeatures.get(FeatureKey.BASTION_REMNANT_PRODUCER)
 				),
-				versionFeatures.get(FeatureKey.END_CITY_PRODUCER));
+				versionFeatures.get(FeatureKey.END_CITY_PRODUCER),
+				biomeSampleCache);
 	}
 }
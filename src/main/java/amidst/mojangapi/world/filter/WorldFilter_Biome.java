@@ -4,9 +4,13 @@ import java.util.Set;
 
 import amidst.documentation.NotThreadSafe;
 import amidst.mojangapi.world.World;
+import amidst.mojangapi.world.coordinates.Resolution;
+import amidst.mojangapi.world.oracle.BiomeDataOracle;
 
 @NotThreadSafe
 public class WorldFilter_Biome extends WorldFilter {
+	private static final int TILE_SIZE = Resolution.QUARTER.getStepsPerFragment();
+
 	private final Set<Short> validBiomeIndexes;
 
 	public WorldFilter_Biome(long worldFilterSize, Set<Short> validBiomeIndexes) {
@@ -14,16 +18,39 @@ public class WorldFilter_Biome extends WorldFilter {
 		this.validBiomeIndexes = validBiomeIndexes;
 	}
 
+	/**
+	 * The area is split into tiles which are generated one after another, so
+	 * the remaining tiles are not generated as soon as one of them contains a
+	 * valid biome. The tiles are generated by the calling thread, so nothing is
+	 * left running after the filter returns.
+	 */
 	@Override
 	public boolean isValid(World world) {
 		int size = (int) (this.quarterFilterSize * 2);
-		return world.getOverworldBiomeDataOracle().getBiomeData(corner, size, size, true, data -> {
-			for (int biome: data) {
-				if (validBiomeIndexes.contains((short) biome)) {
+		BiomeDataOracle biomeDataOracle = world.getOverworldBiomeDataOracle();
+		for (int y = 0; y < size; y += TILE_SIZE) {
+			for (int x = 0; x < size; x += TILE_SIZE) {
+				boolean isValid = biomeDataOracle.getBiomeData(
+						corner.add(Resolution.QUARTER.convertFromThisToWorld(x), Resolution.QUARTER.convertFromThisToWorld(y)),
+						Math.min(TILE_SIZE, size - x),
+						Math.min(TILE_SIZE, size - y),
+						true,
+						this::containsValidBiome,
+						() -> false);
+				if (isValid) {
 					return true;
 				}
 			}
-			return false;
-		}, () -> false);
+		}
+		return false;
+	}
+
+	private boolean containsValidBiome(int[] data) {
+		for (int biome : data) {
+			if (validBiomeIndexes.contains((short) biome)) {
+				return true;
+			}
+		}
+		return false;
 	}
 }
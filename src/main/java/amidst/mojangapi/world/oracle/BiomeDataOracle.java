@@ -1,6 +1,8 @@
 package amidst.mojangapi.world.oracle;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -8,6 +10,7 @@ import java.util.function.Supplier;
 import amidst.documentation.ThreadSafe;
 import amidst.logging.AmidstLogger;
 import amidst.logging.AmidstMessageBox;
+import amidst.mojangapi.minecraftinterface.BiomeTile;
 import amidst.mojangapi.minecraftinterface.MinecraftInterface;
 import amidst.mojangapi.minecraftinterface.MinecraftInterfaceException;
 import amidst.mojangapi.world.Dimension;
@@ -66,6 +69,33 @@ public class BiomeDataOracle {
 		}
 	}
 
+	// Write biome data directly into the destination as a row-major short array; or return false if an error occured.
+	// width and height represent the number of samples, NOT the size of the region in the world.
+	public boolean getBiomeData(CoordinatesInWorld corner, int width, int height, boolean useQuarterResolution,
+			short[] destination) {
+		Resolution resolution = Resolution.from(useQuarterResolution);
+		int left = (int) corner.getXAs(resolution);
+		int top = (int) corner.getYAs(resolution);
+		try {
+			worldAccessor.getBiomeData(dimension, left, top, width, height, useQuarterResolution, destination);
+			return true;
+		} catch (MinecraftInterfaceException e) {
+			AmidstLogger.error(e);
+			AmidstMessageBox.displayError("Error", e);
+			return false;
+		}
+	}
+
+	// Generate the biome data on the given executor. The future completes exceptionally if an error occured.
+	// width and height represent the number of samples, NOT the size of the region in the world.
+	public CompletableFuture<BiomeTile> getBiomeTileAsync(CoordinatesInWorld corner, int width, int height,
+			boolean useQuarterResolution, Executor executor) {
+		Resolution resolution = Resolution.from(useQuarterResolution);
+		int left = (int) corner.getXAs(resolution);
+		int top = (int) corner.getYAs(resolution);
+		return worldAccessor.getBiomeTileAsync(dimension, left, top, width, height, useQuarterResolution, executor);
+	}
+
 	public boolean isValidBiomeAtMiddleOfChunk(int chunkX, int chunkY, List<Biome> validBiomes) {
 		return isValidBiome(getMiddleOfChunk(chunkX), getMiddleOfChunk(chunkY), validBiomes);
 	}
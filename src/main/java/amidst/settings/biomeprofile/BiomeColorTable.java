@@ -0,0 +1,61 @@
+package amidst.settings.biomeprofile;
+
+import java.util.Map;
+
+import amidst.documentation.Immutable;
+import amidst.mojangapi.world.biome.BiomeColor;
+
+/**
+ * The colors of a biome profile in arrays indexed by the biome id, so looking
+ * up the color of a biome neither hashes nor boxes the id. All biome colors
+ * are opaque, so 0 is used for biomes which are not part of the profile.
+ */
+@Immutable
+public class BiomeColorTable {
+	public static final int UNKNOWN = 0;
+
+	public static BiomeColorTable from(Map<Integer, BiomeColor> biomeColors) {
+		int size = 0;
+		for (int id : biomeColors.keySet()) {
+			size = Math.max(size, id + 1);
+		}
+		int[] rgb = new int[size];
+		int[] hiddenRGB = new int[size];
+		biomeColors.forEach((id, color) -> {
+			if (id >= 0) {
+				rgb[id] = color.getRGB();
+				hiddenRGB[id] = color.getHiddenRGB();
+			}
+		});
+		return new BiomeColorTable(rgb, hiddenRGB);
+	}
+
+	private final int[] rgb;
+	private final int[] hiddenRGB;
+
+	private BiomeColorTable(int[] rgb, int[] hiddenRGB) {
+		this.rgb = rgb;
+		this.hiddenRGB = hiddenRGB;
+	}
+
+	/**
+	 * All biome ids in the profile are lower than this.
+	 */
+	public int size() {
+		return rgb.length;
+	}
+
+	/**
+	 * Returns {@link #UNKNOWN} if the biome is not part of the profile.
+	 */
+	public int getRGB(int id) {
+		return id >= 0 && id < rgb.length ? rgb[id] : UNKNOWN;
+	}
+
+	/**
+	 * Returns {@link #UNKNOWN} if the biome is not part of the profile.
+	 */
+	public int getHiddenRGB(int id) {
+		return id >= 0 && id < hiddenRGB.length ? hiddenRGB[id] : UNKNOWN;
+	}
+}
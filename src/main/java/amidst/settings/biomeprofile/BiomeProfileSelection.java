@@ -11,8 +11,9 @@ import amidst.mojangapi.world.biome.UnknownBiomeIdException;
 
 @ThreadSafe
 public class BiomeProfileSelection {
-	private ConcurrentHashMap<Integer, BiomeColor> biomeColors;
-	private Set<Integer> unknownBiomes;
+	private volatile ConcurrentHashMap<Integer, BiomeColor> biomeColors;
+	private volatile BiomeColorTable biomeColorTable;
+	private volatile Set<Integer> unknownBiomes;
 
 	public BiomeProfileSelection(BiomeProfile biomeProfile) {
 		set(biomeProfile);
@@ -31,6 +32,27 @@ public class BiomeProfileSelection {
 		}
 	}
 
+	/**
+	 * Same as getBiomeColorOrUnknown(index).getRGB(), but without the map
+	 * lookup for the biomes of the profile.
+	 */
+	public int getRGBOrUnknown(int index) {
+		int result = biomeColorTable.getRGB(index);
+		if (result != BiomeColorTable.UNKNOWN) {
+			return result;
+		} else {
+			return getBiomeColorOrUnknown(index).getRGB();
+		}
+	}
+
+	/**
+	 * The table is replaced as a whole when another profile is selected, so
+	 * callers can keep the returned instance until the profile changes.
+	 */
+	public BiomeColorTable getBiomeColorTable() {
+		return biomeColorTable;
+	}
+
 	public BiomeColor getBiomeColor(int index) throws UnknownBiomeIdException {
 		BiomeColor color = biomeColors.get(index);
 		if(color != null) {
@@ -41,8 +63,10 @@ public class BiomeProfileSelection {
 	}
 
 	public void set(BiomeProfile biomeProfile) {
-		this.biomeColors = biomeProfile.createBiomeColorMap();
+		ConcurrentHashMap<Integer, BiomeColor> biomeColors = biomeProfile.createBiomeColorMap();
 		this.unknownBiomes = ConcurrentHashMap.newKeySet();
+		this.biomeColors = biomeColors;
+		this.biomeColorTable = BiomeColorTable.from(biomeColors);
 		AmidstLogger.info("Biome profile activated: " + biomeProfile.getName());
 	}
 }
@@ -1,19 +1,28 @@
 package amidst.threading;
 
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import amidst.documentation.AmidstThread;
+import amidst.documentation.CalledByAny;
 import amidst.documentation.CalledOnlyBy;
 import amidst.documentation.ThreadSafe;
 
+/**
+ * The map is not repainted periodically. Instead, everything that changes
+ * what is shown, like user input, a loaded fragment or a running animation,
+ * calls {@link #requestRepaint()}. Repaints are at least
+ * {@link #MILLIS_PER_FRAME} apart, so an animated map is still repainted with
+ * at most 50 frames per second, while an idle map is not repainted at all.
+ */
 @ThreadSafe
 public class ThreadMaster {
+	private static final long MILLIS_PER_FRAME = 20;
+
 	private static final Runnable NOOP = new Runnable() {
 		@Override
 		public void run() {
@@ -22,24 +31,19 @@ public class ThreadMaster {
 	};
 
 	private final ScheduledExecutorService repaintExecutorService;
-	private final ScheduledExecutorService fragmentLoaderExecutorService;
 	private final ExecutorService workerExecutorService;
 	private final WorkerExecutor workerExecutor;
-	private final CompletableFuture<Thread> fragmentLoaderThread;
 
-	private volatile Runnable onRepaintTick;
-	private volatile Runnable onFragmentLoadTick;
+	private final AtomicBoolean isRepaintScheduled = new AtomicBoolean();
+
+	private volatile Runnable onRepaint;
+	private volatile long lastRepaintTime;
 
 	public ThreadMaster() {
 		this.repaintExecutorService = createRepaintExecutorService();
-		this.fragmentLoaderExecutorService = createFragmentLoaderExecutorService();
 		this.workerExecutorService = createWorkerExecutorService();
 		this.workerExecutor = createWorkerExecutor();
-		this.fragmentLoaderThread = getFragmentLoader();
-		this.onRepaintTick = NOOP;
-		this.onFragmentLoadTick = NOOP;
-		startRepainter();
-		startFragmentLoader();
+		this.onRepaint = NOOP;
 	}
 
 	private ScheduledExecutorService createRepaintExecutorService() {
@@ -53,19 +57,6 @@ public class ThreadMaster {
 		});
 	}
 
-	private ScheduledExecutorService createFragmentLoaderExecutorService() {
-		return Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
-			@Override
-			public Thread newThread(Runnable r) {
-				Thread thread = new Thread(r);
-				thread.setDaemon(true);
-				thread.setPriority(Thread.MIN_PRIORITY);
-				thread.setName("FragmentLoaderExecutor");
-				return thread;
-			}
-		});
-	}
-
 	private ExecutorService createWorkerExecutorService() {
 		return Executors.newCachedThreadPool(new ThreadFactory() {
 			int workerNum;
@@ -84,50 +75,39 @@ public class ThreadMaster {
 		return new WorkerExecutor(workerExecutorService);
 	}
 
-	private void startRepainter() {
-		repaintExecutorService.scheduleAtFixedRate(new Runnable() {
-			@CalledOnlyBy(AmidstThread.REPAINTER)
-			@Override
-			public void run() {
-				onRepaintTick.run();
-			}
-		}, 0, 20, TimeUnit.MILLISECONDS);
-	}
-
-	private CompletableFuture<Thread> getFragmentLoader() {
-		return CompletableFuture.supplyAsync(Thread::currentThread, fragmentLoaderExecutorService);
+	/**
+	 * Schedules a single repaint, unless one is scheduled already. This is
+	 * cheap, so it can be called as often as needed.
+	 */
+	@CalledByAny
+	public void requestRepaint() {
+		if (isRepaintScheduled.compareAndSet(false, true)) {
+			long delay = Math.max(0, lastRepaintTime + MILLIS_PER_FRAME - System.currentTimeMillis());
+			repaintExecutorService.schedule(this::repaint, delay, TimeUnit.MILLISECONDS);
+		}
 	}
 
-	private void startFragmentLoader() {
-		fragmentLoaderExecutorService.scheduleWithFixedDelay(new Runnable() {
-			@CalledOnlyBy(AmidstThread.FRAGMENT_LOADER)
-			@Override
-			public void run() {
-				onFragmentLoadTick.run();
-			}
-		}, 0, 20, TimeUnit.MILLISECONDS);
+	/**
+	 * The flag is cleared before the repaint, so a request during the repaint
+	 * schedules another one.
+	 */
+	@CalledOnlyBy(AmidstThread.REPAINTER)
+	private void repaint() {
+		lastRepaintTime = System.currentTimeMillis();
+		isRepaintScheduled.set(false);
+		onRepaint.run();
 	}
 
 	public WorkerExecutor getWorkerExecutor() {
 		return workerExecutor;
 	}
 
-	public void setOnRepaintTick(Runnable onRepaintTick) {
-		this.onRepaintTick = onRepaintTick;
-	}
-
-	public void setOnFragmentLoadTick(Runnable onFragmentLoadTick) {
-		if (fragmentLoaderThread.isDone()) {
-			LockSupport.unpark(fragmentLoaderThread.join());
-		}
-		this.onFragmentLoadTick = onFragmentLoadTick;
-	}
-
-	public void clearOnRepaintTick() {
-		this.onRepaintTick = NOOP;
+	public void setOnRepaint(Runnable onRepaint) {
+		this.onRepaint = onRepaint;
+		requestRepaint();
 	}
 
-	public void clearOnFragmentLoadTick() {
-		this.onFragmentLoadTick = NOOP;
+	public void clearOnRepaint() {
+		this.onRepaint = NOOP;
 	}
 }
@@ -59,4 +59,8 @@ public class ArrayCache<A> {
 	public static ArrayCache<int[]> makeIntArrayCache(int initialSize) {
 		return new ArrayCache<>(int[]::new, a -> a.length, initialSize);
 	}
+
+	public static ArrayCache<short[]> makeShortArrayCache(int initialSize) {
+		return new ArrayCache<>(short[]::new, a -> a.length, initialSize);
+	}
 }
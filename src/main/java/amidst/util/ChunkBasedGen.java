@@ -14,6 +14,16 @@ public enum ChunkBasedGen {
      * rather than block positions.
      */
     public static int[] mapChunkBased(int x, int y, int width, int height, boolean useQuarterResolution, ChunkAccessor chunkAccessor) throws MinecraftInterfaceException {
+        return mapChunkBased(x, y, width, height, useQuarterResolution, (chunkZBegin, chunkXBegin, chunkZEnd, chunkXEnd) -> chunkAccessor);
+    }
+
+    /**
+     * Like {@link #mapChunkBased(int, int, int, int, boolean, ChunkAccessor)}, but lets the
+     * AreaAccessor know about the whole range of chunks before the first one is requested.
+     * <p>
+     * Use this if the chunks share data which is cheaper to compute for the whole area at once.
+     */
+    public static int[] mapChunkBased(int x, int y, int width, int height, boolean useQuarterResolution, AreaAccessor areaAccessor) throws MinecraftInterfaceException {
         int shift = useQuarterResolution ? 4 : 1;
         int blockXBegin = x * shift;
         int blockXEnd = (x + width) * shift;
@@ -26,6 +36,7 @@ public enum ChunkBasedGen {
         int chunkZBegin = (int) Math.floor(blockYBegin / 16.0);
         int chunkZEnd = (int) Math.floor(blockYEnd / 16.0);
 
+        ChunkAccessor chunkAccessor = areaAccessor.prepareArea(chunkZBegin, chunkXBegin, chunkZEnd, chunkXEnd);
         int[][][] biomesByChunk = new int[chunkZEnd - chunkZBegin + 1][][];
         for (int chunkZ = chunkZBegin; chunkZ <= chunkZEnd; ++chunkZ) {
             biomesByChunk[chunkZ - chunkZBegin] = new int[chunkXEnd - chunkXBegin + 1][];
@@ -63,4 +74,10 @@ public enum ChunkBasedGen {
     public interface ChunkAccessor {
         int[] getChunk(int z, int x) throws MinecraftInterfaceException;
     }
+
+    @FunctionalInterface
+    public interface AreaAccessor {
+        /** All bounds are inclusive. */
+        ChunkAccessor prepareArea(int chunkZBegin, int chunkXBegin, int chunkZEnd, int chunkXEnd) throws MinecraftInterfaceException;
+    }
 }
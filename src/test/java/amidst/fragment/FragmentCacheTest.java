@@ -0,0 +1,82 @@
+package amidst.fragment;
+
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import amidst.fragment.constructor.ImageConstructor;
+import amidst.mojangapi.world.Dimension;
+import amidst.mojangapi.world.coordinates.Resolution;
+import amidst.settings.Setting;
+
+public class FragmentCacheTest {
+	private static final int BYTES_PER_FRAGMENT = 2 * new ImageBuffer(128).getSizeInBytes();
+
+	@Test
+	public void shouldReleaseAvailableFragmentsAboveTheBudget() {
+		LinkedBlockingQueue<Fragment> availableQueue = new LinkedBlockingQueue<>();
+		Setting<Integer> budget = Setting.createDummy(1024);
+		FragmentCache cache = createCache(availableQueue, budget);
+		cache.increaseSize();
+		Assert.assertEquals(1024, cache.size());
+		Assert.assertEquals(1024L * BYTES_PER_FRAGMENT, cache.getSizeInBytes());
+
+		budget.set(50);
+		cache.trimToBudget();
+
+		Assert.assertTrue(cache.getSizeInBytes() <= cache.getMemoryBudget());
+		Assert.assertEquals(cache.size(), availableQueue.size());
+	}
+
+	@Test
+	public void shouldKeepFragmentsWhichAreInUse() {
+		LinkedBlockingQueue<Fragment> availableQueue = new LinkedBlockingQueue<>();
+		Setting<Integer> budget = Setting.createDummy(1024);
+		FragmentCache cache = createCache(availableQueue, budget);
+		cache.increaseSize();
+		for (int i = 0; i < 900; i++) {
+			availableQueue.poll();
+		}
+
+		budget.set(1);
+		cache.trimToBudget();
+
+		Assert.assertEquals(1024, cache.size());
+	}
+
+	@Test
+	public void shouldGrowLessWhenApproachingTheBudget() {
+		LinkedBlockingQueue<Fragment> availableQueue = new LinkedBlockingQueue<>();
+		FragmentCache cache = createCache(availableQueue, Setting.createDummy(90));
+		cache.increaseSize();
+		cache.increaseSize();
+
+		Assert.assertEquals(1024 + 64, cache.size());
+	}
+
+	@Test
+	public void shouldCountSizeChangesOfFragments() {
+		LinkedBlockingQueue<Fragment> availableQueue = new LinkedBlockingQueue<>();
+		FragmentCache cache = createCache(availableQueue, Setting.createDummy(1024));
+		cache.increaseSize();
+		Fragment fragment = availableQueue.poll();
+
+		fragment.selectDimension(Dimension.OVERWORLD);
+		fragment.selectDimension(Dimension.NETHER);
+		Assert.assertEquals(1025L * BYTES_PER_FRAGMENT, cache.getSizeInBytes());
+
+		fragment.tryRecycle();
+		Assert.assertEquals(1024L * BYTES_PER_FRAGMENT, cache.getSizeInBytes());
+	}
+
+	private static FragmentCache createCache(LinkedBlockingQueue<Fragment> availableQueue, Setting<Integer> budget) {
+		return new FragmentCache(
+				availableQueue,
+				new FragmentLoadingQueue(),
+				Arrays.asList(new ImageConstructor(Resolution.QUARTER, 0)),
+				1,
+				budget);
+	}
+}
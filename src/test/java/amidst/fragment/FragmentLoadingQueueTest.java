@@ -0,0 +1,86 @@
+package amidst.fragment;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import amidst.mojangapi.world.coordinates.CoordinatesInWorld;
+
+public class FragmentLoadingQueueTest {
+	@Test
+	public void shouldKeepRequestOrderWithoutFocus() {
+		FragmentLoadingQueue queue = new FragmentLoadingQueue();
+		Fragment far = createFragment(10, 0);
+		Fragment near = createFragment(0, 0);
+		queue.offer(far);
+		queue.offer(near);
+
+		Assert.assertSame(far, queue.poll());
+		Assert.assertSame(near, queue.poll());
+		Assert.assertNull(queue.poll());
+	}
+
+	@Test
+	public void shouldLoadFragmentsClosestToTheFocusFirst() {
+		FragmentLoadingQueue queue = new FragmentLoadingQueue();
+		queue.setFocus(CoordinatesInWorld.from(0, 0), 1000, 500);
+		Fragment farRight = createFragment(5, 0);
+		Fragment center = createFragment(0, 0);
+		Fragment below = createFragment(0, 3);
+		queue.offer(farRight);
+		queue.offer(below);
+		queue.offer(center);
+
+		// the screen is wider than high, so 3 fragments below is further away than 5 to the right
+		Assert.assertSame(center, queue.poll());
+		Assert.assertSame(farRight, queue.poll());
+		Assert.assertSame(below, queue.poll());
+	}
+
+	@Test
+	public void shouldReorderWhenTheFocusMoves() {
+		FragmentLoadingQueue queue = new FragmentLoadingQueue();
+		queue.setFocus(CoordinatesInWorld.from(0, 0), 1000, 1000);
+		Fragment left = createFragment(-8, 0);
+		Fragment right = createFragment(8, 0);
+		queue.offer(left);
+		queue.offer(right);
+
+		queue.setFocus(CoordinatesInWorld.from(8 * Fragment.SIZE, 0), 1000, 1000);
+		Assert.assertSame(right, queue.poll());
+		Assert.assertSame(left, queue.poll());
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void shouldSkipFragmentsWhichWereRecycled() {
+		FragmentLoadingQueue queue = new FragmentLoadingQueue();
+		Fragment recycled = createFragment(0, 0);
+		Fragment kept = createFragment(1, 0);
+		queue.offer(recycled);
+		queue.offer(kept);
+
+		Assert.assertTrue(recycled.tryRecycle());
+		Assert.assertSame(kept, queue.poll());
+		Assert.assertNull(queue.poll());
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void shouldLoadRecycledFragmentsWhenTheyAreRequestedAgain() {
+		FragmentLoadingQueue queue = new FragmentLoadingQueue();
+		Fragment fragment = createFragment(0, 0);
+		queue.offer(fragment);
+		Assert.assertTrue(fragment.tryRecycle());
+		fragment.setCorner(CoordinatesInWorld.from(Fragment.SIZE, 0));
+		queue.offer(fragment);
+
+		Assert.assertSame(fragment, queue.poll());
+		Assert.assertNull(queue.poll());
+	}
+
+	private static Fragment createFragment(int fragmentX, int fragmentY) {
+		Fragment fragment = new Fragment(0);
+		fragment.setCorner(CoordinatesInWorld.from(fragmentX * Fragment.SIZE, fragmentY * Fragment.SIZE));
+		return fragment;
+	}
+}
@@ -0,0 +1,90 @@
+package amidst.fragment;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import amidst.fragment.layer.LayerDeclaration;
+import amidst.fragment.layer.LayerLoader;
+import amidst.fragment.layer.LayerManager;
+import amidst.fragment.loader.FragmentLoader;
+import amidst.mojangapi.world.Dimension;
+import amidst.settings.Setting;
+
+public class FragmentQueueProcessorTest {
+	private static class ConcurrencyCountingLoader extends FragmentLoader {
+		private final AtomicInteger running = new AtomicInteger();
+		private final AtomicInteger maxRunning = new AtomicInteger();
+
+		public ConcurrencyCountingLoader(LayerDeclaration declaration) {
+			super(declaration);
+		}
+
+		@Override
+		public void load(Dimension dimension, Fragment fragment, DimensionLayerData layerData) {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			running.decrementAndGet();
+		}
+
+		@Override
+		public void reload(Dimension dimension, Fragment fragment, DimensionLayerData layerData) {
+			load(dimension, fragment, layerData);
+		}
+	}
+
+	@Test
+	public void shouldNotReloadTheSameFragmentConcurrently() throws InterruptedException {
+		LayerDeclaration declaration = new LayerDeclaration(0, null, false, true, Setting.createImmutable(true));
+		declaration.update(Dimension.OVERWORLD);
+		ConcurrencyCountingLoader loader = new ConcurrencyCountingLoader(declaration);
+		LayerLoader layerLoader = new LayerLoader(Arrays.asList(loader), new int[][] { {} }, 1);
+		LayerManager layerManager = new LayerManager(Arrays.asList(declaration), layerLoader, Collections.emptyList());
+		LinkedBlockingQueue<Fragment> availableQueue = new LinkedBlockingQueue<>();
+		FragmentLoadingQueue loadingQueue = new FragmentLoadingQueue();
+		FragmentCache cache = new FragmentCache(
+				availableQueue,
+				loadingQueue,
+				Collections.emptyList(),
+				1,
+				Setting.createDummy(1024));
+
+		Fragment fragment = new Fragment(1);
+		layerLoader.loadAll(Dimension.OVERWORLD, fragment);
+		fragment.setState(Fragment.State.LOADED);
+		layerLoader.invalidateLayer(0);
+		for (int i = 0; i < 4; i++) {
+			loadingQueue.offer(fragment);
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			new FragmentQueueProcessor(
+					availableQueue,
+					loadingQueue,
+					new ConcurrentLinkedQueue<>(),
+					cache,
+					layerManager,
+					pool,
+					Setting.createImmutable(Dimension.OVERWORLD),
+					() -> {}).signal();
+			Assert.assertTrue(pool.awaitQuiescence(10, TimeUnit.SECONDS));
+		} finally {
+			pool.shutdown();
+		}
+
+		Assert.assertEquals(1, loader.maxRunning.get());
+		Assert.assertFalse(layerLoader.isStale(fragment));
+	}
+}
@@ -0,0 +1,54 @@
+package amidst.fragment;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ImagePyramidTest {
+	@Test
+	public void shouldCreateLevelsDownToTheMinimumSize() {
+		ImagePyramid pyramid = new ImagePyramid(128);
+		Assert.assertEquals(5, pyramid.getNumberOfLevels());
+		Assert.assertEquals(64, pyramid.getLevel(1).getWidth());
+		Assert.assertEquals(4, pyramid.getLevel(5).getWidth());
+		Assert.assertEquals(2, new ImagePyramid(16).getNumberOfLevels());
+	}
+
+	@Test
+	public void shouldAverageBlocksOfPixels() {
+		int[] pixels = {
+				0xFF000000, 0xFF0000FF, 0xFF00FF00, 0xFF00FF00,
+				0xFF0000FF, 0xFF000000, 0xFF00FF00, 0xFF00FF00,
+				0x00000000, 0x00000000, 0x00000000, 0xFFFF0000,
+				0x00000000, 0x00000000, 0x00000000, 0x00000000 };
+		int[] result = { 1, 1, 1, 1, 1 };
+		ImagePyramid.downscale(pixels, 4, result);
+
+		Assert.assertEquals(0xFF00007F, result[0]);
+		Assert.assertEquals(0xFF00FF00, result[1]);
+		Assert.assertEquals(0x00000000, result[2]);
+		// transparent pixels must not darken the color
+		Assert.assertEquals(0x40FF0000, result[3]);
+		// the result array may be larger than needed
+		Assert.assertEquals(1, result[4]);
+	}
+
+	@Test
+	public void shouldUpdateAllLevelsFromThePixels() {
+		int[] pixels = new int[32 * 32];
+		Arrays.fill(pixels, 0xFF336699);
+		ImagePyramid pyramid = new ImagePyramid(32);
+		pyramid.update(pixels, 32);
+
+		Assert.assertEquals(0xFF336699, pyramid.getLevel(1).getRGB(15, 15));
+		Assert.assertEquals(0xFF336699, pyramid.getLevel(2).getRGB(7, 7));
+		Assert.assertEquals(0xFF336699, pyramid.getLevel(3).getRGB(3, 3));
+
+		Arrays.fill(pixels, 0x00000000);
+		pyramid.update(pixels, 32);
+
+		Assert.assertEquals(0x00000000, pyramid.getLevel(1).getRGB(15, 15));
+		Assert.assertEquals(0x00000000, pyramid.getLevel(3).getRGB(3, 3));
+	}
+}
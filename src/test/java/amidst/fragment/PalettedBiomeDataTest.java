@@ -0,0 +1,57 @@
+package amidst.fragment;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PalettedBiomeDataTest {
+	private static final int WIDTH = 128;
+	private static final int HEIGHT = 96;
+
+	@Test
+	public void shouldChooseSmallestRepresentation() {
+		Assert.assertEquals(0, roundTrip(1).getBitsPerSample());
+		Assert.assertEquals(4, roundTrip(2).getBitsPerSample());
+		Assert.assertEquals(4, roundTrip(16).getBitsPerSample());
+		Assert.assertEquals(8, roundTrip(17).getBitsPerSample());
+		Assert.assertEquals(8, roundTrip(256).getBitsPerSample());
+		Assert.assertEquals(16, roundTrip(257).getBitsPerSample());
+	}
+
+	@Test
+	public void shouldUseLessMemoryForFewBiomes() {
+		Assert.assertEquals(WIDTH * HEIGHT / 2 + 16 * 2, roundTrip(16).getSizeInBytes());
+	}
+
+	@Test
+	public void shouldReturnZeroBeforePopulated() {
+		Assert.assertEquals(0, PalettedBiomeData.empty(WIDTH, HEIGHT).get(WIDTH - 1, HEIGHT - 1));
+	}
+
+	@Test
+	public void shouldMapEverySample() {
+		for (int distinctBiomes : new int[] { 1, 16, 256, 257 }) {
+			PalettedBiomeData biomeData = roundTrip(distinctBiomes);
+			int[] result = new int[WIDTH * HEIGHT];
+			biomeData.map(biome -> biome * 2 + 1, result);
+			for (int y = 0; y < HEIGHT; y++) {
+				for (int x = 0; x < WIDTH; x++) {
+					Assert.assertEquals(biomeData.get(x, y) * 2 + 1, result[y * WIDTH + x]);
+				}
+			}
+		}
+	}
+
+	private static PalettedBiomeData roundTrip(int distinctBiomes) {
+		short[] data = new short[WIDTH * HEIGHT];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (short) ((i * 7 % distinctBiomes) * 3 - 40);
+		}
+		PalettedBiomeData result = PalettedBiomeData.from(data, WIDTH, HEIGHT);
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				Assert.assertEquals(data[y * WIDTH + x], result.get(x, y));
+			}
+		}
+		return result;
+	}
+}
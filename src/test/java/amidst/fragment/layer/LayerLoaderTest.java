@@ -0,0 +1,155 @@
+package amidst.fragment.layer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import amidst.fragment.DimensionLayerData;
+import amidst.fragment.Fragment;
+import amidst.fragment.loader.FragmentLoader;
+import amidst.mojangapi.world.Dimension;
+import amidst.settings.Setting;
+
+public class LayerLoaderTest {
+	private static class RecordingLoader extends FragmentLoader {
+		private final Queue<Integer> finished;
+		private final long sleepMillis;
+
+		public RecordingLoader(int layerId, Queue<Integer> finished, long sleepMillis) {
+			super(new LayerDeclaration(layerId, null, false, true, Setting.createImmutable(true)));
+			this.finished = finished;
+			this.sleepMillis = sleepMillis;
+			declaration.update(Dimension.OVERWORLD);
+		}
+
+		@Override
+		public void load(Dimension dimension, Fragment fragment, DimensionLayerData layerData) {
+			try {
+				Thread.sleep(sleepMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			finished.add(getLayerId());
+		}
+
+		@Override
+		public void reload(Dimension dimension, Fragment fragment, DimensionLayerData layerData) {
+			load(dimension, fragment, layerData);
+		}
+	}
+
+	@Test
+	public void shouldLoadDependenciesFirst() {
+		Queue<Integer> finished = new ConcurrentLinkedQueue<>();
+		List<FragmentLoader> loaders = Arrays.asList(
+				new RecordingLoader(0, finished, 50),
+				new RecordingLoader(1, finished, 0),
+				new RecordingLoader(2, finished, 0));
+		int[][] dependencies = { {}, {}, { 0 } };
+		LayerLoader layerLoader = new LayerLoader(loaders, dependencies, 3);
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			pool.submit(() -> layerLoader.loadAll(Dimension.OVERWORLD, new Fragment(3))).join();
+		} finally {
+			pool.shutdown();
+		}
+
+		List<Integer> order = Arrays.asList(finished.toArray(new Integer[0]));
+		assertEquals(3, order.size());
+		assertTrue(order.indexOf(0) < order.indexOf(2));
+	}
+
+	@Test
+	public void shouldReloadOnlyInvalidatedLayers() {
+		Queue<Integer> finished = new ConcurrentLinkedQueue<>();
+		LayerLoader layerLoader = createLayerLoader(finished);
+		Fragment fragment = new Fragment(3);
+		layerLoader.loadAll(Dimension.OVERWORLD, fragment);
+		finished.clear();
+		assertFalse(layerLoader.isStale(fragment));
+
+		layerLoader.invalidateLayer(2);
+		assertTrue(layerLoader.isStale(fragment));
+		reloadInPool(layerLoader, fragment);
+
+		assertEquals(Arrays.asList(2), Arrays.asList(finished.toArray(new Integer[0])));
+		assertFalse(layerLoader.isStale(fragment));
+	}
+
+	@Test
+	public void shouldReloadLayersDependingOnInvalidatedLayers() {
+		Queue<Integer> finished = new ConcurrentLinkedQueue<>();
+		LayerLoader layerLoader = createLayerLoader(finished);
+		Fragment fragment = new Fragment(3);
+		layerLoader.loadAll(Dimension.OVERWORLD, fragment);
+		finished.clear();
+
+		layerLoader.invalidateLayer(0);
+		reloadInPool(layerLoader, fragment);
+
+		assertEquals(Arrays.asList(0, 2), Arrays.asList(finished.toArray(new Integer[0])));
+	}
+
+	@Test
+	public void shouldKeepLayersLoadedInOtherDimensions() {
+		Queue<Integer> finished = new ConcurrentLinkedQueue<>();
+		LayerLoader layerLoader = createLayerLoader(finished);
+		Fragment fragment = new Fragment(3);
+		layerLoader.loadAll(Dimension.OVERWORLD, fragment);
+		layerLoader.reloadInvalidated(Dimension.END, fragment);
+		finished.clear();
+
+		layerLoader.reloadInvalidated(Dimension.OVERWORLD, fragment);
+		assertTrue(finished.isEmpty());
+
+		layerLoader.invalidateLayer(1);
+		layerLoader.reloadInvalidated(Dimension.END, fragment);
+		assertEquals(Arrays.asList(1), Arrays.asList(finished.toArray(new Integer[0])));
+	}
+
+	@Test
+	public void shouldStampLayersOfTheLoadedDimension() {
+		Queue<Integer> finished = new ConcurrentLinkedQueue<>();
+		FragmentLoader switchingLoader = new RecordingLoader(0, finished, 0) {
+			@Override
+			public void load(Dimension dimension, Fragment fragment, DimensionLayerData layerData) {
+				super.load(dimension, fragment, layerData);
+				fragment.selectDimension(Dimension.END);
+			}
+		};
+		LayerLoader layerLoader = new LayerLoader(Arrays.asList(switchingLoader), new int[][] { {} }, 1);
+		Fragment fragment = new Fragment(1);
+
+		layerLoader.loadAll(Dimension.OVERWORLD, fragment);
+		assertTrue(layerLoader.isStale(fragment));
+		fragment.selectDimension(Dimension.OVERWORLD);
+		assertFalse(layerLoader.isStale(fragment));
+	}
+
+	private static LayerLoader createLayerLoader(Queue<Integer> finished) {
+		List<FragmentLoader> loaders = Arrays.asList(
+				new RecordingLoader(0, finished, 0),
+				new RecordingLoader(1, finished, 0),
+				new RecordingLoader(2, finished, 0));
+		int[][] dependencies = { {}, {}, { 0 } };
+		return new LayerLoader(loaders, dependencies, 3);
+	}
+
+	private static void reloadInPool(LayerLoader layerLoader, Fragment fragment) {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			pool.submit(() -> layerLoader.reloadInvalidated(Dimension.OVERWORLD, fragment)).join();
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package amidst.fragment.layer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import amidst.fragment.layer.LayerManager.UpdateResult;
+import amidst.mojangapi.world.Dimension;
+import amidst.settings.Setting;
+
+public class LayerManagerTest {
+	@Test
+	public void shouldReportChangesOfTheVisibility() {
+		Setting<Boolean> isVisible = Setting.createDummy(true);
+		LayerDeclaration declaration = new LayerDeclaration(0, null, false, true, isVisible);
+		LayerManager layerManager = new LayerManager(
+				Arrays.asList(declaration),
+				new LayerLoader(Collections.emptyList(), new int[][] { {} }, 1),
+				Collections.emptyList());
+
+		assertEquals(UpdateResult.RELOAD, layerManager.updateAll(Dimension.OVERWORLD));
+		assertEquals(UpdateResult.NOTHING, layerManager.updateAll(Dimension.OVERWORLD));
+
+		isVisible.set(false);
+		assertEquals(UpdateResult.REPAINT, layerManager.updateAll(Dimension.OVERWORLD));
+		assertEquals(UpdateResult.NOTHING, layerManager.updateAll(Dimension.OVERWORLD));
+
+		isVisible.set(true);
+		assertEquals(UpdateResult.RELOAD, layerManager.updateAll(Dimension.OVERWORLD));
+	}
+
+	@Test
+	public void shouldRepaintWhenLayerOfOtherDimensionIsHidden() {
+		LayerDeclaration declaration = new LayerDeclaration(0, Dimension.END, false, true, Setting.createImmutable(true));
+		LayerManager layerManager = new LayerManager(
+				Arrays.asList(declaration),
+				new LayerLoader(Collections.emptyList(), new int[][] { {} }, 1),
+				Collections.emptyList());
+
+		assertEquals(UpdateResult.RELOAD, layerManager.updateAll(Dimension.END));
+		assertEquals(UpdateResult.REPAINT, layerManager.updateAll(Dimension.OVERWORLD));
+	}
+}
@@ -0,0 +1,34 @@
+package amidst.mojangapi.minecraftinterface;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BiomeIdCacheTest {
+	@Test
+	public void shouldLookUpEachBiomeOnlyOnce() throws Throwable {
+		Object[] biomes = new Object[1000];
+		for (int i = 0; i < biomes.length; i++) {
+			biomes[i] = new Object();
+		}
+
+		AtomicInteger lookups = new AtomicInteger();
+		BiomeIdCache cache = new BiomeIdCache(biome -> {
+			lookups.incrementAndGet();
+			for (int i = 0; i < biomes.length; i++) {
+				if (biomes[i] == biome) {
+					return i;
+				}
+			}
+			throw new IllegalArgumentException("unknown biome");
+		});
+
+		for (int pass = 0; pass < 3; pass++) {
+			for (int i = 0; i < biomes.length; i++) {
+				Assert.assertEquals(i, cache.getId(biomes[i]));
+			}
+		}
+		Assert.assertEquals(biomes.length, lookups.get());
+	}
+}
@@ -0,0 +1,84 @@
+package amidst.mojangapi.minecraftinterface;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import amidst.mojangapi.minecraftinterface.MinecraftInterface.WorldAccessor;
+import amidst.mojangapi.world.Dimension;
+
+public class BiomeSampleCacheTest {
+	@Test
+	public void shouldServeSmallWindowsFromLargeRequests() throws MinecraftInterfaceException {
+		WorldAccessor inner = new PatternWorldAccessor();
+		BiomeSampleCache cache = new BiomeSampleCache(inner);
+
+		getData(cache, -64, -64, 128, 128);
+		Assert.assertEquals(0, cache.getHits());
+
+		Assert.assertArrayEquals(getData(inner, -3, 5, 7, 9), getData(cache, -3, 5, 7, 9));
+		Assert.assertArrayEquals(getData(inner, 63, -64, 1, 1), getData(cache, 63, -64, 1, 1));
+		Assert.assertEquals(2, cache.getHits());
+		Assert.assertEquals(0, cache.getMisses());
+
+		Assert.assertArrayEquals(getData(inner, 64, 0, 1, 1), getData(cache, 64, 0, 1, 1));
+		Assert.assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void shouldPopulateFromDestinationBuffers() throws MinecraftInterfaceException {
+		WorldAccessor inner = new PatternWorldAccessor();
+		BiomeSampleCache cache = new BiomeSampleCache(inner);
+
+		short[] destination = new short[128 * 128];
+		cache.getBiomeData(Dimension.OVERWORLD, -64, -64, 128, 128, true, destination);
+		int[] expected = getData(inner, -64, -64, 128, 128);
+		for (int i = 0; i < expected.length; i++) {
+			Assert.assertEquals(expected[i], destination[i]);
+		}
+
+		Assert.assertArrayEquals(getData(inner, -3, 5, 7, 9), getData(cache, -3, 5, 7, 9));
+		Assert.assertEquals(1, cache.getHits());
+	}
+
+	@Test
+	public void shouldKeepDimensionsApart() throws MinecraftInterfaceException {
+		BiomeSampleCache cache = new BiomeSampleCache(new PatternWorldAccessor());
+
+		getData(cache, 0, 0, 128, 128);
+		cache.getBiomeData(Dimension.NETHER, 0, 0, 1, 1, true, data -> data[0]);
+		Assert.assertEquals(0, cache.getHits());
+		Assert.assertEquals(1, cache.getMisses());
+	}
+
+	private static int[] getData(WorldAccessor accessor, int x, int y, int width, int height)
+			throws MinecraftInterfaceException {
+		return accessor.getBiomeData(Dimension.OVERWORLD, x, y, width, height, true, data -> {
+			int[] copy = new int[width * height];
+			System.arraycopy(data, 0, copy, 0, copy.length);
+			return copy;
+		});
+	}
+
+	private static class PatternWorldAccessor implements WorldAccessor {
+		@Override
+		public <T> T getBiomeData(Dimension dimension, int x, int y, int width, int height,
+				boolean useQuarterResolution, Function<int[], T> biomeDataMapper) {
+			int[] data = new int[width * height];
+			for (int j = 0; j < height; j++) {
+				for (int i = 0; i < width; i++) {
+					data[i + j * width] = Math.floorMod((x + i) * 31 + (y + j) * 17, 200);
+				}
+			}
+			return biomeDataMapper.apply(data);
+		}
+
+		@Override
+		public Set<Dimension> supportedDimensions() {
+			return Collections.singleton(Dimension.OVERWORLD);
+		}
+	}
+}
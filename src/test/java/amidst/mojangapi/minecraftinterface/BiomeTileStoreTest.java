@@ -0,0 +1,86 @@
+package amidst.mojangapi.minecraftinterface;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import amidst.mojangapi.world.Dimension;
+
+public class BiomeTileStoreTest {
+	private static final int TILE_SIZE = BiomeTileStore.TILE_SIZE;
+
+	@Test
+	public void shouldEvictLeastRecentlyUsedTile() throws IOException {
+		Path root = Files.createTempDirectory("amidst-tiles");
+		try {
+			Path first = getTileFile(root, 0);
+			Path second = getTileFile(root, 1);
+			Path third = getTileFile(root, 2);
+			new BiomeTileStore(root, Long.MAX_VALUE, true).write(first, createTile(), 0, TILE_SIZE);
+			long tileSize = Files.size(first);
+
+			BiomeTileStore store = new BiomeTileStore(root, 2 * tileSize, true);
+			store.write(second, createTile(), 0, TILE_SIZE);
+			Assert.assertTrue(store.read(first, new int[TILE_SIZE * TILE_SIZE], 0, TILE_SIZE));
+			store.write(third, createTile(), 0, TILE_SIZE);
+
+			Assert.assertTrue(Files.exists(first));
+			Assert.assertFalse(Files.exists(second));
+			Assert.assertTrue(Files.exists(third));
+			Assert.assertFalse(store.read(second, new int[TILE_SIZE * TILE_SIZE], 0, TILE_SIZE));
+		} finally {
+			deleteRecursively(root);
+		}
+	}
+
+	@Test
+	public void shouldCapSizeOfExistingStore() throws IOException {
+		Path root = Files.createTempDirectory("amidst-tiles");
+		try {
+			BiomeTileStore unlimitedStore = new BiomeTileStore(root, Long.MAX_VALUE, true);
+			Path[] files = new Path[4];
+			for (int i = 0; i < files.length; i++) {
+				files[i] = getTileFile(root, i);
+				unlimitedStore.write(files[i], createTile(), 0, TILE_SIZE);
+				Files.setLastModifiedTime(files[i], FileTime.fromMillis(1000000L * (i + 1)));
+			}
+			long tileSize = Files.size(files[0]);
+
+			BiomeTileStore store = new BiomeTileStore(root, 2 * tileSize, true);
+			int[] tile = new int[TILE_SIZE * TILE_SIZE];
+			Assert.assertTrue(store.read(files[3], tile, 0, TILE_SIZE));
+			Assert.assertArrayEquals(createTile(), tile);
+
+			Assert.assertFalse(Files.exists(files[0]));
+			Assert.assertFalse(Files.exists(files[1]));
+			Assert.assertTrue(Files.exists(files[2]));
+			Assert.assertTrue(Files.exists(files[3]));
+		} finally {
+			deleteRecursively(root);
+		}
+	}
+
+	private static Path getTileFile(Path root, int tileX) {
+		return BiomeTileStore.getTileFile(root.resolve("world"), Dimension.OVERWORLD, true, tileX, 0);
+	}
+
+	private static int[] createTile() {
+		int[] result = new int[TILE_SIZE * TILE_SIZE];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = i % 7;
+		}
+		return result;
+	}
+
+	private static void deleteRecursively(Path root) throws IOException {
+		try (Stream<Path> files = Files.walk(root)) {
+			files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package amidst.mojangapi.minecraftinterface;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import amidst.mojangapi.minecraftinterface.MinecraftInterface.WorldAccessor;
+import amidst.mojangapi.world.Dimension;
+
+public class BiomeTileTest {
+	@Test
+	public void shouldOwnTheData() throws InterruptedException, ExecutionException {
+		ReusingWorldAccessor accessor = new ReusingWorldAccessor();
+		BiomeTile first = accessor.getBiomeTileAsync(Dimension.OVERWORLD, 0, 0, 4, 4, true, Runnable::run).get();
+		BiomeTile second = accessor.getBiomeTileAsync(Dimension.OVERWORLD, 4, 0, 4, 4, true, Runnable::run).get();
+
+		Assert.assertNotSame(first.getData(), second.getData());
+		Assert.assertEquals(0 * 31 + 2 * 17, first.getBiomeAt(0, 2));
+		Assert.assertEquals(5 * 31 + 2 * 17, second.getBiomeAt(1, 2));
+	}
+
+	@Test
+	public void shouldNotGenerateCancelledRequests() {
+		ReusingWorldAccessor accessor = new ReusingWorldAccessor();
+		List<Runnable> tasks = new ArrayList<>();
+		CompletableFuture<BiomeTile> cancelled = accessor.getBiomeTileAsync(Dimension.OVERWORLD, 0, 0, 4, 4, true, tasks::add);
+		CompletableFuture<BiomeTile> kept = accessor.getBiomeTileAsync(Dimension.OVERWORLD, 0, 0, 4, 4, true, tasks::add);
+
+		cancelled.cancel(false);
+		tasks.forEach(Runnable::run);
+
+		Assert.assertEquals(1, accessor.requests.get());
+		Assert.assertTrue(cancelled.isCancelled());
+		Assert.assertEquals(4, kept.join().getWidth());
+	}
+
+	private static class ReusingWorldAccessor implements WorldAccessor {
+		private final AtomicInteger requests = new AtomicInteger();
+		private final int[] data = new int[64];
+
+		@Override
+		public synchronized <T> T getBiomeData(Dimension dimension, int x, int y, int width, int height,
+				boolean useQuarterResolution, Function<int[], T> biomeDataMapper) {
+			requests.incrementAndGet();
+			for (int j = 0; j < height; j++) {
+				for (int i = 0; i < width; i++) {
+					data[i + j * width] = (x + i) * 31 + (y + j) * 17;
+				}
+			}
+			return biomeDataMapper.apply(data);
+		}
+
+		@Override
+		public Set<Dimension> supportedDimensions() {
+			return Collections.singleton(Dimension.OVERWORLD);
+		}
+	}
+}
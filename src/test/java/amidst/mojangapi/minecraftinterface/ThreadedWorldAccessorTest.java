@@ -0,0 +1,127 @@
+package amidst.mojangapi.minecraftinterface;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import amidst.mojangapi.minecraftinterface.MinecraftInterface.WorldAccessor;
+import amidst.mojangapi.world.Dimension;
+
+public class ThreadedWorldAccessorTest {
+	@Test
+	public void shouldReuseIdleAccessor() throws MinecraftInterfaceException {
+		AtomicInteger creations = new AtomicInteger();
+		ThreadedWorldAccessor accessor = new ThreadedWorldAccessor(v -> createAccessor(creations), () -> 4);
+
+		for (int i = 0; i < 3; i++) {
+			request(accessor, data -> null);
+		}
+
+		Assert.assertEquals(1, creations.get());
+		Assert.assertEquals(1, accessor.getNumberOfAccessors());
+	}
+
+	@Test
+	public void shouldWaitWhenPoolIsExhausted() throws Exception {
+		AtomicInteger creations = new AtomicInteger();
+		ThreadedWorldAccessor accessor = new ThreadedWorldAccessor(v -> createAccessor(creations), () -> 1);
+		CountDownLatch isBorrowed = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread holder = new Thread(() -> request(accessor, data -> {
+			isBorrowed.countDown();
+			awaitUninterruptibly(release);
+			return null;
+		}));
+		AtomicBoolean isFinished = new AtomicBoolean();
+		Thread waiter = new Thread(() -> {
+			request(accessor, data -> null);
+			isFinished.set(true);
+		});
+
+		holder.start();
+		Assert.assertTrue(isBorrowed.await(5, TimeUnit.SECONDS));
+		waiter.start();
+		awaitWaiting(waiter);
+		Assert.assertFalse(isFinished.get());
+
+		release.countDown();
+		holder.join(5000);
+		waiter.join(5000);
+		Assert.assertTrue(isFinished.get());
+		Assert.assertEquals(1, creations.get());
+	}
+
+	@Test
+	public void shouldEvictIdleAccessorsWhenBorrowing() throws Exception {
+		AtomicInteger creations = new AtomicInteger();
+		AtomicLong now = new AtomicLong();
+		ThreadedWorldAccessor accessor = new ThreadedWorldAccessor(v -> createAccessor(creations), () -> 2, now::get);
+		CountDownLatch isBorrowed = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread holder = new Thread(() -> request(accessor, data -> {
+			isBorrowed.countDown();
+			awaitUninterruptibly(release);
+			return null;
+		}));
+		holder.start();
+		Assert.assertTrue(isBorrowed.await(5, TimeUnit.SECONDS));
+		request(accessor, data -> null);
+		release.countDown();
+		holder.join(5000);
+		Assert.assertEquals(2, accessor.getNumberOfAccessors());
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+		int numberOfAccessorsWhileBorrowed = request(accessor, data -> accessor.getNumberOfAccessors());
+
+		Assert.assertEquals(1, numberOfAccessorsWhileBorrowed);
+		Assert.assertEquals(2, creations.get());
+	}
+
+	private static <T> T request(WorldAccessor accessor, Function<int[], T> mapper) {
+		try {
+			return accessor.getBiomeData(Dimension.OVERWORLD, 0, 0, 1, 1, true, mapper);
+		} catch (MinecraftInterfaceException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void awaitWaiting(Thread thread) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		Assert.assertEquals(Thread.State.WAITING, thread.getState());
+	}
+
+	private static WorldAccessor createAccessor(AtomicInteger creations) {
+		creations.incrementAndGet();
+		return new WorldAccessor() {
+			@Override
+			public <T> T getBiomeData(Dimension dimension, int x, int y, int width, int height,
+					boolean useQuarterResolution, Function<int[], T> biomeDataMapper) {
+				return biomeDataMapper.apply(new int[width * height]);
+			}
+
+			@Override
+			public Set<Dimension> supportedDimensions() {
+				return Collections.singleton(Dimension.OVERWORLD);
+			}
+		};
+	}
+}
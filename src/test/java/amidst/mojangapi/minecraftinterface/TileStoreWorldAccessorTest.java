@@ -0,0 +1,126 @@
+package amidst.mojangapi.minecraftinterface;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import amidst.mojangapi.minecraftinterface.MinecraftInterface.WorldAccessor;
+import amidst.mojangapi.world.Dimension;
+import amidst.mojangapi.world.WorldOptions;
+import amidst.mojangapi.world.WorldSeed;
+import amidst.mojangapi.world.WorldType;
+
+public class TileStoreWorldAccessorTest {
+	private static final int TILE_SIZE = BiomeTileStore.TILE_SIZE;
+	private static final String GENERATOR_ID = "test";
+
+	@Test
+	public void shouldServeTilesFromDisk() throws IOException, MinecraftInterfaceException {
+		Path root = Files.createTempDirectory("amidst-tiles");
+		try {
+			CountingWorldAccessor inner = new CountingWorldAccessor();
+			BiomeTileStore store = new BiomeTileStore(root, Long.MAX_VALUE, true);
+			WorldOptions worldOptions = new WorldOptions(WorldSeed.fromSaveGame(42), WorldType.DEFAULT);
+
+			int[] first = getData(store.wrap(inner, RecognisedVersion._1_17, GENERATOR_ID, worldOptions), -TILE_SIZE, 0, 2 * TILE_SIZE, TILE_SIZE);
+			Assert.assertEquals(2, inner.requests.get());
+
+			BiomeTileStore reopenedStore = new BiomeTileStore(root, Long.MAX_VALUE, true);
+			int[] second = getData(reopenedStore.wrap(inner, RecognisedVersion._1_17, GENERATOR_ID, worldOptions), -TILE_SIZE, 0, 2 * TILE_SIZE, TILE_SIZE);
+			Assert.assertEquals(2, inner.requests.get());
+			Assert.assertArrayEquals(first, second);
+			Assert.assertArrayEquals(getData(inner, -TILE_SIZE, 0, 2 * TILE_SIZE, TILE_SIZE), second);
+		} finally {
+			deleteRecursively(root);
+		}
+	}
+
+	@Test
+	public void shouldServeTilesIntoDestinationBuffers() throws IOException, MinecraftInterfaceException {
+		Path root = Files.createTempDirectory("amidst-tiles");
+		try {
+			CountingWorldAccessor inner = new CountingWorldAccessor();
+			WorldOptions worldOptions = new WorldOptions(WorldSeed.fromSaveGame(42), WorldType.DEFAULT);
+
+			short[] first = new short[2 * TILE_SIZE * TILE_SIZE];
+			new BiomeTileStore(root, Long.MAX_VALUE, true).wrap(inner, RecognisedVersion._1_17, GENERATOR_ID, worldOptions)
+					.getBiomeData(Dimension.OVERWORLD, 0, -TILE_SIZE, TILE_SIZE, 2 * TILE_SIZE, true, first);
+			Assert.assertEquals(2, inner.requests.get());
+
+			int[] second = getData(new BiomeTileStore(root, Long.MAX_VALUE, true).wrap(inner, RecognisedVersion._1_17, GENERATOR_ID, worldOptions), 0, -TILE_SIZE, TILE_SIZE, 2 * TILE_SIZE);
+			Assert.assertEquals(2, inner.requests.get());
+			int[] expected = getData(inner, 0, -TILE_SIZE, TILE_SIZE, 2 * TILE_SIZE);
+			Assert.assertArrayEquals(expected, second);
+			for (int i = 0; i < expected.length; i++) {
+				Assert.assertEquals(expected[i], first[i]);
+			}
+		} finally {
+			deleteRecursively(root);
+		}
+	}
+
+	@Test
+	public void shouldPassThroughUnalignedRequests() throws IOException, MinecraftInterfaceException {
+		Path root = Files.createTempDirectory("amidst-tiles");
+		try {
+			CountingWorldAccessor inner = new CountingWorldAccessor();
+			BiomeTileStore store = new BiomeTileStore(root, Long.MAX_VALUE, true);
+			WorldAccessor accessor = store.wrap(inner, RecognisedVersion._1_17, GENERATOR_ID, new WorldOptions(WorldSeed.fromSaveGame(42), WorldType.DEFAULT));
+
+			getData(accessor, 3, 5, 7, 9);
+			getData(accessor, 3, 5, 7, 9);
+			Assert.assertEquals(2, inner.requests.get());
+			try (Stream<Path> files = Files.walk(root)) {
+				Assert.assertFalse(files.anyMatch(Files::isRegularFile));
+			}
+		} finally {
+			deleteRecursively(root);
+		}
+	}
+
+	private static int[] getData(WorldAccessor accessor, int x, int y, int width, int height)
+			throws MinecraftInterfaceException {
+		return accessor.getBiomeData(Dimension.OVERWORLD, x, y, width, height, true, data -> {
+			int[] copy = new int[width * height];
+			System.arraycopy(data, 0, copy, 0, copy.length);
+			return copy;
+		});
+	}
+
+	private static void deleteRecursively(Path root) throws IOException {
+		try (Stream<Path> files = Files.walk(root)) {
+			files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+		}
+	}
+
+	private static class CountingWorldAccessor implements WorldAccessor {
+		private final AtomicInteger requests = new AtomicInteger();
+
+		@Override
+		public <T> T getBiomeData(Dimension dimension, int x, int y, int width, int height,
+				boolean useQuarterResolution, Function<int[], T> biomeDataMapper) {
+			requests.incrementAndGet();
+			int[] data = new int[width * height];
+			for (int j = 0; j < height; j++) {
+				for (int i = 0; i < width; i++) {
+					data[i + j * width] = Math.floorMod((x + i) * 31 + (y + j) * 17, 200);
+				}
+			}
+			return biomeDataMapper.apply(data);
+		}
+
+		@Override
+		public Set<Dimension> supportedDimensions() {
+			return Collections.singleton(Dimension.OVERWORLD);
+		}
+	}
+}
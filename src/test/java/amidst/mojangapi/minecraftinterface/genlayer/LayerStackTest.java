@@ -0,0 +1,62 @@
+package amidst.mojangapi.minecraftinterface.genlayer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import amidst.mojangapi.world.testworld.TestWorld;
+import amidst.mojangapi.world.testworld.TestWorldCache;
+import amidst.mojangapi.world.testworld.TestWorldDeclaration;
+import amidst.mojangapi.world.testworld.TestWorldEntryNames;
+import amidst.mojangapi.world.testworld.storage.json.AreaJson;
+import amidst.mojangapi.world.testworld.storage.json.BiomeDataJson;
+
+public class LayerStackTest {
+	@Test
+	public void shouldGenerateSameQuarterResolutionBiomesAsMinecraft() {
+		assertSameBiomesForAllWorlds(TestWorldEntryNames.QUARTER_RESOLUTION_BIOME_DATA, true);
+	}
+
+	@Test
+	public void shouldGenerateSameFullResolutionBiomesAsMinecraft() {
+		assertSameBiomesForAllWorlds(TestWorldEntryNames.FULL_RESOLUTION_BIOME_DATA, false);
+	}
+
+	private static void assertSameBiomesForAllWorlds(String entryName, boolean useQuarterResolution) {
+		int testedWorlds = 0;
+		for (TestWorldDeclaration declaration : TestWorldDeclaration.values()) {
+			if (GenLayerMinecraftInterface.isCompatible(declaration.getRecognisedVersion())
+					&& declaration.isSupported(entryName)) {
+				assertSameBiomes(declaration, entryName, useQuarterResolution);
+				testedWorlds++;
+			}
+		}
+		Assert.assertTrue("no test world is generated by the layer stack", testedWorlds > 0);
+	}
+
+	private static void assertSameBiomes(
+			TestWorldDeclaration declaration,
+			String entryName,
+			boolean useQuarterResolution) {
+		TestWorld testWorld = TestWorldCache.get(declaration);
+		BiomeDataJson expected = testWorld.getEntryValue(entryName, BiomeDataJson.class);
+		LayerStack layerStack = new LayerStack(
+				declaration.getWorldOptions().getWorldSeed().getLong(),
+				declaration.getWorldOptions().getWorldType(),
+				declaration.getRecognisedVersion());
+
+		for (AreaJson area : expected.getAreas()) {
+			int x = (int) area.getX();
+			int y = (int) area.getY();
+			int width = (int) area.getWidth();
+			int height = (int) area.getHeight();
+			int[] expectedData = expected.get(area.getDimension(), x, y, width, height);
+			int[] actualData = layerStack.getInts(x, y, width, height, useQuarterResolution);
+			for (int i = 0; i < width * height; i++) {
+				Assert.assertEquals(
+						declaration + ": biome at index " + i + " of " + x + ", " + y,
+						expectedData[i],
+						actualData[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package amidst.mojangapi.minecraftinterface.legacy;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import amidst.mojangapi.minecraftinterface.legacy.BetaMinecraftInterface.NoiseArea;
+import amidst.mojangapi.minecraftinterface.legacy.BetaMinecraftInterface.NoiseStrips;
+import amidst.mojangapi.minecraftinterface.legacy.BetaMinecraftInterface.OceanOracle;
+import amidst.mojangapi.minecraftinterface.legacy.BetaMinecraftInterface.PerlinNoise;
+import amidst.mojangapi.minecraftinterface.legacy.BetaMinecraftInterface.PerlinOctaveNoise;
+
+public class BetaMinecraftInterfaceTest {
+	/**
+	 * The state of a perlin noise, like the constructor of the perlin noise in
+	 * the game creates it.
+	 */
+	private static class PerlinNoiseState {
+		private final double xOffset;
+		private final double yOffset;
+		private final double zOffset;
+		private final int[] permutations = new int[512];
+
+		public PerlinNoiseState(Random random) {
+			xOffset = random.nextDouble() * 256.0;
+			yOffset = random.nextDouble() * 256.0;
+			zOffset = random.nextDouble() * 256.0;
+			for (int i = 0; i < 256; i++) {
+				permutations[i] = i;
+			}
+			for (int i = 0; i < 256; i++) {
+				int j = random.nextInt(256 - i) + i;
+				int swap = permutations[i];
+				permutations[i] = permutations[j];
+				permutations[j] = swap;
+				permutations[i + 256] = permutations[i];
+			}
+		}
+
+		public PerlinNoise createPerlinNoise() {
+			return new PerlinNoise(permutations, xOffset, yOffset, zOffset);
+		}
+	}
+
+	private static final int OCTAVES = 16;
+
+	@Test
+	public void shouldSampleLikePerPointSampling() {
+		Random random = new Random(42);
+		for (int octave = 0; octave < OCTAVES; octave++) {
+			PerlinNoiseState noise = new PerlinNoiseState(random);
+			double inverseIntensity = 1.0 / (1 << octave);
+			double scaleXZ = (octave % 2 == 0 ? 684.412 : 8.555150000000001) * inverseIntensity;
+			double scaleY = (octave % 2 == 0 ? 684.412 : 4.277575000000001) * inverseIntensity;
+			int x = random.nextInt(4000) - 2000;
+			int z = random.nextInt(4000) - 2000;
+			double[] expected = new double[33 * 2 * 21];
+			double[] actual = new double[33 * 2 * 21];
+
+			samplePerPoint(noise, expected, x, 7, z, 33, 2, 21, scaleXZ, scaleY, scaleXZ, inverseIntensity);
+			noise.createPerlinNoise().sample(actual, x, 7, z, 33, 2, 21, scaleXZ, scaleY, scaleXZ, inverseIntensity);
+
+			Assert.assertArrayEquals(expected, actual, 0);
+		}
+	}
+
+	@Test
+	public void shouldSampleStripsLikeWholeArea() {
+		OceanOracle oceanOracle = createOceanOracle(new Random(42));
+		int chunkXBegin = -20;
+		int chunkXEnd = 19;
+		int chunkZBegin = -7;
+		int chunkZEnd = 6;
+		int rowsPerStrip = NoiseStrips.MAX_CHUNKS_PER_STRIP / (chunkXEnd - chunkXBegin + 1);
+		NoiseArea wholeArea = oceanOracle.sampleArea(chunkXBegin, chunkZBegin, chunkXEnd, chunkZEnd);
+		NoiseStrips noiseStrips = new NoiseStrips(oceanOracle, chunkXBegin, chunkXEnd, chunkZEnd);
+
+		NoiseArea previousStrip = null;
+		for (int chunkZ = chunkZBegin; chunkZ <= chunkZEnd; chunkZ++) {
+			NoiseArea strip = noiseStrips.get(chunkZ);
+			boolean isNewStrip = (chunkZ - chunkZBegin) % rowsPerStrip == 0;
+			Assert.assertEquals(isNewStrip, strip != previousStrip);
+			previousStrip = strip;
+			for (int chunkX = chunkXBegin; chunkX <= chunkXEnd; chunkX++) {
+				assertSameNoises(wholeArea, strip, chunkX, chunkZ);
+			}
+		}
+	}
+
+	private static void assertSameNoises(NoiseArea expected, NoiseArea actual, int chunkX, int chunkZ) {
+		for (int xNoiseIdx = 0; xNoiseIdx < 5; xNoiseIdx++) {
+			for (int yNoiseIdx = 0; yNoiseIdx < 2; yNoiseIdx++) {
+				for (int zNoiseIdx = 0; zNoiseIdx < 5; zNoiseIdx++) {
+					int expectedIdx = expected.getIndex(chunkX, chunkZ, xNoiseIdx, yNoiseIdx, zNoiseIdx);
+					int actualIdx = actual.getIndex(chunkX, chunkZ, xNoiseIdx, yNoiseIdx, zNoiseIdx);
+					Assert.assertEquals(
+							expected.getInterpolationNoise(expectedIdx),
+							actual.getInterpolationNoise(actualIdx),
+							0);
+					Assert.assertEquals(
+							expected.getUpperInterpolationNoise(expectedIdx),
+							actual.getUpperInterpolationNoise(actualIdx),
+							0);
+					Assert.assertEquals(
+							expected.getLowerInterpolationNoise(expectedIdx),
+							actual.getLowerInterpolationNoise(actualIdx),
+							0);
+				}
+			}
+		}
+	}
+
+	private static OceanOracle createOceanOracle(Random random) {
+		return new OceanOracle(
+				null,
+				null,
+				createPerlinOctaveNoise(random, OCTAVES / 2),
+				createPerlinOctaveNoise(random, OCTAVES),
+				createPerlinOctaveNoise(random, OCTAVES));
+	}
+
+	private static PerlinOctaveNoise createPerlinOctaveNoise(Random random, int octaveCount) {
+		PerlinNoise[] octaves = new PerlinNoise[octaveCount];
+		for (int i = 0; i < octaves.length; i++) {
+			octaves[i] = new PerlinNoiseState(random).createPerlinNoise();
+		}
+		return new PerlinOctaveNoise(octaves, 0);
+	}
+
+	/**
+	 * The sampling of each point on its own, as it was implemented before the
+	 * noise was sampled in rows.
+	 */
+	private static void samplePerPoint(
+			PerlinNoiseState noise,
+			double[] array,
+			double x,
+			double y,
+			double z,
+			int resX,
+			int resY,
+			int resZ,
+			double xScale,
+			double yScale,
+			double zScale,
+			double scale) {
+		int[] permutations = noise.permutations;
+		for (int xIdx = 0; xIdx < resX; ++xIdx) {
+			for (int zIdx = 0; zIdx < resZ; ++zIdx) {
+				for (int yIdx = 0; yIdx < resY; ++yIdx) {
+					double xPos = (x + xIdx) * xScale + noise.xOffset;
+					double yPos = (y + yIdx) * yScale + noise.yOffset;
+					double zPos = (z + zIdx) * zScale + noise.zOffset;
+					int cubeX = (int) Math.floor(xPos) & 255;
+					int cubeY = (int) Math.floor(yPos) & 255;
+					int cubeZ = (int) Math.floor(zPos) & 255;
+					xPos -= Math.floor(xPos);
+					yPos -= Math.floor(yPos);
+					zPos -= Math.floor(zPos);
+					double u = PerlinNoise.fade(xPos);
+					double v = PerlinNoise.fade(yPos);
+					double w = PerlinNoise.fade(zPos);
+
+					int lastY = findLastLerpIndex(noise, yScale, (int) Math.round(y + yIdx), cubeY);
+					double lerpYPos = lastY * yScale + noise.yOffset;
+					int lerpCubeY = (int) Math.floor(lerpYPos) & 255;
+					lerpYPos -= Math.floor(lerpYPos);
+					int A = permutations[cubeX] + lerpCubeY;
+					int AA = permutations[A] + cubeZ;
+					int AB = permutations[A + 1] + cubeZ;
+					int B = permutations[cubeX + 1] + lerpCubeY;
+					int BA = permutations[B] + cubeZ;
+					int BB = permutations[B + 1] + cubeZ;
+					double lerp0 = PerlinNoise.lerp(
+							u,
+							grad(permutations[AA], xPos, lerpYPos, zPos),
+							grad(permutations[BA], xPos - 1, lerpYPos, zPos));
+					double lerp1 = PerlinNoise.lerp(
+							u,
+							grad(permutations[AB], xPos, lerpYPos - 1, zPos),
+							grad(permutations[BB], xPos - 1, lerpYPos - 1, zPos));
+					double lerp2 = PerlinNoise.lerp(
+							u,
+							grad(permutations[AA + 1], xPos, lerpYPos, zPos - 1),
+							grad(permutations[BA + 1], xPos - 1, lerpYPos, zPos - 1));
+					double lerp3 = PerlinNoise.lerp(
+							u,
+							grad(permutations[AB + 1], xPos, lerpYPos - 1, zPos - 1),
+							grad(permutations[BB + 1], xPos - 1, lerpYPos - 1, zPos - 1));
+
+					array[xIdx * resZ * resY + zIdx * resY + yIdx] += PerlinNoise
+							.lerp(w, PerlinNoise.lerp(v, lerp0, lerp1), PerlinNoise.lerp(v, lerp2, lerp3)) * (1 / scale);
+				}
+			}
+		}
+	}
+
+	private static int findLastLerpIndex(PerlinNoiseState noise, double yScale, int yIdx, int cubeY) {
+		int searchIdx = yIdx;
+		while (true) {
+			double searchPos = searchIdx * yScale + noise.yOffset;
+			int searchCube = (int) Math.floor(searchPos) & 255;
+			if (searchIdx < 0 || searchCube != cubeY)
+				break;
+			--searchIdx;
+		}
+		return searchIdx + 1;
+	}
+
+	private static double grad(int hash, double x, double y, double z) {
+		int h = hash & 15;
+		double u = h < 8 ? x : y;
+		double v = h < 4 ? y : h == 12 || h == 14 ? x : z;
+		return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
+	}
+}
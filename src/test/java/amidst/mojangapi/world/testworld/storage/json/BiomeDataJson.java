@@ -1,5 +1,6 @@
 package amidst.mojangapi.world.testworld.storage.json;
 
+import java.util.Set;
 import java.util.SortedMap;
 
 import amidst.documentation.GsonConstructor;
@@ -34,6 +35,10 @@ public class BiomeDataJson {
 		this.biomeData = biomeData;
 	}
 
+	public Set<AreaJson> getAreas() {
+		return biomeData.keySet();
+	}
+
 	public int[] get(Dimension dimension, int x, int y, int width, int height) {
 		AreaJson area = new AreaJson(dimension, x, y, width, height);
 		short[] result = biomeData.get(area);